@@ -0,0 +1,85 @@
+package com.tugce.tedtalksapp.tedtalks.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link YearMonthParser#parse(String)}, which imports use, with
+ * {@link DateConversionUtil#parseYearMonth(String)} on synthetic upload dates, about 1% of them invalid. One
+ * operation is one date, so the score is nanoseconds per date and the GC profiler's {@code gc.alloc.rate.norm}
+ * is the bytes allocated per date. Each dataset size is a nested class, e.g. {@code DateParseBenchmark.Rows1M}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public abstract class DateParseBenchmark {
+
+    private String[] dates;
+
+    protected abstract int rows();
+
+    @Setup(Level.Trial)
+    public void generateDates() {
+        dates = SyntheticTalks.dates(rows());
+        // Both parsers must agree before their speed is worth comparing
+        for (String date : dates) {
+            if (!DateConversionUtil.parseYearMonth(date).equals(YearMonthParser.parse(date))) {
+                throw new IllegalStateException("Parsers disagree on '" + date + "'");
+            }
+        }
+    }
+
+    @Benchmark
+    public void yearMonthParser(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(YearMonthParser.parse(date));
+        }
+    }
+
+    @Benchmark
+    public void dateConversionUtil(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(DateConversionUtil.parseYearMonth(date));
+        }
+    }
+
+    @OperationsPerInvocation(SyntheticTalks.ROWS_10K)
+    public static class Rows10k extends DateParseBenchmark {
+        @Override
+        protected int rows() {
+            return SyntheticTalks.ROWS_10K;
+        }
+    }
+
+    @OperationsPerInvocation(SyntheticTalks.ROWS_1M)
+    public static class Rows1M extends DateParseBenchmark {
+        @Override
+        protected int rows() {
+            return SyntheticTalks.ROWS_1M;
+        }
+    }
+
+    @OperationsPerInvocation(SyntheticTalks.ROWS_10M)
+    public static class Rows10M extends DateParseBenchmark {
+        @Override
+        protected int rows() {
+            return SyntheticTalks.ROWS_10M;
+        }
+    }
+}
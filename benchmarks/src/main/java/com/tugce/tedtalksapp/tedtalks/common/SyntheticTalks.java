@@ -0,0 +1,128 @@
+package com.tugce.tedtalksapp.tedtalks.common;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic catalogs for the benchmarks. Row {@code i} is the same in every dataset and every run:
+ * about one author per twenty talks (at most 100,000 authors), dates from 1984 to 2023 with about 1% unparseable
+ * ("Unknown 2001"), skewed view counts, likes up to a tenth of the views, and one title in ten quoted because it
+ * contains a comma.
+ */
+public final class SyntheticTalks {
+
+    /**
+     * The dataset sizes the benchmarks run with.
+     */
+    public static final int ROWS_10K = 10_000;
+    public static final int ROWS_1M = 1_000_000;
+    public static final int ROWS_10M = 10_000_000;
+
+    private static final String[] MONTHS = {
+            "January", "February", "March", "April", "May", "June",
+            "July", "August", "September", "October", "November", "December"
+    };
+    private static final long SEED = 42;
+
+    private SyntheticTalks() {
+    }
+
+    /**
+     * Returns the author of row {@code i} in a catalog of {@code rows} talks.
+     */
+    public static String author(int i, int rows) {
+        return "Speaker " + Math.floorMod(mix(i), authorCount(rows));
+    }
+
+    /**
+     * Returns the formatted date of row {@code i}, e.g. "March 2016".
+     */
+    public static String date(int i) {
+        long bits = mix(i + 1L);
+        int year = 1984 + (int) Math.floorMod(bits, 40);
+        return Math.floorMod(bits >>> 8, 100) == 0 ? "Unknown " + year : MONTHS[(int) Math.floorMod(bits >>> 16, 12)] + " " + year;
+    }
+
+    /**
+     * Returns the month of row {@code i}, with the fallback the parsers apply to unparseable dates.
+     */
+    public static YearMonth yearMonth(int i) {
+        return YearMonthParser.parse(date(i));
+    }
+
+    /**
+     * Returns the view count of row {@code i}; most talks have few views and a few have millions.
+     */
+    public static long views(int i) {
+        long bits = mix(i + 2L);
+        return Math.floorMod(bits, 1000L) * Math.floorMod(bits >>> 12, 1000L) * (Math.floorMod(bits >>> 24, 10) + 1);
+    }
+
+    /**
+     * Returns the like count of row {@code i}, at most a tenth of its views.
+     */
+    public static long likes(int i) {
+        return Math.floorMod(mix(i + 3L), views(i) / 10 + 1);
+    }
+
+    /**
+     * Returns {@code count} date strings as they appear in uploads, each a distinct string instance.
+     */
+    public static String[] dates(int count) {
+        String[] dates = new String[count];
+        for (int i = 0; i < count; i++) {
+            dates[i] = date(i);
+        }
+        return dates;
+    }
+
+    /**
+     * Returns a CSV file with the header row and {@code rows} talks. The file is written to the temporary
+     * directory on first use and reused by later forks and runs.
+     */
+    public static Path csvFile(int rows) {
+        Path file = Path.of(System.getProperty("java.io.tmpdir"), "tedtalks-benchmark-" + rows + ".csv");
+        if (Files.exists(file)) {
+            return file;
+        }
+        try {
+            Path partial = Files.createTempFile(file.getParent(), "tedtalks-benchmark-", ".partial");
+            try (BufferedWriter writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+                writer.write("title,author,date,views,likes,link\n");
+                for (int i = 0; i < rows; i++) {
+                    writer.write(i % 10 == 0 ? "\"Talk " + i + ", revisited\"" : "Talk " + i);
+                    writer.write(',');
+                    writer.write(author(i, rows));
+                    writer.write(',');
+                    writer.write(date(i));
+                    writer.write(',');
+                    writer.write(Long.toString(views(i)));
+                    writer.write(',');
+                    writer.write(Long.toString(likes(i)));
+                    writer.write(",https://www.ted.com/talks/talk_");
+                    writer.write(Integer.toString(i));
+                    writer.write('\n');
+                }
+            }
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int authorCount(int rows) {
+        return Math.max(1, Math.min(rows / 20, 100_000));
+    }
+
+    private static long mix(long i) {
+        return new SplittableRandom(SEED + i).nextLong();
+    }
+}
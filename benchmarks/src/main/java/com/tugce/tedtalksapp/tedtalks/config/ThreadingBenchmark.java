@@ -0,0 +1,116 @@
+package com.tugce.tedtalksapp.tedtalks.config;
+
+import com.tugce.tedtalksapp.tedtalks.common.BoundedTaskExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request throughput of the two threading modes under a database-bound load. {@code pool} is the default
+ * {@code tedtalks.threads.mode=pool}: a Tomcat-sized pool of {@value #TOMCAT_THREADS} threads. {@code bounded}
+ * is {@code tedtalks.threads.mode=bounded}: a thread per request, admitted by {@link BoundedTaskExecutor} up to
+ * {@value #MAX_CONCURRENT_REQUESTS} at a time like {@link RequestConcurrencyLimitFilter}; {@code bounded-virtual}
+ * does the same on virtual threads and needs a Java 21 JVM, so it only runs when asked for with
+ * {@code -p mode=pool,bounded,bounded-virtual}.
+ * <p>
+ * Each of the {@value #REQUESTS} simulated requests of an operation blocks for {@value #IO_MILLIS} ms outside the
+ * database, e.g. reading an upload, and then holds one of {@value #CONNECTIONS} pooled connections for
+ * {@value #QUERY_MILLIS} ms. One operation is one request, so the score is requests per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ThreadingBenchmark {
+
+    private static final int REQUESTS = 4_000;
+    private static final int TOMCAT_THREADS = 200;
+    private static final int MAX_CONCURRENT_REQUESTS = 1_000;
+    private static final int CONNECTIONS = 20;
+    private static final long IO_MILLIS = 50;
+    private static final long QUERY_MILLIS = 2;
+
+    @Param({"pool", "bounded"})
+    public String mode;
+
+    private TaskExecutor executor;
+    private ThreadPoolTaskExecutor pool;
+    private Semaphore connections;
+
+    @Setup(Level.Trial)
+    public void createExecutor() {
+        connections = new Semaphore(CONNECTIONS, true);
+        switch (mode) {
+            case "pool" -> {
+                pool = new ThreadPoolTaskExecutor();
+                pool.setCorePoolSize(TOMCAT_THREADS);
+                pool.setMaxPoolSize(TOMCAT_THREADS);
+                pool.setQueueCapacity(REQUESTS);
+                pool.initialize();
+                executor = pool;
+            }
+            case "bounded", "bounded-virtual" -> {
+                SimpleAsyncTaskExecutor threads = new SimpleAsyncTaskExecutor("request-");
+                threads.setVirtualThreads(mode.equals("bounded-virtual"));
+                executor = new BoundedTaskExecutor(threads, MAX_CONCURRENT_REQUESTS, REQUESTS);
+            }
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void requests() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        AtomicLong failures = new AtomicLong();
+        for (int i = 0; i < REQUESTS; i++) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(IO_MILLIS);
+                    connections.acquire();
+                    try {
+                        Thread.sleep(QUERY_MILLIS);
+                    } finally {
+                        connections.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        if (!done.await(5, TimeUnit.MINUTES) || failures.get() > 0) {
+            throw new IllegalStateException("Requests did not complete");
+        }
+    }
+}
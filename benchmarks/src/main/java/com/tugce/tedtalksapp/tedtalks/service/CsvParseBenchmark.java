@@ -0,0 +1,79 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.common.SyntheticTalks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse throughput of the CSV import: {@link CsvImporterService#streamCsv}, which parses rows the same way
+ * uploads and local imports do, reading a synthetic file in chunks of 1000 rows. One operation is one row, so
+ * the score is rows per second and the GC profiler's {@code gc.alloc.rate.norm} is the bytes allocated per row. Each dataset size is a nested class, e.g. {@code CsvParseBenchmark.Rows1M}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public abstract class CsvParseBenchmark {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final CsvImporterService importer = new CsvImporterService();
+    private Path file;
+
+    protected abstract int rows();
+
+    @Setup(Level.Trial)
+    public void writeFile() {
+        file = SyntheticTalks.csvFile(rows());
+    }
+
+    @Benchmark
+    public long streamCsv(Blackhole blackhole) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return importer.streamCsv(inputStream, CHUNK_SIZE, blackhole::consume);
+        }
+    }
+
+    @OperationsPerInvocation(SyntheticTalks.ROWS_10K)
+    public static class Rows10k extends CsvParseBenchmark {
+        @Override
+        protected int rows() {
+            return SyntheticTalks.ROWS_10K;
+        }
+    }
+
+    @OperationsPerInvocation(SyntheticTalks.ROWS_1M)
+    public static class Rows1M extends CsvParseBenchmark {
+        @Override
+        protected int rows() {
+            return SyntheticTalks.ROWS_1M;
+        }
+    }
+
+    @OperationsPerInvocation(SyntheticTalks.ROWS_10M)
+    public static class Rows10M extends CsvParseBenchmark {
+        @Override
+        protected int rows() {
+            return SyntheticTalks.ROWS_10M;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.common.SyntheticTalks;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the in-memory rankings behind {@code TedTalkManagementService} when
+ * {@code tedtalks.analytics.snapshot-enabled=true}: the top speakers with the default and a custom like weight,
+ * and the top talks per year, over a {@link TalkSnapshot} of 10k, 1M or 10M synthetic talks scanned in the
+ * default chunks. Titles and links come from a small pool so that the 10M-row snapshot fits the heap; the
+ * rankings only read them for the returned talks. The database-backed rankings are not covered, as they
+ * measure MySQL rather than this code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RankingBenchmark {
+
+    private static final int SCAN_CHUNK_SIZE = 65536;
+    private static final int TEXT_POOL_SIZE = 1024;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private TalkSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void buildSnapshot() {
+        String[] titles = new String[TEXT_POOL_SIZE];
+        String[] links = new String[TEXT_POOL_SIZE];
+        for (int i = 0; i < TEXT_POOL_SIZE; i++) {
+            titles[i] = "Talk " + i;
+            links[i] = "https://www.ted.com/talks/talk_" + i;
+        }
+        TalkSnapshot.Builder builder = new TalkSnapshot.Builder(rows);
+        for (int i = 0; i < rows; i++) {
+            builder.add(i + 1, titles[i % TEXT_POOL_SIZE], SyntheticTalks.author(i, rows), SyntheticTalks.yearMonth(i),
+                    SyntheticTalks.views(i), SyntheticTalks.likes(i), links[i % TEXT_POOL_SIZE]);
+        }
+        snapshot = builder.build(1);
+    }
+
+    @Benchmark
+    public List<Map.Entry<String, Long>> topSpeakers() {
+        return snapshot.topSpeakers(TedTalkManagementService.DEFAULT_LIKE_WEIGHT, 10, 0, SCAN_CHUNK_SIZE);
+    }
+
+    @Benchmark
+    public List<Map.Entry<String, Long>> topSpeakersWithCustomLikeWeight() {
+        return snapshot.topSpeakers(5, 10, 0, SCAN_CHUNK_SIZE);
+    }
+
+    @Benchmark
+    public Map<Integer, List<TedTalkModel>> topTalksPerYear() {
+        return snapshot.topTalksPerYear(TedTalkManagementService.DEFAULT_LIKE_WEIGHT, 3, SCAN_CHUNK_SIZE);
+    }
+}
@@ -0,0 +1,61 @@
+package com.tugce.tedtalksapp.tedtalks.common;
+
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Gives an executor that starts a thread per task, platform or virtual, the limits of a fixed pool:
+ * at most {@code concurrency} tasks run at a time, at most {@code queueCapacity} more wait in submission order,
+ * and further tasks are rejected. Waiting tasks already have their (cheap) thread and block on a semaphore.
+ */
+public class BoundedTaskExecutor implements TaskExecutor {
+
+    private final TaskExecutor threads;
+    private final Semaphore admitted;
+    private final Semaphore running;
+
+    /**
+     * @param threads       the executor that starts the thread of each task
+     * @param concurrency   the number of tasks that may run at a time
+     * @param queueCapacity the number of tasks that may wait for a running one to finish
+     */
+    public BoundedTaskExecutor(TaskExecutor threads, int concurrency, int queueCapacity) {
+        this.threads = threads;
+        this.admitted = new Semaphore(concurrency + queueCapacity);
+        this.running = new Semaphore(concurrency, true);
+    }
+
+    /**
+     * Starts the task once fewer than {@code concurrency} tasks run.
+     *
+     * @throws TaskRejectedException if {@code concurrency + queueCapacity} tasks are already running or waiting
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (!admitted.tryAcquire()) {
+            throw new TaskRejectedException("Executor is busy: all workers are running and the queue is full");
+        }
+        try {
+            threads.execute(() -> {
+                try {
+                    running.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    admitted.release();
+                    return;
+                }
+                try {
+                    task.run();
+                } finally {
+                    running.release();
+                    admitted.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            admitted.release();
+            throw e;
+        }
+    }
+}
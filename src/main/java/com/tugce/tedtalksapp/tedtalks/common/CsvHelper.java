@@ -1,26 +1,235 @@
 package com.tugce.tedtalksapp.tedtalks.common;
 
+import com.opencsv.CSVParserBuilder;
 import com.opencsv.CSVReader;
-import org.springframework.web.multipart.MultipartFile;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.ICSVParser;
+import com.opencsv.exceptions.CsvMalformedLineException;
+import com.opencsv.exceptions.CsvValidationException;
 
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 /**
  * A utility class for handling CSV file operations.
  */
 public class CsvHelper {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] GZIP_MAGIC = {0x1f, (byte) 0x8b};
+    private static final byte[] ZIP_MAGIC = {0x50, 0x4b, 0x03, 0x04};
+
+    /**
+     * Compression formats recognised by their leading magic bytes.
+     */
+    public enum Compression {
+        NONE,
+        GZIP,
+        ZIP
+    }
+
+    /**
+     * Opens a CSV reader over the given stream. Rows are read one at a time with
+     * {@link CSVReader#readNext()}, so the file is never held in memory as a whole. The content is read as
+     * UTF-8 and a backslash is an ordinary character, as in {@link MappedCsvReader}; only a doubled quote
+     * escapes a quote.
+     *
+     * @param inputStream the raw CSV content
+     * @return a CSV reader that the caller is responsible for closing
+     */
+    public static CSVReader openCsvReader(InputStream inputStream) {
+        return new CSVReaderBuilder(new InputStreamReader(inputStream, StandardCharsets.UTF_8))
+                .withCSVParser(new CSVParserBuilder().withEscapeChar(ICSVParser.NULL_CHARACTER).build())
+                .build();
+    }
+
+    /**
+     * Adapts an opencsv reader to a {@link CsvRowSource}.
+     *
+     * @param reader the reader
+     * @return a row source that closes the reader when it is closed
+     */
+    public static CsvRowSource rowSource(CSVReader reader) {
+        return new CsvRowSource() {
+            private boolean exhausted;
+
+            @Override
+            public String[] readNext() throws IOException, CsvValidationException {
+                if (exhausted) {
+                    return null;
+                }
+                try {
+                    return reader.readNext();
+                } catch (CsvMalformedLineException e) {
+                    // opencsv reports an unterminated quote once it has consumed the rest of the input
+                    exhausted = true;
+                    throw e;
+                }
+            }
+
+            @Override
+            public long getLinesRead() {
+                return reader.getLinesRead();
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * Opens the CSV documents contained in an upload. Plain CSV and gzip content yield one document; a zip
+     * archive yields each of its {@code .csv} entries in turn. Compressed content is inflated on the fly as
+     * it is read, never to disk or memory first.
+     *
+     * @param inputStream the uploaded content
+     * @return the CSV documents, which the caller is responsible for closing
+     * @throws IOException if the content cannot be read
+     */
+    public static CsvEntries openCsvEntries(InputStream inputStream) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        return new CsvEntries(buffered, detectCompression(buffered));
+    }
+
     /**
-     * Reads a CSV file and returns its content as a list of string arrays.
+     * Detects the compression format from the first bytes of the stream without consuming them.
      *
-     * @param file the uploaded CSV file
-     * @return a list of string arrays representing each row
-     * @throws Exception if an error occurs while reading the file
+     * @param inputStream a stream that supports mark and reset
+     * @return the detected compression, or {@link Compression#NONE}
+     * @throws IOException if the stream cannot be read
      */
-    public static List<String[]> readCsvFile(MultipartFile file) throws Exception {
-        try (CSVReader reader = new CSVReader(new InputStreamReader(file.getInputStream()))) {
-            return reader.readAll(); // Reads all lines in the CSV file
+    public static Compression detectCompression(InputStream inputStream) throws IOException {
+        inputStream.mark(ZIP_MAGIC.length);
+        byte[] header = inputStream.readNBytes(ZIP_MAGIC.length);
+        inputStream.reset();
+        if (startsWith(header, ZIP_MAGIC)) {
+            return Compression.ZIP;
+        }
+        if (startsWith(header, GZIP_MAGIC)) {
+            return Compression.GZIP;
+        }
+        return Compression.NONE;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Iterates over the CSV documents of an upload; see {@link #openCsvEntries(InputStream)}.
+     */
+    public static final class CsvEntries implements Closeable {
+        private final InputStream source;
+        private final ZipInputStream zip;
+        private String entryName;
+        private int entryCount;
+
+        private CsvEntries(InputStream buffered, Compression compression) throws IOException {
+            switch (compression) {
+                case GZIP -> {
+                    this.source = new GZIPInputStream(buffered, BUFFER_SIZE);
+                    this.zip = null;
+                }
+                case ZIP -> {
+                    this.zip = new ZipInputStream(buffered);
+                    this.source = zip;
+                }
+                default -> {
+                    this.source = buffered;
+                    this.zip = null;
+                }
+            }
+        }
+
+        /**
+         * Advances to the next CSV document.
+         *
+         * @return {@code false} once all documents have been returned
+         * @throws IOException if the archive cannot be read
+         */
+        public boolean next() throws IOException {
+            if (zip == null) {
+                if (entryCount > 0) {
+                    return false;
+                }
+                entryCount++;
+                return true;
+            }
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (isCsvEntry(entry)) {
+                    entryName = entry.getName();
+                    entryCount++;
+                    return true;
+                }
+            }
+            entryName = null;
+            return false;
+        }
+
+        /**
+         * Returns the content of the current document. Closing it does not close the underlying upload.
+         *
+         * @return the current document's content
+         */
+        public InputStream content() {
+            return new FilterInputStream(source) {
+                @Override
+                public void close() {
+                    // The archive stays open for the following entries; CsvEntries.close() releases it
+                }
+            };
+        }
+
+        /**
+         * Returns the name of the current zip entry, or {@code null} for plain and gzip uploads.
+         *
+         * @return the entry name
+         */
+        public String entryName() {
+            return entryName;
+        }
+
+        /**
+         * Returns the number of documents returned by {@link #next()} so far.
+         *
+         * @return the document count
+         */
+        public int entryCount() {
+            return entryCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+
+        private static boolean isCsvEntry(ZipEntry entry) {
+            String name = entry.getName();
+            String fileName = name.substring(name.lastIndexOf('/') + 1);
+            return !entry.isDirectory()
+                    && !name.startsWith("__MACOSX/")
+                    && !fileName.startsWith("._")
+                    && fileName.toLowerCase(Locale.ROOT).endsWith(".csv");
         }
     }
 }
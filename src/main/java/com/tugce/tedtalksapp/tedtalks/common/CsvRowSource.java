@@ -0,0 +1,53 @@
+package com.tugce.tedtalksapp.tedtalks.common;
+
+import com.opencsv.exceptions.CsvMalformedLineException;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A source of raw CSV rows, read one at a time.
+ */
+public interface CsvRowSource extends Closeable {
+
+    /**
+     * Reads the next row.
+     *
+     * @return the column values, or {@code null} at the end of the input
+     * @throws CsvMalformedLineException if the row is not valid CSV; the source has skipped it, so reading can go
+     *                                   on with the next row. Its context holds the raw text of the row
+     * @throws IOException               if the input cannot be read
+     * @throws CsvValidationException    if the row is not valid CSV
+     */
+    String[] readNext() throws IOException, CsvValidationException;
+
+    /**
+     * Returns the number of lines consumed so far; a quoted value spanning several lines counts each of them.
+     *
+     * @return the lines read
+     */
+    long getLinesRead();
+
+    /**
+     * Returns the byte offset of the next row, or -1 if the source cannot tell, e.g. because it reads through a
+     * character decoder or inflates compressed content.
+     *
+     * @return the offset of the next row, or -1
+     */
+    default long getPosition() {
+        return -1;
+    }
+
+    /**
+     * Continues reading at a row start previously returned by {@link #getPosition()}.
+     *
+     * @param position  the byte offset of the next row
+     * @param linesRead the number of lines before that row
+     * @throws IOException                   if the position lies outside the input
+     * @throws UnsupportedOperationException if the source cannot seek
+     */
+    default void seek(long position, long linesRead) throws IOException {
+        throw new UnsupportedOperationException("This row source cannot seek");
+    }
+}
@@ -10,6 +10,7 @@ public class DateConversionUtil {
 
     /**
      * Parses a string to YearMonth, with fallback to the current month and year for invalid input.
+     * Hot paths use {@link YearMonthParser#parse(String)}, which returns the same results without the formatter.
      *
      * @param str the input string
      * @return a valid YearMonth object
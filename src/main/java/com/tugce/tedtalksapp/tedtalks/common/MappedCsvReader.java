@@ -0,0 +1,258 @@
+package com.tugce.tedtalksapp.tedtalks.common;
+
+import com.opencsv.exceptions.CsvMalformedLineException;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a local CSV file through a sliding memory-mapped window and tokenizes it at the byte level,
+ * without an intermediate {@link java.io.Reader} or line buffer. Values are RFC 4180 quoted ({@code ""}
+ * escapes a quote) and UTF-8 encoded; rows end with LF or CRLF.
+ * <p>
+ * The reader is tuned for files whose rows have a known number of columns: rows of that width are returned
+ * in an array of exactly that size, other rows in an array of their own width. A row must fit into one window.
+ * The reader knows the byte offset of every row, so a resumed import can {@link #seek} straight past the rows
+ * it has already committed. A row with an unterminated quoted value is reported and skipped up to the end of the
+ * line it starts on, so that reading can go on with the next line.
+ */
+public class MappedCsvReader implements CsvRowSource {
+
+    private static final byte COMMA = ',';
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+    private final int columns;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean windowAtEof;
+    private long position;
+    private long linesRead;
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Opens the file for reading.
+     *
+     * @param file       the CSV file
+     * @param columns    the expected number of columns per row
+     * @param windowSize the number of bytes mapped at a time; bounds the size of a single row
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedCsvReader(Path file, int columns, int windowSize) throws IOException {
+        if (columns <= 0 || windowSize <= 0) {
+            throw new IllegalArgumentException("Columns and window size must be positive");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.fileSize = channel.size();
+            this.columns = columns;
+            this.windowSize = windowSize;
+            map(0);
+            if (startsWithBom()) {
+                position = UTF8_BOM.length;
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String[] readNext() throws IOException {
+        if (position >= fileSize) {
+            return null;
+        }
+        while (true) {
+            if (position < windowStart || position >= windowStart + window.limit()) {
+                map(position);
+            }
+            String[] row = tokenizeRow((int) (position - windowStart));
+            if (row != null) {
+                return row;
+            }
+            if (windowStart == position && window.limit() == windowSize) {
+                throw new IOException("Row at line " + (linesRead + 1) + " is larger than the map window of "
+                        + windowSize + " bytes");
+            }
+            // The row continues past the window: remap so that the window starts with the row
+            map(position);
+        }
+    }
+
+    @Override
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public void seek(long position, long linesRead) throws IOException {
+        if (position < 0 || position > fileSize) {
+            throw new IOException("Offset " + position + " lies outside the file of " + fileSize + " bytes");
+        }
+        this.position = position;
+        this.linesRead = linesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void map(long start) throws IOException {
+        long size = Math.min(windowSize, fileSize - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+        windowAtEof = start + size == fileSize;
+    }
+
+    private boolean startsWithBom() {
+        if (window.limit() < UTF8_BOM.length) {
+            return false;
+        }
+        for (int i = 0; i < UTF8_BOM.length; i++) {
+            if (window.get(i) != UTF8_BOM[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tokenizes the row starting at the given window index and advances past it.
+     *
+     * @return the row, or {@code null} if it is cut off by the end of the window
+     */
+    private String[] tokenizeRow(int start) throws IOException {
+        int limit = window.limit();
+        String[] values = new String[columns];
+        int count = 0;
+        int lines = 1;
+        int i = start;
+        while (true) {
+            int length = 0;
+            if (i < limit && window.get(i) == QUOTE) {
+                i++;
+                while (true) {
+                    if (i >= limit) {
+                        if (windowAtEof) {
+                            throw skipMalformedRow(start, "Unterminated quoted value in row at line " + (linesRead + 1));
+                        }
+                        return null;
+                    }
+                    byte b = window.get(i);
+                    if (b == QUOTE) {
+                        if (i + 1 >= limit && !windowAtEof) {
+                            return null;
+                        }
+                        if (i + 1 < limit && window.get(i + 1) == QUOTE) {
+                            length = append(length, QUOTE);
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    if (b == LF) {
+                        lines++;
+                    }
+                    length = append(length, b);
+                    i++;
+                }
+                // Characters between the closing quote and the delimiter are kept as they are
+                byte b;
+                while (i < limit && (b = window.get(i)) != COMMA && b != LF && b != CR) {
+                    length = append(length, b);
+                    i++;
+                }
+            } else {
+                int from = i;
+                byte b;
+                while (i < limit && (b = window.get(i)) != COMMA && b != LF && b != CR) {
+                    i++;
+                }
+                length = i - from;
+                ensureScratch(length);
+                window.get(from, scratch, 0, length);
+            }
+            if (i >= limit && !windowAtEof) {
+                return null;
+            }
+
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+
+            if (i >= limit) {
+                break;
+            }
+            byte delimiter = window.get(i);
+            if (delimiter == COMMA) {
+                i++;
+                continue;
+            }
+            if (delimiter == CR) {
+                if (i + 1 >= limit && !windowAtEof) {
+                    return null;
+                }
+                i++;
+                if (i < limit && window.get(i) == LF) {
+                    i++;
+                }
+            } else {
+                i++;
+            }
+            break;
+        }
+        position = windowStart + i;
+        linesRead += lines;
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Advances past the first line of the malformed row starting at the given window index.
+     *
+     * @return the exception reporting the row, with the skipped line as its context
+     */
+    private CsvMalformedLineException skipMalformedRow(int start, String message) {
+        int limit = window.limit();
+        int end = start;
+        while (end < limit && window.get(end) != LF) {
+            end++;
+        }
+        int textEnd = end > start && window.get(end - 1) == CR ? end - 1 : end;
+        byte[] text = new byte[textEnd - start];
+        window.get(start, text);
+        long lineNumber = linesRead + 1;
+        position = windowStart + Math.min(end + 1, limit);
+        linesRead++;
+        return new CsvMalformedLineException(message, lineNumber, new String(text, StandardCharsets.UTF_8));
+    }
+
+    private int append(int length, byte b) {
+        ensureScratch(length + 1);
+        scratch[length] = b;
+        return length + 1;
+    }
+
+    private void ensureScratch(int length) {
+        if (length > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(length, scratch.length * 2));
+        }
+    }
+}
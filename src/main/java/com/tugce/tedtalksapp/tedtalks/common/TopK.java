@@ -0,0 +1,60 @@
+package com.tugce.tedtalksapp.tedtalks.common;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Selects the first {@code k} elements of an ordering with a bounded heap, in {@code O(n log k)} time and
+ * {@code O(k)} memory, instead of sorting all {@code n} elements.
+ */
+public final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * Returns the first {@code k} elements of {@code items} in the given order, sorted by it.
+     *
+     * @param items the elements to select from
+     * @param k     the number of elements to keep
+     * @param order the ranking order; the first element is the best
+     * @return at most {@code k} elements, best first
+     */
+    public static <T> List<T> select(Iterator<? extends T> items, long k, Comparator<? super T> order) {
+        if (k <= 0) {
+            return List.of();
+        }
+        // The head of the heap is the worst element kept so far, the one a better element replaces
+        PriorityQueue<T> heap = new PriorityQueue<>((int) Math.min(k, 1024), order.reversed());
+        while (items.hasNext()) {
+            T item = items.next();
+            if (heap.size() < k) {
+                heap.offer(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.offer(item);
+            }
+        }
+        List<T> selected = new ArrayList<>(heap);
+        selected.sort(order);
+        return selected;
+    }
+
+    /**
+     * Returns the elements at positions {@code offset} to {@code offset + limit - 1} of the given order, keeping
+     * only {@code offset + limit} elements on the heap.
+     *
+     * @param items  the elements to select from
+     * @param limit  the maximum number of elements to return
+     * @param offset the number of best elements to skip
+     * @param order  the ranking order; the first element is the best
+     * @return the requested page, best first
+     */
+    public static <T> List<T> page(Iterator<? extends T> items, int limit, int offset, Comparator<? super T> order) {
+        List<T> top = select(items, (long) limit + offset, order);
+        return offset >= top.size() ? List.of() : top.subList(offset, top.size());
+    }
+}
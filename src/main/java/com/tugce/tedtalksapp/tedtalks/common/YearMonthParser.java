@@ -0,0 +1,132 @@
+package com.tugce.tedtalksapp.tedtalks.common;
+
+import java.time.YearMonth;
+
+/**
+ * Allocation-light parser for dates in "MMMM yyyy" format, used on the CSV import and request mapping hot paths.
+ * <p>
+ * Produces exactly the same results as {@link DateConversionUtil#parseYearMonth(String)}, including its fallbacks,
+ * but matches month names against a precomputed table and reads the year digits in place instead of splitting
+ * the input and running a {@code DateTimeFormatter}. The current date is only looked up when a fallback is needed.
+ */
+public final class YearMonthParser {
+
+    private static final String[] MONTH_NAMES = {
+            "January", "February", "March", "April", "May", "June",
+            "July", "August", "September", "October", "November", "December"
+    };
+
+    /**
+     * Month numbers indexed by the length of their name, so a token is compared with at most three names.
+     */
+    private static final int[][] MONTHS_BY_NAME_LENGTH = buildMonthTable();
+
+    private YearMonthParser() {
+    }
+
+    /**
+     * Parses a string to YearMonth, with fallback to the current month and year for invalid input.
+     * The month is the text before the first space and the year the text between the first and second space.
+     *
+     * @param str the input string
+     * @return a valid YearMonth object
+     */
+    public static YearMonth parse(String str) {
+        if (str == null || str.isEmpty()) {
+            return YearMonth.now();
+        }
+        int length = str.length();
+        int monthEnd = str.indexOf(' ');
+        if (monthEnd < 0) {
+            monthEnd = length;
+        }
+        int yearStart = Math.min(monthEnd + 1, length);
+        int yearEnd = str.indexOf(' ', yearStart);
+        if (yearEnd < 0) {
+            yearEnd = length;
+        }
+
+        int month = parseMonth(str, monthEnd);
+        long year = parseYear(str, yearStart, yearEnd);
+        if (month > 0 && year != Long.MIN_VALUE) {
+            return YearMonth.of((int) year, month);
+        }
+        YearMonth now = YearMonth.now();
+        return YearMonth.of(year != Long.MIN_VALUE ? (int) year : now.getYear(), month > 0 ? month : now.getMonthValue());
+    }
+
+    /**
+     * Matches the full English month name in {@code str[0, end)}, case-sensitively.
+     *
+     * @return the month number, or 0 if the text is not a month name
+     */
+    private static int parseMonth(String str, int end) {
+        if (end >= MONTHS_BY_NAME_LENGTH.length) {
+            return 0;
+        }
+        for (int month : MONTHS_BY_NAME_LENGTH[end]) {
+            if (str.regionMatches(0, MONTH_NAMES[month - 1], 0, end)) {
+                return month;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Parses {@code str[start, end)} with the same rules as {@link Integer#parseInt(String)}.
+     *
+     * @return the year, or {@link Long#MIN_VALUE} if the text is not a valid int
+     */
+    private static long parseYear(String str, int start, int end) {
+        if (start >= end) {
+            return Long.MIN_VALUE;
+        }
+        boolean negative = false;
+        int i = start;
+        char first = str.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (i == end) {
+                return Long.MIN_VALUE;
+            }
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(str.charAt(i), 10);
+            if (digit < 0) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return Long.MIN_VALUE;
+            }
+        }
+        value = negative ? -value : value;
+        return value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+    }
+
+    private static int[][] buildMonthTable() {
+        int maxLength = 0;
+        for (String name : MONTH_NAMES) {
+            maxLength = Math.max(maxLength, name.length());
+        }
+        int[][] table = new int[maxLength + 1][];
+        for (int length = 0; length <= maxLength; length++) {
+            int count = 0;
+            for (String name : MONTH_NAMES) {
+                if (name.length() == length) {
+                    count++;
+                }
+            }
+            table[length] = new int[count];
+            count = 0;
+            for (int month = 1; month <= MONTH_NAMES.length; month++) {
+                if (MONTH_NAMES[month - 1].length() == length) {
+                    table[length][count++] = month;
+                }
+            }
+        }
+        return table;
+    }
+}
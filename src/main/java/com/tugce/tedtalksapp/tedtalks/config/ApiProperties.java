@@ -0,0 +1,53 @@
+package com.tugce.tedtalksapp.tedtalks.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Options for the TedTalk REST API, bound from the {@code tedtalks.api.*} properties.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "tedtalks.api")
+public class ApiProperties {
+
+    /**
+     * Number of TedTalks returned per page when the request does not ask for a size.
+     */
+    private int pageSize = 100;
+
+    /**
+     * Largest page size a request may ask for; larger requests are capped to it.
+     */
+    private int maxPageSize = 1000;
+
+    /**
+     * Whether {@code /search} is served from an in-memory inverted index over titles and authors, built at
+     * startup and kept in sync with every write.
+     */
+    private boolean searchIndexEnabled = true;
+
+    /**
+     * Number of items of a bulk request written per transaction and JDBC batch.
+     */
+    private int bulkChunkSize = 500;
+
+    /**
+     * Largest number of items a bulk request may contain.
+     */
+    private int maxBulkSize = 10000;
+
+    /**
+     * Number of API requests handled at a time in the bounded threading mode ({@code tedtalks.threads.mode=bounded});
+     * keep it a small multiple of the connection pool size.
+     */
+    private int maxConcurrentRequests = 200;
+
+    /**
+     * How long a request waits for one of the {@code max-concurrent-requests} permits before it is rejected.
+     */
+    private Duration requestPermitTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,28 @@
+package com.tugce.tedtalksapp.tedtalks.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the read-through caches. The provider and its limits come from the {@code spring.cache.*} properties,
+ * so a profile can switch caching off with {@code spring.cache.type=none}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * TedTalks by id.
+     */
+    public static final String TED_TALKS = "tedTalks";
+
+    /**
+     * Pages of the speaker ranking, by limit and offset.
+     */
+    public static final String INFLUENTIAL_SPEAKERS = "influentialSpeakers";
+
+    /**
+     * Top TedTalks per year, by number of TedTalks per year.
+     */
+    public static final String TOP_TALKS_PER_YEAR = "topTalksPerYear";
+}
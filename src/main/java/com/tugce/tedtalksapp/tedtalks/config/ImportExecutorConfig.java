@@ -0,0 +1,42 @@
+package com.tugce.tedtalksapp.tedtalks.config;
+
+import com.tugce.tedtalksapp.tedtalks.common.BoundedTaskExecutor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Provides the bounded executor that runs CSV import jobs off the request threads. With
+ * {@code tedtalks.threads.mode=bounded}, each job runs on a thread of its own instead of a pooled one, under the
+ * same worker and queue limits; the threads are virtual when {@code spring.threads.virtual.enabled=true} on
+ * Java 21 or later.
+ */
+@Configuration
+public class ImportExecutorConfig {
+
+    public static final String IMPORT_EXECUTOR = "importExecutor";
+
+    @Bean(name = IMPORT_EXECUTOR)
+    @ConditionalOnProperty(name = "tedtalks.threads.mode", havingValue = "pool", matchIfMissing = true)
+    public ThreadPoolTaskExecutor importExecutor(ImportProperties importProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(importProperties.getWorkers());
+        executor.setMaxPoolSize(importProperties.getWorkers());
+        executor.setQueueCapacity(importProperties.getQueueCapacity());
+        executor.setThreadNamePrefix("csv-import-");
+        return executor;
+    }
+
+    @Bean(name = IMPORT_EXECUTOR)
+    @ConditionalOnProperty(name = "tedtalks.threads.mode", havingValue = "bounded")
+    public TaskExecutor boundedImportExecutor(ImportProperties importProperties, Environment environment) {
+        SimpleAsyncTaskExecutor threads = new SimpleAsyncTaskExecutor("csv-import-");
+        threads.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        return new BoundedTaskExecutor(threads, importProperties.getWorkers(), importProperties.getQueueCapacity());
+    }
+}
@@ -0,0 +1,135 @@
+package com.tugce.tedtalksapp.tedtalks.config;
+
+import com.tugce.tedtalksapp.tedtalks.model.ImportOptions;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Tuning options for CSV imports, bound from the {@code tedtalks.import.*} properties.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "tedtalks.import")
+public class ImportProperties {
+
+    /**
+     * Number of parsed rows handed to the persistence layer at a time.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Number of rows sent to the database per JDBC batch; each batch is committed in its own transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Number of import jobs that may run concurrently.
+     */
+    private int workers = 2;
+
+    /**
+     * Number of submitted jobs that may wait for a free worker before uploads are rejected.
+     */
+    private int queueCapacity = 16;
+
+    /**
+     * Number of finished jobs kept in memory for status queries.
+     */
+    private int retainedJobs = 100;
+
+    /**
+     * Directory where uploads are spooled until their job runs; defaults to the system temp directory.
+     */
+    private String spoolDirectory;
+
+    /**
+     * Whether uploads skip and quarantine bad rows by default instead of aborting on the first one.
+     */
+    private boolean lenient = false;
+
+    /**
+     * Default maximum number of rejected rows in lenient mode; unset for no limit.
+     */
+    private Long maxRejectedRows;
+
+    /**
+     * Default maximum share of rejected rows in lenient mode, in percent; unset for no limit.
+     */
+    private Double maxRejectedPercent;
+
+    /**
+     * Whether uploads update TedTalks with an existing link instead of inserting duplicates.
+     */
+    private boolean upsert = false;
+
+    /**
+     * Directory where rejected rows are written; defaults to the system temp directory.
+     */
+    private String quarantineDirectory;
+
+    /**
+     * How long a resumable upload may go without receiving a chunk before it is discarded.
+     */
+    private Duration uploadSessionTimeout = Duration.ofHours(24);
+
+    private final Pipeline pipeline = new Pipeline();
+
+    private final Local local = new Local();
+
+    /**
+     * Returns the import options used when an upload does not override them.
+     *
+     * @return the default import options
+     */
+    public ImportOptions defaultOptions() {
+        return new ImportOptions(lenient, maxRejectedRows, maxRejectedPercent, upsert);
+    }
+
+    /**
+     * Options for the pipelined import mode, where reading, parsing and writing run on separate threads.
+     */
+    @Data
+    public static class Pipeline {
+
+        /**
+         * Whether imports run as a reader / parser / writer pipeline instead of sequentially.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of threads converting raw CSV rows to TedTalks.
+         */
+        private int parseWorkers = 2;
+
+        /**
+         * Number of chunks each queue between two stages can hold before the upstream stage blocks.
+         */
+        private int queueCapacity = 4;
+    }
+
+    /**
+     * Options for importing CSV files that already sit on the server's file system.
+     */
+    @Data
+    public static class Local {
+
+        /**
+         * Directory that local imports may read from; local imports are disabled while unset.
+         */
+        private String directory;
+
+        /**
+         * Whether CSV files that appear in the directory are imported automatically.
+         */
+        private boolean watch = false;
+
+        /**
+         * Size of the memory-mapped window a local file is read through; a single row must fit into it.
+         */
+        private DataSize mapWindow = DataSize.ofMegabytes(64);
+    }
+}
@@ -0,0 +1,62 @@
+package com.tugce.tedtalksapp.tedtalks.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of API requests handled at a time in the bounded threading mode
+ * ({@code tedtalks.threads.mode=bounded}). That mode is meant to run with a raised {@code server.tomcat.threads.max}
+ * on Java 17, or a virtual thread per request on Java 21, so the Tomcat pool no longer caps requests and every one
+ * of them would otherwise queue for a database connection. Requests beyond {@code tedtalks.api.max-concurrent-requests} wait up to
+ * {@code tedtalks.api.request-permit-timeout} and are then answered with 503 Service Unavailable.
+ */
+@Component
+@ConditionalOnProperty(name = "tedtalks.threads.mode", havingValue = "bounded")
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long permitTimeoutMillis;
+
+    public RequestConcurrencyLimitFilter(ApiProperties apiProperties) {
+        this.permits = new Semaphore(apiProperties.getMaxConcurrentRequests(), true);
+        this.permitTimeoutMillis = apiProperties.getRequestPermitTimeout().toMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(permitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.tugce.tedtalksapp.tedtalks.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Refuses to start while {@code ted_talk_entity} holds several TedTalks with the same link. Such a table predates
+ * the unique {@code ux_ted_talk_link} index, which the schema update cannot create until the duplicates are
+ * removed. The check runs before the entity manager factory, and so before the schema update, and names some of
+ * the duplicated links instead of failing halfway through startup with a bare SQL error.
+ */
+@Configuration
+public class TalkLinkUniquenessCheck implements InitializingBean {
+
+    private static final String BEAN_NAME = "talkLinkUniquenessCheck";
+    private static final int SAMPLE_SIZE = 5;
+    private static final String DUPLICATE_LINKS_QUERY =
+            "SELECT link FROM ted_talk_entity WHERE link IS NOT NULL GROUP BY link HAVING COUNT(*) > 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TalkLinkUniquenessCheck(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Makes the entity manager factory wait for the check.
+     */
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor talkLinkUniquenessCheckDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(BEAN_NAME);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        verify();
+    }
+
+    /**
+     * Verifies that no link occurs more than once.
+     *
+     * @throws IllegalStateException if some links occur more than once
+     */
+    void verify() {
+        List<String> sample = new ArrayList<>();
+        long duplicates;
+        try {
+            duplicates = jdbcTemplate.query(DUPLICATE_LINKS_QUERY, (ResultSetExtractor<Long>) resultSet -> {
+                long count = 0;
+                while (resultSet.next()) {
+                    if (count++ < SAMPLE_SIZE) {
+                        sample.add(resultSet.getString(1));
+                    }
+                }
+                return count;
+            });
+        } catch (BadSqlGrammarException e) {
+            // A new database; the schema update creates the table with its index
+            return;
+        }
+        if (duplicates > 0) {
+            throw new IllegalStateException(duplicates + " links occur more than once in ted_talk_entity, e.g. "
+                    + sample + ". Links must be unique for the ux_ted_talk_link index; remove the duplicate "
+                    + "TedTalks, then rebuild the speaker influence summary once the application is up.");
+        }
+    }
+}
@@ -1,12 +1,30 @@
 package com.tugce.tedtalksapp.tedtalks.controller;
 
+import com.tugce.tedtalksapp.tedtalks.config.ImportProperties;
+import com.tugce.tedtalksapp.tedtalks.dto.ImportJobDTO;
+import com.tugce.tedtalksapp.tedtalks.dto.UploadSessionDTO;
+import com.tugce.tedtalksapp.tedtalks.exception.CsvParseException;
+import com.tugce.tedtalksapp.tedtalks.exception.UploadOffsetMismatchException;
+import com.tugce.tedtalksapp.tedtalks.model.ImportJob;
+import com.tugce.tedtalksapp.tedtalks.model.ImportOptions;
+import com.tugce.tedtalksapp.tedtalks.model.UploadSession;
+import com.tugce.tedtalksapp.tedtalks.service.ImportJobService;
+import com.tugce.tedtalksapp.tedtalks.service.UploadSessionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import com.tugce.tedtalksapp.tedtalks.service.TedTalkProcessingService;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/tedtalks")
@@ -14,30 +32,270 @@ public class TedTalkFileController {
 
     private static final Logger logger = LoggerFactory.getLogger(TedTalkFileController.class);
 
-    private final TedTalkProcessingService processingService;
+    private final ImportJobService importJobService;
+    private final UploadSessionService uploadSessionService;
+    private final ImportProperties importProperties;
 
-    public TedTalkFileController(TedTalkProcessingService processingService) {
-        this.processingService = processingService;
+    public TedTalkFileController(ImportJobService importJobService,
+                                 UploadSessionService uploadSessionService,
+                                 ImportProperties importProperties) {
+        this.importJobService = importJobService;
+        this.uploadSessionService = uploadSessionService;
+        this.importProperties = importProperties;
     }
 
     /**
-     * Endpoint to upload and process a CSV file containing TedTalk data.
+     * Endpoint to upload a CSV file containing TedTalk data. The file is imported in the background;
+     * the response carries the job that can be polled at {@code /api/tedtalks/imports/{id}}.
+     *
+     * In lenient mode, rows that cannot be parsed are skipped and written to a quarantine file until the
+     * error budget is used up. Parameters that are not given default to the {@code tedtalks.import.*} settings.
      *
-     * @param file the uploaded CSV file
-     * @return ResponseEntity indicating the success or failure of the operation
+     * @param file               the uploaded CSV file
+     * @param lenient            whether bad rows are quarantined instead of failing the import
+     * @param maxRejectedRows    the maximum number of rejected rows in lenient mode
+     * @param maxRejectedPercent the maximum share of rejected rows in lenient mode, in percent
+     * @param upsert             whether rows with a known link update the existing TedTalk instead of being inserted
+     * @return 202 Accepted with the import job, or an error if the upload could not be queued
      */
     @PostMapping("/upload")
-    public ResponseEntity<String> uploadCsv(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> uploadCsv(@RequestParam("file") MultipartFile file,
+                                       @RequestParam(required = false) Boolean lenient,
+                                       @RequestParam(required = false) Long maxRejectedRows,
+                                       @RequestParam(required = false) Double maxRejectedPercent,
+                                       @RequestParam(required = false) Boolean upsert) {
+        ImportOptions options = buildOptions(lenient, maxRejectedRows, maxRejectedPercent, upsert);
         try {
-            // Delegate the processing of the CSV to TedTalkProcessingService
-            processingService.processCsv(file);
-
-            // Return a success response
-            return ResponseEntity.ok("CSV file processed and saved successfully.");
+            return accepted(importJobService.submit(file, options));
+        } catch (CsvParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (TaskRejectedException e) {
+            logger.warn("Import queue is full, rejecting upload of {}", file.getOriginalFilename());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Too many imports in progress. Please retry later.");
         } catch (Exception e) {
             logger.error("Error processing the CSV file: {}", e.getMessage(), e); // Log at ERROR level
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to process and save the CSV file.");
         }
     }
+
+    /**
+     * Endpoint to start a resumable upload. The file is then sent in chunks with
+     * {@code PUT /api/tedtalks/uploads/{id}?offset=...} and imported with {@code POST /api/tedtalks/uploads/{id}/complete}.
+     *
+     * @param fileName the name of the file being uploaded
+     * @return 201 Created with the upload session
+     */
+    @PostMapping("/uploads")
+    public ResponseEntity<?> createUpload(@RequestParam(required = false) String fileName) {
+        try {
+            UploadSession session = uploadSessionService.create(fileName);
+            return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/api/tedtalks/uploads/{id}")
+                            .buildAndExpand(session.getId())
+                            .toUri())
+                    .body(mapSessionToDto(session));
+        } catch (IOException e) {
+            logger.error("Could not start upload of {}: {}", fileName, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to start the upload.");
+        }
+    }
+
+    /**
+     * Endpoint to query a resumable upload, e.g. to find the offset to continue from after a failure.
+     *
+     * @param id the upload id
+     * @return the upload session, or 404 if it is unknown
+     */
+    @GetMapping("/uploads/{id}")
+    public ResponseEntity<UploadSessionDTO> getUpload(@PathVariable String id) {
+        return uploadSessionService.getSession(id)
+                .map(session -> ResponseEntity.ok(mapSessionToDto(session)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endpoint to send the next chunk of a resumable upload as the raw request body.
+     *
+     * @param id      the upload id
+     * @param offset  the position of the chunk in the file
+     * @param content the chunk
+     * @return the upload session, 409 Conflict with the expected offset if the chunk does not continue
+     * the upload, or 404 if it is unknown
+     */
+    @PutMapping(value = "/uploads/{id}", consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<?> uploadChunk(@PathVariable String id, @RequestParam long offset, InputStream content) {
+        try {
+            return uploadSessionService.appendChunk(id, offset, content)
+                    .<ResponseEntity<?>>map(session -> ResponseEntity.ok(mapSessionToDto(session)))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (UploadOffsetMismatchException e) {
+            return uploadSessionService.getSession(id)
+                    .<ResponseEntity<?>>map(session -> ResponseEntity.status(HttpStatus.CONFLICT).body(mapSessionToDto(session)))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IOException e) {
+            logger.warn("Chunk of upload {} was interrupted: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to store the chunk.");
+        }
+    }
+
+    /**
+     * Endpoint to finish a resumable upload and import the received file in the background.
+     * Takes the same import options as {@link #uploadCsv}.
+     *
+     * @param id the upload id
+     * @return 202 Accepted with the import job, or 404 if the upload is unknown
+     */
+    @PostMapping("/uploads/{id}/complete")
+    public ResponseEntity<?> completeUpload(@PathVariable String id,
+                                            @RequestParam(required = false) Boolean lenient,
+                                            @RequestParam(required = false) Long maxRejectedRows,
+                                            @RequestParam(required = false) Double maxRejectedPercent,
+                                            @RequestParam(required = false) Boolean upsert) {
+        ImportOptions options = buildOptions(lenient, maxRejectedRows, maxRejectedPercent, upsert);
+        try {
+            return uploadSessionService.complete(id, options)
+                    .map(this::accepted)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (CsvParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (TaskRejectedException e) {
+            logger.warn("Import queue is full, upload {} stays open", id);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Too many imports in progress. Please retry later.");
+        }
+    }
+
+    /**
+     * Endpoint to retry a failed import. It resumes after the last batch the failed attempt committed.
+     *
+     * @param id the job id
+     * @return 202 Accepted with the import job, 409 Conflict if the job cannot be retried, or 404 if it is unknown
+     */
+    @PostMapping("/imports/{id}/retry")
+    public ResponseEntity<?> retryImport(@PathVariable String id) {
+        try {
+            return importJobService.retry(id)
+                    .map(this::accepted)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Too many imports in progress. Please retry later.");
+        }
+    }
+
+    /**
+     * Admin endpoint to import a CSV file that already sits in the server's local import directory
+     * ({@code tedtalks.import.local.directory}), skipping the HTTP upload. Takes the same import options as
+     * {@link #uploadCsv}.
+     *
+     * @param path the file, relative to the local import directory
+     * @return 202 Accepted with the import job, 400 if the path is not a file in the directory,
+     * or 403 if local imports are disabled
+     */
+    @PostMapping("/admin/imports/local")
+    public ResponseEntity<?> importLocalFile(@RequestParam String path,
+                                             @RequestParam(required = false) Boolean lenient,
+                                             @RequestParam(required = false) Long maxRejectedRows,
+                                             @RequestParam(required = false) Double maxRejectedPercent,
+                                             @RequestParam(required = false) Boolean upsert) {
+        ImportOptions options = buildOptions(lenient, maxRejectedRows, maxRejectedPercent, upsert);
+        try {
+            return accepted(importJobService.submitLocalFile(path, options));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Too many imports in progress. Please retry later.");
+        }
+    }
+
+    /**
+     * Endpoint to query the progress of an import job.
+     *
+     * @param id the job id returned by the upload endpoint
+     * @return the job status, or 404 if the job is unknown
+     */
+    @GetMapping("/imports/{id}")
+    public ResponseEntity<ImportJobDTO> getImportJob(@PathVariable String id) {
+        return importJobService.getJob(id)
+                .map(job -> ResponseEntity.ok(mapJobToDto(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endpoint to download the rows rejected by a lenient import, with their line numbers and reasons.
+     *
+     * @param id the job id
+     * @return the quarantine CSV, or 404 if the job is unknown or rejected no rows
+     */
+    @GetMapping("/imports/{id}/rejected-rows")
+    public ResponseEntity<Resource> getRejectedRows(@PathVariable String id) {
+        return importJobService.getJob(id)
+                .filter(job -> job.getQuarantineFile() != null)
+                .map(job -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("text/csv"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=rejected-" + id + ".csv")
+                        .<Resource>body(new FileSystemResource(job.getQuarantineFile())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ImportOptions buildOptions(Boolean lenient, Long maxRejectedRows, Double maxRejectedPercent, Boolean upsert) {
+        ImportOptions defaults = importProperties.defaultOptions();
+        return new ImportOptions(
+                lenient != null ? lenient : defaults.isLenient(),
+                maxRejectedRows != null ? maxRejectedRows : defaults.getMaxRejectedRows(),
+                maxRejectedPercent != null ? maxRejectedPercent : defaults.getMaxRejectedPercent(),
+                upsert != null ? upsert : defaults.isUpsert());
+    }
+
+    private ResponseEntity<?> accepted(ImportJob job) {
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/tedtalks/imports/{id}")
+                        .buildAndExpand(job.getId())
+                        .toUri())
+                .body(mapJobToDto(job));
+    }
+
+    private UploadSessionDTO mapSessionToDto(UploadSession session) {
+        return new UploadSessionDTO(
+                session.getId(),
+                session.getFileName(),
+                session.getReceivedBytes(),
+                session.getCreatedAt(),
+                session.getUpdatedAt()
+        );
+    }
+
+    private ImportJobDTO mapJobToDto(ImportJob job) {
+        return new ImportJobDTO(
+                job.getId(),
+                job.getFileName(),
+                job.getStatus(),
+                job.getRowsParsed(),
+                job.getRowsPersisted(),
+                job.getRowsSkipped(),
+                job.getRowsFailed(),
+                job.getThroughput(),
+                job.getSubmittedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getErrorMessage(),
+                job.getQuarantineFile() != null ? rejectedRowsUrl(job) : null,
+                job.getStageTimings()
+        );
+    }
+
+    private String rejectedRowsUrl(ImportJob job) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/tedtalks/imports/{id}/rejected-rows")
+                .buildAndExpand(job.getId())
+                .toUriString();
+    }
 }
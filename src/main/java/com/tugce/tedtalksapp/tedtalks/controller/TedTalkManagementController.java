@@ -1,26 +1,70 @@
 package com.tugce.tedtalksapp.tedtalks.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.tugce.tedtalksapp.tedtalks.common.DateConversionUtil;
+import com.tugce.tedtalksapp.tedtalks.config.ApiProperties;
+import com.tugce.tedtalksapp.tedtalks.common.YearMonthParser;
+import com.tugce.tedtalksapp.tedtalks.dto.BulkItemResultDTO;
+import com.tugce.tedtalksapp.tedtalks.dto.BulkUpdateDTO;
+import com.tugce.tedtalksapp.tedtalks.dto.CacheStatsDTO;
 import com.tugce.tedtalksapp.tedtalks.dto.TedTalkDTO;
-import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.dto.TedTalkPatchDTO;
+import com.tugce.tedtalksapp.tedtalks.dto.TedTalkPurgeDTO;
+import com.tugce.tedtalksapp.tedtalks.model.BulkItemResult;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkFilter;
 import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkPage;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkPatch;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkPurgeFilter;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkSort;
+import com.tugce.tedtalksapp.tedtalks.service.TalkSearchService;
+import com.tugce.tedtalksapp.tedtalks.service.TedTalkBulkService;
+import com.tugce.tedtalksapp.tedtalks.service.TedTalkCacheService;
+import com.tugce.tedtalksapp.tedtalks.service.TedTalkExportService;
 import com.tugce.tedtalksapp.tedtalks.service.TedTalkManagementService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/tedtalks")
 public class TedTalkManagementController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TedTalkManagementService managementService;
+    private final TedTalkBulkService bulkService;
+    private final TedTalkExportService exportService;
+    private final TedTalkCacheService cacheService;
+    private final TalkSearchService searchService;
+    private final ApiProperties apiProperties;
+    private final ObjectMapper objectMapper;
 
-    public TedTalkManagementController(TedTalkManagementService managementService) {
+    public TedTalkManagementController(TedTalkManagementService managementService,
+                                       TedTalkBulkService bulkService,
+                                       TedTalkExportService exportService,
+                                       TedTalkCacheService cacheService,
+                                       TalkSearchService searchService,
+                                       ApiProperties apiProperties,
+                                       ObjectMapper objectMapper) {
         this.managementService = managementService;
+        this.bulkService = bulkService;
+        this.exportService = exportService;
+        this.cacheService = cacheService;
+        this.searchService = searchService;
+        this.apiProperties = apiProperties;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -36,14 +80,169 @@ public class TedTalkManagementController {
     }
 
     /**
-     * Retrieves all TedTalk entries.
+     * Creates many TedTalks in one request, written in chunked transactions with JDBC batching.
+     *
+     * @param tedTalkDTOs the TedTalks to be created
+     * @return one result per TedTalk, in request order, with the id and a status of 201 for each created TedTalk
+     */
+    @PostMapping("/bulk")
+    public List<BulkItemResultDTO> createTedTalks(@RequestBody List<TedTalkDTO> tedTalkDTOs) {
+        List<TedTalkModel> models = tedTalkDTOs.stream().map(dto -> dto == null ? null : mapDtoToModel(dto)).toList();
+        return mapResults(() -> bulkService.createAll(models));
+    }
+
+    /**
+     * Updates many TedTalks in one request, written in chunked transactions with JDBC batching.
+     *
+     * @param updates the id and new details of each TedTalk
+     * @return one result per update, in request order, with a status of 200, 404 or 409 for each
+     */
+    @PutMapping("/bulk")
+    public List<BulkItemResultDTO> updateTedTalks(@RequestBody List<BulkUpdateDTO> updates) {
+        List<Map.Entry<Long, TedTalkModel>> models = updates.stream()
+                .<Map.Entry<Long, TedTalkModel>>map(update -> new AbstractMap.SimpleEntry<>(
+                        update == null ? null : update.getId(),
+                        update == null || update.getTalk() == null ? null : mapDtoToModel(update.getTalk())))
+                .toList();
+        return mapResults(() -> bulkService.updateAll(models));
+    }
+
+    /**
+     * Deletes many TedTalks in one request, in chunked transactions.
+     *
+     * @param ids the ids of the TedTalks to be deleted
+     * @return one result per id, in request order, with a status of 204 or 404 for each
+     */
+    @PostMapping("/bulk/delete")
+    public List<BulkItemResultDTO> deleteTedTalks(@RequestBody List<Long> ids) {
+        return mapResults(() -> bulkService.deleteAll(ids));
+    }
+
+    /**
+     * Deletes every TedTalk matching the filters with a single {@code DELETE ... WHERE}, optionally archiving
+     * them first with a single {@code INSERT ... SELECT}.
+     *
+     * @param purgeDTO the author, year range and links of the TedTalks to delete, and whether to archive them
+     * @return the number of deleted TedTalks
+     */
+    @PostMapping("/admin/purge")
+    public Map<String, Integer> purgeTedTalks(@RequestBody TedTalkPurgeDTO purgeDTO) {
+        TedTalkPurgeFilter filter = new TedTalkPurgeFilter(
+                purgeDTO.getAuthor(), purgeDTO.getFromYear(), purgeDTO.getToYear(), purgeDTO.getLinks());
+        try {
+            return Map.of("deleted", bulkService.purge(filter, purgeDTO.isArchive()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    private List<BulkItemResultDTO> mapResults(Supplier<List<BulkItemResult>> bulkOperation) {
+        try {
+            return bulkOperation.get().stream()
+                    .map(result -> new BulkItemResultDTO(result.index(), result.id(),
+                            switch (result.outcome()) {
+                                case CREATED -> HttpStatus.CREATED.value();
+                                case UPDATED -> HttpStatus.OK.value();
+                                case DELETED -> HttpStatus.NO_CONTENT.value();
+                                case INVALID -> HttpStatus.BAD_REQUEST.value();
+                                case NOT_FOUND -> HttpStatus.NOT_FOUND.value();
+                                case CONFLICT -> HttpStatus.CONFLICT.value();
+                            },
+                            result.error()))
+                    .toList();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves one page of TedTalks, optionally filtered. Pages are cursor based: when more TedTalks follow,
+     * the response carries an opaque cursor in the {@code X-Next-Cursor} header, which is passed back as
+     * {@code cursor} (with the same filter) to fetch the next page.
      *
-     * @return a list of all TedTalks
+     * @param author   only TedTalks by this author
+     * @param fromYear only TedTalks from this year on
+     * @param toYear   only TedTalks up to this year
+     * @param minViews only TedTalks with at least this many views
+     * @param sort     the order to page in: {@code id} (default), {@code date} (newest first) or
+     *                 {@code influence} (most influential first)
+     * @param cursor   the cursor of the page to fetch; the first page if omitted
+     * @param size     the page size; {@code tedtalks.api.page-size} if omitted, capped at
+     *                 {@code tedtalks.api.max-page-size}
+     * @return the TedTalks on the page
      */
     @GetMapping
-    public ResponseEntity<List<TedTalkDTO>> getAllTedTalks() {
-        List<TedTalkModel> models = managementService.getAllTedTalks();
-        return ResponseEntity.ok(models.stream().map(this::mapModelToDto).toList());
+    public ResponseEntity<List<TedTalkDTO>> getAllTedTalks(@RequestParam(required = false) String author,
+                                                           @RequestParam(required = false) Integer fromYear,
+                                                           @RequestParam(required = false) Integer toYear,
+                                                           @RequestParam(required = false) Long minViews,
+                                                           @RequestParam(defaultValue = "id") String sort,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? Math.min(size, apiProperties.getMaxPageSize()) : apiProperties.getPageSize();
+        TedTalkPage page;
+        try {
+            page = managementService.getTedTalkPage(new TedTalkFilter(author, fromYear, toYear, minViews),
+                    TedTalkSort.fromParameter(sort), cursor, pageSize);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.talks().stream().map(this::mapModelToDto).toList());
+    }
+
+    /**
+     * Exports all TedTalks as newline-delimited JSON, one TedTalk per line in id order. The response is
+     * streamed while the rows are read from the database, so it works for catalogs of any size.
+     *
+     * @return the streamed export
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTedTalks() {
+        ObjectWriter writer = objectMapper.writerFor(TedTalkDTO.class);
+        StreamingResponseBody body = out -> {
+            try {
+                exportService.forEachTedTalk(model -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(mapModelToDto(model)));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Searches TedTalk titles and authors. Every word of the query must match the start of a word in the title
+     * or author, ignoring case and accents.
+     *
+     * @param q     the search terms
+     * @param limit the maximum number of TedTalks to return (default 20), capped at
+     *              {@code tedtalks.api.max-page-size}
+     * @return the matching TedTalks, most influential first
+     */
+    @GetMapping("/search")
+    public List<TedTalkDTO> searchTedTalks(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        }
+        try {
+            return searchService.search(q, Math.min(limit, apiProperties.getMaxPageSize())).stream()
+                    .map(this::mapModelToDto)
+                    .toList();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
     }
 
     /**
@@ -71,6 +270,32 @@ public class TedTalkManagementController {
         return ResponseEntity.ok(mapModelToDto(model));
     }
 
+    /**
+     * Partially updates a specific TedTalk entry by its ID. Only the fields present in the request are written,
+     * with a single {@code UPDATE}.
+     *
+     * @param id       the ID of the TedTalk to be updated
+     * @param patchDTO the fields to be overwritten
+     * @return a 204 No Content status if updated, or 404 Not Found if there is no TedTalk with the ID
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchTedTalk(@PathVariable Long id, @RequestBody TedTalkPatchDTO patchDTO) {
+        TedTalkPatch patch = new TedTalkPatch(
+                patchDTO.getTitle(),
+                patchDTO.getAuthor(),
+                patchDTO.getDate() == null ? null : YearMonthParser.parse(patchDTO.getDate()),
+                patchDTO.getViews(),
+                patchDTO.getLikes(),
+                patchDTO.getLink());
+        boolean patched;
+        try {
+            patched = managementService.patchTedTalk(id, patch);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return patched ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
     /**
      * Deletes a specific TedTalk entry by its ID.
      *
@@ -93,7 +318,7 @@ public class TedTalkManagementController {
         return new TedTalkModel(
                 dto.getTitle(),
                 dto.getAuthor(),
-                DateConversionUtil.parseYearMonth(dto.getDate()),
+                YearMonthParser.parse(dto.getDate()),
                 dto.getViews(),
                 dto.getLikes(),
                 dto.getLink()
@@ -121,46 +346,76 @@ public class TedTalkManagementController {
      * Retrieves the most influential TedTalk speakers based on their influence score.
      * Influence is calculated based on views and likes.
      *
+     * @param limit      the maximum number of speakers to return; all speakers if omitted
+     * @param offset     the number of top speakers to skip
+     * @param likeWeight how much a like counts relative to a view (default 2)
      * @return a list of influential speakers and their scores
      */
     @GetMapping("/influential-speakers")
-    public List<Map.Entry<String, Long>> getMostInfluentialSpeakers() {
-        return managementService.findMostInfluentialSpeakers();
+    public List<Map.Entry<String, Long>> getMostInfluentialSpeakers(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "" + TedTalkManagementService.DEFAULT_LIKE_WEIGHT) long likeWeight) {
+        if ((limit != null && limit < 0) || offset < 0 || likeWeight < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit, offset and likeWeight must not be negative");
+        }
+        return managementService.findMostInfluentialSpeakers(likeWeight, limit != null ? limit : Integer.MAX_VALUE, offset);
     }
 
-
     /**
-     * Retrieves the most influential TedTalks for each year based on their influence score.
-     * Influence is calculated based on views and likes.
+     * Recomputes the speaker influence summary from the stored TedTalks, repairing any drift.
      *
-     * @return a map of years to the most influential TedTalks
+     * @return the number of speakers in the rebuilt summary
      */
-    @GetMapping("/most-influential-tedtalks-per-year")
-    public Map<Integer, Optional<TedTalkDTO>> getMostInfluentialTedTalksPerYear() {
-        return managementService.findMostInfluentialTedTalkPerYear().entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey, // Year as the key
-                        entry -> entry.getValue().map(this::mapEntityToDto) // Map entity to DTO if present
-                ));
+    @PostMapping("/admin/speaker-influence/rebuild")
+    public Map<String, Integer> rebuildSpeakerInfluence() {
+        return Map.of("speakers", managementService.rebuildSpeakerInfluence());
     }
 
     /**
-     * Helper method to map a TedTalkEntity to TedTalkDTO.
+     * Rebuilds the search index from the stored TedTalks, picking up writes made outside this instance.
      *
-     * @param entity The TedTalkEntity to map.
-     * @return The mapped TedTalkDTO.
+     * @return the number of TedTalks in the rebuilt index
      */
-    private TedTalkDTO mapEntityToDto(TedTalkEntity entity) {
-        return new TedTalkDTO(
-                entity.getTitle(),
-                entity.getAuthor(),
-                DateConversionUtil.formatYearMonth(entity.getDate()),
-                entity.getViews(),
-                entity.getLikes(),
-                entity.getLink()
-        );
+    @PostMapping("/admin/search-index/rebuild")
+    public Map<String, Integer> rebuildSearchIndex() {
+        try {
+            return Map.of("talks", searchService.rebuild());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
     }
 
 
+    /**
+     * Retrieves the hit and miss statistics of the read-through caches.
+     *
+     * @return one entry per cache; empty when caching is switched off
+     */
+    @GetMapping("/admin/cache-stats")
+    public List<CacheStatsDTO> getCacheStatistics() {
+        return cacheService.getStatistics();
+    }
+
+    /**
+     * Retrieves the most influential TedTalks for each year based on their influence score.
+     * Influence is calculated based on views and likes.
+     *
+     * @param n          the number of TedTalks to return per year (default 1)
+     * @param likeWeight how much a like counts relative to a view (default 2)
+     * @return a map of years to their most influential TedTalks, most influential first
+     */
+    @GetMapping("/most-influential-tedtalks-per-year")
+    public Map<Integer, List<TedTalkDTO>> getMostInfluentialTedTalksPerYear(
+            @RequestParam(defaultValue = "1") int n,
+            @RequestParam(defaultValue = "" + TedTalkManagementService.DEFAULT_LIKE_WEIGHT) long likeWeight) {
+        if (n < 1 || likeWeight < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "n must be at least 1 and likeWeight must not be negative");
+        }
+        Map<Integer, List<TedTalkDTO>> result = new LinkedHashMap<>();
+        managementService.findMostInfluentialTedTalksPerYear(likeWeight, n)
+                .forEach((year, talks) -> result.put(year, talks.stream().map(this::mapModelToDto).toList()));
+        return result;
+    }
 
 }
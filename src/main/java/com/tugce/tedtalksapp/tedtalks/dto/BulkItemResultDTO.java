@@ -0,0 +1,16 @@
+package com.tugce.tedtalksapp.tedtalks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A Data Transfer Object (DTO) with the outcome of one item of a bulk request.
+ */
+@Data
+@AllArgsConstructor
+public class BulkItemResultDTO {
+    private int index;
+    private Long id;
+    private int status; // The HTTP status the item would have had as a single request
+    private String error;
+}
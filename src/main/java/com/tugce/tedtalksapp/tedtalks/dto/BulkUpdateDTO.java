@@ -0,0 +1,14 @@
+package com.tugce.tedtalksapp.tedtalks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A Data Transfer Object (DTO) for one item of a bulk update: the id of the TED Talk and its new values.
+ */
+@Data
+@AllArgsConstructor
+public class BulkUpdateDTO {
+    private Long id;
+    private TedTalkDTO talk;
+}
@@ -0,0 +1,18 @@
+package com.tugce.tedtalksapp.tedtalks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A Data Transfer Object (DTO) with the hit and miss counts of one cache since startup.
+ */
+@Data
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private String name;
+    private long size;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+}
@@ -0,0 +1,30 @@
+package com.tugce.tedtalksapp.tedtalks.dto;
+
+import com.tugce.tedtalksapp.tedtalks.model.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A Data Transfer Object (DTO) describing the state of a CSV import job.
+ */
+@Data
+@AllArgsConstructor
+public class ImportJobDTO {
+    private String id;
+    private String fileName;
+    private ImportStatus status;
+    private long rowsParsed;
+    private long rowsPersisted;
+    private long rowsSkipped;
+    private long rowsFailed;
+    private double rowsPerSecond;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+    private String rejectedRowsUrl;
+    private Map<String, Long> stageMillis;
+}
@@ -0,0 +1,19 @@
+package com.tugce.tedtalksapp.tedtalks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A Data Transfer Object (DTO) for a partial update of a TED Talk. Fields left out of the request are
+ * {@code null} and keep their stored value.
+ */
+@Data
+@AllArgsConstructor
+public class TedTalkPatchDTO {
+    private String title;
+    private String author;
+    private String date; // Formatted like "December 2021"
+    private Long views;
+    private Long likes;
+    private String link;
+}
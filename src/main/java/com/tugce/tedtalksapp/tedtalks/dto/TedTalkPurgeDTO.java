@@ -0,0 +1,20 @@
+package com.tugce.tedtalksapp.tedtalks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A Data Transfer Object (DTO) selecting the TED Talks to purge. Fields left out of the request do not restrict
+ * the purge, but at least one of author, years and links is required.
+ */
+@Data
+@AllArgsConstructor
+public class TedTalkPurgeDTO {
+    private String author;
+    private Integer fromYear;
+    private Integer toYear;
+    private List<String> links;
+    private boolean archive; // Copy the TED Talks to the archive table before deleting them
+}
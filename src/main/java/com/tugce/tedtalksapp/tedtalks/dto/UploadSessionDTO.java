@@ -0,0 +1,19 @@
+package com.tugce.tedtalksapp.tedtalks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * A Data Transfer Object (DTO) describing a resumable upload. The next chunk must start at {@code receivedBytes}.
+ */
+@Data
+@AllArgsConstructor
+public class UploadSessionDTO {
+    private String id;
+    private String fileName;
+    private long receivedBytes;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
@@ -0,0 +1,35 @@
+package com.tugce.tedtalksapp.tedtalks.entity;
+
+import com.tugce.tedtalksapp.tedtalks.converter.YearMonthConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.YearMonth;
+
+/**
+ * A TedTalk removed by a purge, copied here with its original id before it was deleted. Rows are only written
+ * by {@code INSERT ... SELECT} from the talk table.
+ */
+@Entity
+@Table(name = "ted_talk_archive", indexes = @Index(name = "ix_ted_talk_archive_archived_at", columnList = "archivedAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTedTalkEntity {
+
+    @Id
+    private Long id;
+
+    private String title;
+    private String author;
+    @Convert(converter = YearMonthConverter.class)
+    private YearMonth date;
+    private long views;
+    private long likes;
+    private String link;
+
+    private Instant archivedAt;
+}
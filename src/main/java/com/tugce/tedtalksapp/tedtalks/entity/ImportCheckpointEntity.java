@@ -0,0 +1,55 @@
+package com.tugce.tedtalksapp.tedtalks.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The progress of an import as of its last committed batch. It is written in the same transaction as the
+ * batch, so a retried import can skip exactly the rows that are already stored.
+ */
+@Entity
+@Table(name = "import_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportCheckpointEntity {
+
+    @Id
+    private String jobId;
+
+    /**
+     * Number of data rows read from the file, including rejected rows.
+     */
+    private long rowsRead;
+
+    /**
+     * Number of rows stored in the database.
+     */
+    private long rowsCommitted;
+
+    /**
+     * Number of rows skipped because their link was stored already; {@code null} in checkpoints written before
+     * rows were skipped.
+     */
+    private Long rowsSkipped;
+
+    /**
+     * Byte offset where the next row starts, or {@code null} if the file cannot be sought in, e.g. a
+     * compressed upload.
+     */
+    private Long byteOffset;
+
+    /**
+     * Number of lines before the next row, so that line numbers of rejected rows stay right after a seek;
+     * {@code null} with the byte offset.
+     */
+    private Long linesRead;
+
+    private Instant updatedAt;
+}
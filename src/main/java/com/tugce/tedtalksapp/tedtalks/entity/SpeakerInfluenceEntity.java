@@ -0,0 +1,31 @@
+package com.tugce.tedtalksapp.tedtalks.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-speaker totals over all stored talks, kept up to date on every write so that the influence ranking
+ * is an indexed read instead of an aggregation over the talk table.
+ */
+@Entity
+@Table(name = "speaker_influence",
+        indexes = @Index(name = "ix_speaker_influence_influence", columnList = "influence DESC, author"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpeakerInfluenceEntity {
+
+    @Id
+    private String author;
+
+    private long totalViews;
+    private long totalLikes;
+    private long talkCount;
+
+    /**
+     * {@code totalViews + DEFAULT_LIKE_WEIGHT * totalLikes}, the ranking key for the default like weight.
+     */
+    private long influence;
+}
@@ -2,16 +2,21 @@ package com.tugce.tedtalksapp.tedtalks.entity;
 
 import com.tugce.tedtalksapp.tedtalks.converter.YearMonthConverter;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.YearMonth;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_ted_talk_link", columnList = "link", unique = true),
+        @Index(name = "ix_ted_talk_date_id", columnList = "date, id"),
+        @Index(name = "ix_ted_talk_author_id", columnList = "author, id"),
+        @Index(name = "ix_ted_talk_views_id", columnList = "views, id"),
+        @Index(name = "ix_ted_talk_influence_id", columnList = "influence, id")
+})
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class TedTalkEntity {
 
     @Id
@@ -25,4 +30,22 @@ public class TedTalkEntity {
     private long views;
     private long likes;
     private String link;
+
+    /**
+     * {@code views + 2 * likes}, computed by the database so that paging by influence can use an index. It is
+     * never written, and not set on an entity until the entity is read back.
+     */
+    @Column(insertable = false, updatable = false,
+            columnDefinition = "BIGINT GENERATED ALWAYS AS (views + 2 * likes)")
+    private Long influence;
+
+    public TedTalkEntity(Long id, String title, String author, YearMonth date, long views, long likes, String link) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.date = date;
+        this.views = views;
+        this.likes = likes;
+        this.link = link;
+    }
 }
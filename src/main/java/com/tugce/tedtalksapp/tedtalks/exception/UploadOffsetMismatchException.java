@@ -0,0 +1,20 @@
+package com.tugce.tedtalksapp.tedtalks.exception;
+
+/**
+ * Thrown when an upload chunk does not start where the previously received data ends.
+ */
+public class UploadOffsetMismatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long expectedOffset;
+
+    public UploadOffsetMismatchException(long offset, long expectedOffset) {
+        super("Chunk starts at byte " + offset + " but " + expectedOffset + " bytes have been received");
+        this.expectedOffset = expectedOffset;
+    }
+
+    public long getExpectedOffset() {
+        return expectedOffset;
+    }
+}
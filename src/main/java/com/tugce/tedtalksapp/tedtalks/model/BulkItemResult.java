@@ -0,0 +1,29 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+/**
+ * The outcome of one item of a bulk create, update or delete.
+ *
+ * @param index   the position of the item in the request
+ * @param id      the id of the TedTalk, if known
+ * @param outcome what happened to the item
+ * @param error   why the item was not written, or {@code null} if it was
+ */
+public record BulkItemResult(int index, Long id, Outcome outcome, String error) {
+
+    public enum Outcome {
+        CREATED,
+        UPDATED,
+        DELETED,
+        INVALID,
+        NOT_FOUND,
+        CONFLICT
+    }
+
+    public static BulkItemResult written(int index, Long id, Outcome outcome) {
+        return new BulkItemResult(index, id, outcome, null);
+    }
+
+    public static BulkItemResult rejected(int index, Long id, Outcome outcome, String error) {
+        return new BulkItemResult(index, id, outcome, error);
+    }
+}
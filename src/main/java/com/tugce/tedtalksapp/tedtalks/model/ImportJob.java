@@ -0,0 +1,170 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the progress of an asynchronous CSV import. Counters are updated by the import
+ * worker and may be read concurrently by status requests.
+ */
+@Getter
+public class ImportJob {
+    private final String id = UUID.randomUUID().toString();
+    private final String fileName;
+    private final ImportOptions options;
+    private final Instant submittedAt = Instant.now();
+    private volatile ImportStatus status = ImportStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String errorMessage;
+    private volatile String quarantineFile;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong rowsParsed = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong rowsPersisted = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong rowsSkipped = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong rowsFailed = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final Map<String, LongAdder> stageNanos = new ConcurrentHashMap<>();
+
+    public ImportJob(String fileName) {
+        this(fileName, ImportOptions.STRICT);
+    }
+
+    public ImportJob(String fileName, ImportOptions options) {
+        this.fileName = fileName;
+        this.options = options;
+    }
+
+    public void setQuarantineFile(String quarantineFile) {
+        this.quarantineFile = quarantineFile;
+    }
+
+    /**
+     * Puts a failed job back in the queue for another attempt.
+     */
+    public void markQueued() {
+        errorMessage = null;
+        finishedAt = null;
+        status = ImportStatus.QUEUED;
+    }
+
+    /**
+     * Resets the counters to a checkpoint before an import resumes, discarding progress that was not committed.
+     *
+     * @param rowsCommitted the rows stored by earlier attempts
+     * @param rowsSkipped   the rows skipped by earlier attempts because their link was stored already
+     * @param rowsRejected  the rows rejected by earlier attempts before the checkpoint
+     */
+    public void resumeFrom(long rowsCommitted, long rowsSkipped, long rowsRejected) {
+        rowsParsed.set(rowsCommitted + rowsSkipped);
+        rowsPersisted.set(rowsCommitted);
+        this.rowsSkipped.set(rowsSkipped);
+        rowsFailed.set(rowsRejected);
+    }
+
+    public void markRunning() {
+        startedAt = Instant.now();
+        status = ImportStatus.RUNNING;
+    }
+
+    public void markCompleted() {
+        finishedAt = Instant.now();
+        status = ImportStatus.COMPLETED;
+    }
+
+    public void markFailed(String errorMessage) {
+        this.errorMessage = errorMessage;
+        finishedAt = Instant.now();
+        status = ImportStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == ImportStatus.COMPLETED || status == ImportStatus.FAILED;
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public long getRowsPersisted() {
+        return rowsPersisted.get();
+    }
+
+    /**
+     * Returns the number of rows an append import left out because a TedTalk with the same link was stored.
+     *
+     * @return the skipped rows
+     */
+    public long getRowsSkipped() {
+        return rowsSkipped.get();
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed.get();
+    }
+
+    public void recordParsed(long rows) {
+        rowsParsed.addAndGet(rows);
+    }
+
+    public void recordPersisted(long rows) {
+        rowsPersisted.addAndGet(rows);
+    }
+
+    public void recordSkipped(long rows) {
+        rowsSkipped.addAndGet(rows);
+    }
+
+    public void recordFailed(long rows) {
+        rowsFailed.addAndGet(rows);
+    }
+
+    /**
+     * Adds time spent in an import stage, e.g. {@code "parse"} or {@code "write.idle"}.
+     *
+     * @param stage the stage name
+     * @param nanos the elapsed time in nanoseconds
+     */
+    public void recordStageTime(String stage, long nanos) {
+        stageNanos.computeIfAbsent(stage, key -> new LongAdder()).add(nanos);
+    }
+
+    /**
+     * Returns the accumulated time per import stage in milliseconds, ordered by stage name.
+     *
+     * @return the stage timings
+     */
+    public Map<String, Long> getStageTimings() {
+        Map<String, Long> timings = new TreeMap<>();
+        stageNanos.forEach((stage, nanos) -> timings.put(stage, TimeUnit.NANOSECONDS.toMillis(nanos.sum())));
+        return timings;
+    }
+
+    /**
+     * Returns the number of rows persisted per second since the job started, or 0 if it has not started yet.
+     *
+     * @return the persisted-row throughput
+     */
+    public double getThroughput() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return rowsPersisted.get() * 1000.0 / millis;
+    }
+}
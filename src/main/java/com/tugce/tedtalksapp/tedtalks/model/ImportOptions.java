@@ -0,0 +1,36 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+import lombok.Value;
+
+/**
+ * Per-import settings for how rows that cannot be parsed are treated and how parsed rows are written.
+ * Immutable, so that one instance can be shared by any number of imports.
+ */
+@Value
+public class ImportOptions {
+
+    /**
+     * Aborts on the first row that cannot be parsed and inserts every row as a new TedTalk.
+     */
+    public static final ImportOptions STRICT = new ImportOptions(false, null, null, false);
+
+    /**
+     * Whether bad rows are quarantined and skipped instead of aborting the import.
+     */
+    boolean lenient;
+
+    /**
+     * Maximum number of rejected rows before a lenient import is aborted; {@code null} for no limit.
+     */
+    Long maxRejectedRows;
+
+    /**
+     * Maximum share of rejected rows, in percent, before a lenient import is aborted; {@code null} for no limit.
+     */
+    Double maxRejectedPercent;
+
+    /**
+     * Whether rows whose link already exists update that TedTalk instead of being inserted again.
+     */
+    boolean upsert;
+}
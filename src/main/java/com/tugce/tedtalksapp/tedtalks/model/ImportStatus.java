@@ -0,0 +1,11 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+/**
+ * Lifecycle states of an asynchronous CSV import job.
+ */
+public enum ImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
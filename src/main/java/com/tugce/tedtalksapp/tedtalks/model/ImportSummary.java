@@ -0,0 +1,17 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The outcome of a completed CSV import.
+ */
+@Data
+@AllArgsConstructor
+public class ImportSummary {
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsSkipped; // rows whose link was stored already, in append mode
+    private long rowsRejected;
+    private String quarantineFile; // null when no row was rejected
+}
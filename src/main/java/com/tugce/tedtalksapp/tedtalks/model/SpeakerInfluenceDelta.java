@@ -0,0 +1,41 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+/**
+ * A change to a speaker's totals in the influence summary: what one talk adds when it is stored,
+ * or, negated, what it takes away when it is removed.
+ *
+ * @param author the speaker
+ * @param views  the change in total views
+ * @param likes  the change in total likes
+ * @param talks  the change in the number of talks
+ */
+public record SpeakerInfluenceDelta(String author, long views, long likes, long talks) {
+
+    /**
+     * Returns the contribution of a single stored talk.
+     */
+    public static SpeakerInfluenceDelta added(String author, long views, long likes) {
+        return new SpeakerInfluenceDelta(author, views, likes, 1);
+    }
+
+    /**
+     * Returns the contribution of a single stored talk.
+     */
+    public static SpeakerInfluenceDelta added(TedTalkModel model) {
+        return added(model.getAuthor(), model.getViews(), model.getLikes());
+    }
+
+    /**
+     * Returns the delta that undoes this one.
+     */
+    public SpeakerInfluenceDelta negate() {
+        return new SpeakerInfluenceDelta(author, -views, -likes, -talks);
+    }
+
+    /**
+     * Returns the sum of this delta and another one for the same speaker.
+     */
+    public SpeakerInfluenceDelta plus(SpeakerInfluenceDelta other) {
+        return new SpeakerInfluenceDelta(author, views + other.views, likes + other.likes, talks + other.talks);
+    }
+}
@@ -0,0 +1,33 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+/**
+ * Conditions a TedTalk must meet to be listed; {@code null} components do not restrict the result.
+ *
+ * @param author   the exact author
+ * @param fromYear the first year, inclusive
+ * @param toYear   the last year, inclusive
+ * @param minViews the minimum number of views, inclusive
+ */
+public record TedTalkFilter(String author, Integer fromYear, Integer toYear, Long minViews) {
+
+    /**
+     * Returns a filter that matches every TedTalk.
+     */
+    public static TedTalkFilter none() {
+        return new TedTalkFilter(null, null, null, null);
+    }
+
+    /**
+     * Checks that the year range is not reversed and the minimum views are not negative.
+     *
+     * @throws IllegalArgumentException if the filter cannot match anything meaningful
+     */
+    public void validate() {
+        if (fromYear != null && toYear != null && fromYear > toYear) {
+            throw new IllegalArgumentException("fromYear must not be after toYear");
+        }
+        if (minViews != null && minViews < 0) {
+            throw new IllegalArgumentException("minViews must not be negative");
+        }
+    }
+}
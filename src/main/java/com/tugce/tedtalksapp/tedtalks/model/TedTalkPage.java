@@ -0,0 +1,12 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+import java.util.List;
+
+/**
+ * One page of TedTalks.
+ *
+ * @param talks      the TedTalks on the page
+ * @param nextCursor the opaque cursor of the next page, or {@code null} if this is the last page
+ */
+public record TedTalkPage(List<TedTalkModel> talks, String nextCursor) {
+}
@@ -0,0 +1,39 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+import java.time.YearMonth;
+
+/**
+ * A partial update of a TedTalk: the fields to overwrite, {@code null} for the fields to keep.
+ *
+ * @param title  the new title
+ * @param author the new author
+ * @param date   the new month of the talk
+ * @param views  the new number of views
+ * @param likes  the new number of likes
+ * @param link   the new link
+ */
+public record TedTalkPatch(String title, String author, YearMonth date, Long views, Long likes, String link) {
+
+    /**
+     * Returns whether the patch changes no field.
+     */
+    public boolean isEmpty() {
+        return title == null && author == null && date == null && views == null && likes == null && link == null;
+    }
+
+    /**
+     * Returns whether the patch changes a field that counts towards the author's influence.
+     */
+    public boolean changesInfluence() {
+        return author != null || views != null || likes != null;
+    }
+
+    /**
+     * Returns the contribution of a talk stored as {@code stored} once the patch is applied.
+     */
+    public SpeakerInfluenceDelta applyTo(SpeakerInfluenceDelta stored) {
+        return SpeakerInfluenceDelta.added(author != null ? author : stored.author(),
+                views != null ? views : stored.views(),
+                likes != null ? likes : stored.likes());
+    }
+}
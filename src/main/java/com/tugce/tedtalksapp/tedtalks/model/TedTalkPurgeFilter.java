@@ -0,0 +1,34 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Conditions a TedTalk must meet to be purged; {@code null} components do not restrict the purge, but at
+ * least one must be set.
+ *
+ * @param author   the exact author
+ * @param fromYear the first year, inclusive
+ * @param toYear   the last year, inclusive
+ * @param links    the links of the TedTalks
+ */
+public record TedTalkPurgeFilter(String author, Integer fromYear, Integer toYear, List<String> links) {
+
+    /**
+     * Checks that the filter restricts the purge and that the year range is not reversed.
+     *
+     * @throws IllegalArgumentException if the filter would purge every TedTalk or cannot match anything
+     *                                  meaningful
+     */
+    public void validate() {
+        if (author == null && fromYear == null && toYear == null && links == null) {
+            throw new IllegalArgumentException("At least one of author, fromYear, toYear and links is required");
+        }
+        if (fromYear != null && toYear != null && fromYear > toYear) {
+            throw new IllegalArgumentException("fromYear must not be after toYear");
+        }
+        if (links != null && (links.isEmpty() || links.stream().anyMatch(Objects::isNull))) {
+            throw new IllegalArgumentException("links must not be empty or contain null");
+        }
+    }
+}
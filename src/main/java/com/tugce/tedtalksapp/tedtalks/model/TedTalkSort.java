@@ -0,0 +1,36 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+import java.util.Locale;
+
+/**
+ * Orders in which TedTalks can be paged through.
+ */
+public enum TedTalkSort {
+    /**
+     * By id, oldest entry first.
+     */
+    ID,
+    /**
+     * By date, newest talk first; talks without a date come last.
+     */
+    DATE,
+    /**
+     * By influence ({@code views + 2 * likes}), most influential talk first.
+     */
+    INFLUENCE;
+
+    /**
+     * Parses a sort request parameter, ignoring case.
+     *
+     * @param value the parameter value
+     * @return the matching sort
+     * @throws IllegalArgumentException if the value names no sort
+     */
+    public static TedTalkSort fromParameter(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort: " + value + ". Expected id, date or influence");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published whenever TedTalks are created, updated or deleted, so that caches and derived in-memory views can
+ * refresh. Listeners that need committed data should use {@code @TransactionalEventListener}.
+ *
+ * @param changedIds the ids of the TedTalks that were created, updated or deleted; {@code null} if the writes
+ *                   may have replaced stored TedTalks whose ids are not known
+ * @param links      the links of TedTalks written by upsert imports, which do not report ids
+ * @param bulk       whether an unlisted set of TedTalks changed, such as every TedTalk matching a purge filter;
+ *                   listeners then drop everything they derived from the TedTalk table
+ */
+public record TedTalksChangedEvent(Set<Long> changedIds, Set<String> links, boolean bulk) {
+
+    /**
+     * Returns an event for a create, update or delete of the given TedTalk.
+     */
+    public static TedTalksChangedEvent written(Long id) {
+        return new TedTalksChangedEvent(Set.of(id), Set.of(), false);
+    }
+
+    /**
+     * Returns an event for creates, updates or deletes of the given TedTalks.
+     */
+    public static TedTalksChangedEvent written(Collection<Long> ids) {
+        return new TedTalksChangedEvent(Set.copyOf(ids), Set.of(), false);
+    }
+
+    /**
+     * Returns an event for an import batch whose rows are only known by link. Imported TedTalks without a link
+     * must be reported by id with {@link #written(Collection)} instead.
+     *
+     * @param links             the links of the imported TedTalks
+     * @param replacedExisting  whether the batch may have replaced stored TedTalks
+     */
+    public static TedTalksChangedEvent imported(Collection<String> links, boolean replacedExisting) {
+        return new TedTalksChangedEvent(replacedExisting ? null : Set.of(),
+                links.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet()), false);
+    }
+
+    /**
+     * Returns an event for a write that changed TedTalks matching a filter without listing them.
+     */
+    public static TedTalksChangedEvent bulkChanged() {
+        return new TedTalksChangedEvent(null, Set.of(), true);
+    }
+}
@@ -0,0 +1,31 @@
+package com.tugce.tedtalksapp.tedtalks.model;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A resumable upload in progress. The client sends the file in chunks, each starting at the number of
+ * bytes received so far, and can ask for that offset again after a connection failure.
+ */
+@Getter
+public class UploadSession {
+    private final String id = UUID.randomUUID().toString();
+    private final String fileName;
+    private final Path spoolFile;
+    private final Instant createdAt = Instant.now();
+    private volatile Instant updatedAt = createdAt;
+    private volatile long receivedBytes;
+
+    public UploadSession(String fileName, Path spoolFile) {
+        this.fileName = fileName;
+        this.spoolFile = spoolFile;
+    }
+
+    public void setReceivedBytes(long receivedBytes) {
+        this.receivedBytes = receivedBytes;
+        this.updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,9 @@
+package com.tugce.tedtalksapp.tedtalks.repository;
+
+import com.tugce.tedtalksapp.tedtalks.entity.ImportCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpointEntity, String> {
+}
@@ -0,0 +1,11 @@
+package com.tugce.tedtalksapp.tedtalks.repository;
+
+/**
+ * Projection of a speaker's aggregated influence, computed in the database.
+ */
+public interface SpeakerInfluence {
+
+    String getAuthor();
+
+    Long getInfluence();
+}
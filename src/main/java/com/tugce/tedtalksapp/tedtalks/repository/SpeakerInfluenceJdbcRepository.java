@@ -0,0 +1,112 @@
+package com.tugce.tedtalksapp.tedtalks.repository;
+
+import com.tugce.tedtalksapp.tedtalks.model.SpeakerInfluenceDelta;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Plain JDBC writes to the speaker influence summary, so that the totals can be adjusted relative to their
+ * current value in a single statement per speaker instead of a read-modify-write through the persistence context.
+ */
+@Repository
+public class SpeakerInfluenceJdbcRepository {
+
+    private static final String MYSQL_APPLY_SQL =
+            "INSERT INTO speaker_influence (author, total_views, total_likes, talk_count, influence)"
+                    + " SELECT d.author, d.views, d.likes, d.talks, d.views + %1$d * d.likes"
+                    + " FROM (SELECT ? AS author, ? AS views, ? AS likes, ? AS talks) d"
+                    + " ON DUPLICATE KEY UPDATE total_views = total_views + d.views, total_likes = total_likes + d.likes,"
+                    + " talk_count = talk_count + d.talks, influence = total_views + %1$d * total_likes";
+    private static final String H2_APPLY_SQL =
+            "MERGE INTO speaker_influence s USING (SELECT CAST(? AS VARCHAR(255)) AS author,"
+                    + " CAST(? AS BIGINT) AS views, CAST(? AS BIGINT) AS likes, CAST(? AS BIGINT) AS talks) d"
+                    + " ON s.author = d.author"
+                    + " WHEN MATCHED THEN UPDATE SET total_views = s.total_views + d.views,"
+                    + " total_likes = s.total_likes + d.likes, talk_count = s.talk_count + d.talks,"
+                    + " influence = s.total_views + d.views + %1$d * (s.total_likes + d.likes)"
+                    + " WHEN NOT MATCHED THEN INSERT (author, total_views, total_likes, talk_count, influence)"
+                    + " VALUES (d.author, d.views, d.likes, d.talks, d.views + %1$d * d.likes)";
+    private static final String DELETE_EMPTY_SQL =
+            "DELETE FROM speaker_influence WHERE talk_count <= 0 AND author IN (:authors)";
+    private static final String REBUILD_SQL =
+            "INSERT INTO speaker_influence (author, total_views, total_likes, talk_count, influence)"
+                    + " SELECT author, SUM(views), SUM(likes), COUNT(*), SUM(views) + %d * SUM(likes)"
+                    + " FROM ted_talk_entity WHERE author IS NOT NULL GROUP BY author";
+
+    private static final int MAX_IN_LIST = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String applySql;
+
+    public SpeakerInfluenceJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds the given deltas to the summary in one JDBC batch, as {@code INSERT ... ON DUPLICATE KEY UPDATE} on
+     * MySQL and as {@code MERGE ... USING} on H2. Deltas for the same speaker are combined first,
+     * deltas without an author are ignored, and speakers left without talks are removed. Rows are written in
+     * author order, so concurrent writers lock the summary rows they share in the same order and cannot deadlock.
+     *
+     * @param deltas     the changes to apply
+     * @param likeWeight how much a like counts relative to a view
+     */
+    public void applyDeltas(Collection<SpeakerInfluenceDelta> deltas, long likeWeight) {
+        Map<String, SpeakerInfluenceDelta> byAuthor = new TreeMap<>();
+        for (SpeakerInfluenceDelta delta : deltas) {
+            if (delta.author() != null) {
+                byAuthor.merge(delta.author(), delta, (a, b) ->
+                        new SpeakerInfluenceDelta(a.author(), a.views() + b.views(), a.likes() + b.likes(), a.talks() + b.talks()));
+            }
+        }
+        List<SpeakerInfluenceDelta> combined = byAuthor.values().stream()
+                .filter(delta -> delta.views() != 0 || delta.likes() != 0 || delta.talks() != 0)
+                .toList();
+        if (combined.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(String.format(applySql(), likeWeight), combined, combined.size(), (ps, delta) -> {
+            ps.setString(1, delta.author());
+            ps.setLong(2, delta.views());
+            ps.setLong(3, delta.likes());
+            ps.setLong(4, delta.talks());
+        });
+
+        List<String> shrunk = new ArrayList<>();
+        for (SpeakerInfluenceDelta delta : combined) {
+            if (delta.talks() < 0) {
+                shrunk.add(delta.author());
+            }
+        }
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        for (int from = 0; from < shrunk.size(); from += MAX_IN_LIST) {
+            namedJdbcTemplate.update(DELETE_EMPTY_SQL,
+                    Map.of("authors", shrunk.subList(from, Math.min(from + MAX_IN_LIST, shrunk.size()))));
+        }
+    }
+
+    /**
+     * Recomputes the whole summary from the talk table, discarding any drift.
+     *
+     * @param likeWeight how much a like counts relative to a view
+     * @return the number of speakers in the rebuilt summary
+     */
+    public int rebuild(long likeWeight) {
+        jdbcTemplate.update("DELETE FROM speaker_influence");
+        return jdbcTemplate.update(String.format(REBUILD_SQL, likeWeight));
+    }
+
+    private String applySql() {
+        if (applySql == null) {
+            applySql = SqlDialect.detect(jdbcTemplate) == SqlDialect.H2 ? H2_APPLY_SQL : MYSQL_APPLY_SQL;
+        }
+        return applySql;
+    }
+}
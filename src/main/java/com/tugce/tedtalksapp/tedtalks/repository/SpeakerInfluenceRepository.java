@@ -0,0 +1,34 @@
+package com.tugce.tedtalksapp.tedtalks.repository;
+
+import com.tugce.tedtalksapp.tedtalks.entity.SpeakerInfluenceEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface SpeakerInfluenceRepository extends JpaRepository<SpeakerInfluenceEntity, String> {
+
+    /**
+     * Returns one page of speakers from the influence summary, most influential first.
+     *
+     * @param limit  the maximum number of speakers to return
+     * @param offset the number of speakers to skip
+     * @return the speakers and their influence
+     */
+    @Query("""
+            SELECT s.author AS author, s.influence AS influence
+            FROM SpeakerInfluenceEntity s
+            ORDER BY s.influence DESC, s.author ASC
+            LIMIT :limit OFFSET :offset""")
+    List<SpeakerInfluence> findTopSpeakers(@Param("limit") int limit, @Param("offset") int offset);
+
+    /**
+     * Streams every speaker of the summary; the stream must be consumed and closed inside a transaction.
+     */
+    @Query("SELECT s FROM SpeakerInfluenceEntity s")
+    Stream<SpeakerInfluenceEntity> streamAll();
+}
@@ -0,0 +1,31 @@
+package com.tugce.tedtalksapp.tedtalks.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The databases whose upsert syntax the JDBC repositories know.
+ */
+enum SqlDialect {
+    H2,
+    MYSQL;
+
+    /**
+     * Detects the dialect of the database behind the given template.
+     *
+     * @param jdbcTemplate the template to inspect
+     * @return the dialect
+     * @throws UnsupportedOperationException for other databases
+     */
+    static SqlDialect detect(JdbcTemplate jdbcTemplate) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if ("H2".equals(product)) {
+            return H2;
+        }
+        if ("MySQL".equals(product) || "MariaDB".equals(product)) {
+            return MYSQL;
+        }
+        throw new UnsupportedOperationException("Upsert is not supported on " + product);
+    }
+}
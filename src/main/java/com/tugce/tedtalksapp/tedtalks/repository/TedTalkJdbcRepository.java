@@ -0,0 +1,302 @@
+package com.tugce.tedtalksapp.tedtalks.repository;
+
+import com.tugce.tedtalksapp.tedtalks.converter.YearMonthConverter;
+import com.tugce.tedtalksapp.tedtalks.model.SpeakerInfluenceDelta;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkPurgeFilter;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Plain JDBC access to the TedTalk table for bulk writes.
+ * <p>
+ * {@code TedTalkEntity} uses identity ids, which makes Hibernate send one INSERT per row.
+ * This repository bypasses the persistence context and hands whole batches to the driver instead.
+ */
+@Repository
+public class TedTalkJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ted_talk_entity (title, author, date, views, likes, link) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String MYSQL_UPSERT_SQL = INSERT_SQL
+            + " ON DUPLICATE KEY UPDATE title = VALUES(title), author = VALUES(author), date = VALUES(date),"
+            + " views = VALUES(views), likes = VALUES(likes)";
+    private static final String UPDATE_SQL =
+            "UPDATE ted_talk_entity SET title = ?, author = ?, date = ?, views = ?, likes = ?, link = ? WHERE id = ?";
+    private static final String H2_UPSERT_SQL =
+            "MERGE INTO ted_talk_entity (title, author, date, views, likes, link) KEY (link) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_IN_LIST = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final YearMonthConverter yearMonthConverter = new YearMonthConverter();
+    private volatile SqlDialect dialect;
+
+    public TedTalkJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the given rows using JDBC batches of {@code batchSize} statements.
+     *
+     * @param models    the rows to insert
+     * @param batchSize the number of rows sent to the driver per batch
+     * @return the update counts reported by the driver, one array per executed batch
+     */
+    public int[][] batchInsert(List<TedTalkModel> models, int batchSize) {
+        return jdbcTemplate.batchUpdate(INSERT_SQL, models, batchSize, this::setTalkParameters);
+    }
+
+    /**
+     * Inserts the given rows as one JDBC batch and returns their generated ids.
+     *
+     * @param models the rows to insert
+     * @return the id of each row, in the order of {@code models}
+     */
+    public List<Long> insertReturningIds(List<TedTalkModel> models) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (TedTalkModel model : models) {
+                    setTalkParameters(ps, model);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Long> ids = new ArrayList<>(models.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                if (ids.size() != models.size()) {
+                    throw new IncorrectResultSizeDataAccessException("Generated keys", models.size(), ids.size());
+                }
+                return ids;
+            }
+        });
+    }
+
+    /**
+     * Overwrites the rows with the given ids using JDBC batches of {@code batchSize} statements.
+     *
+     * @param updates   the id of each row and its new values
+     * @param batchSize the number of rows sent to the driver per batch
+     * @return the update counts reported by the driver, one array per executed batch
+     */
+    public int[][] batchUpdateById(List<Map.Entry<Long, TedTalkModel>> updates, int batchSize) {
+        return jdbcTemplate.batchUpdate(UPDATE_SQL, updates, batchSize, (ps, update) -> {
+            setTalkParameters(ps, update.getValue());
+            ps.setLong(7, update.getKey());
+        });
+    }
+
+    /**
+     * Deletes the rows with the given ids.
+     *
+     * @param ids the ids of the rows to delete
+     * @return the number of deleted rows
+     */
+    public int deleteByIds(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        int deleted = 0;
+        for (int from = 0; from < distinctIds.size(); from += MAX_IN_LIST) {
+            List<Long> page = distinctIds.subList(from, Math.min(from + MAX_IN_LIST, distinctIds.size()));
+            deleted += namedJdbcTemplate.update("DELETE FROM ted_talk_entity WHERE id IN (:ids)", Map.of("ids", page));
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns which of the given links are stored already.
+     *
+     * @param links the links to look up
+     * @return the stored links among them
+     */
+    public Set<String> findStoredLinks(Collection<String> links) {
+        List<String> distinctLinks = links.stream().distinct().toList();
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        Set<String> stored = new HashSet<>();
+        for (int from = 0; from < distinctLinks.size(); from += MAX_IN_LIST) {
+            List<String> page = distinctLinks.subList(from, Math.min(from + MAX_IN_LIST, distinctLinks.size()));
+            stored.addAll(namedJdbcTemplate.queryForList("SELECT link FROM ted_talk_entity WHERE link IN (:links)",
+                    Map.of("links", page), String.class));
+        }
+        return stored;
+    }
+
+    /**
+     * Inserts the given rows, or updates the existing row with the same link, using JDBC batches of
+     * {@code batchSize} statements. Runs as {@code INSERT ... ON DUPLICATE KEY UPDATE} on MySQL and as
+     * {@code MERGE ... KEY (link)} on H2. Rows without a link are always inserted.
+     *
+     * @param models    the rows to insert or update
+     * @param batchSize the number of rows sent to the driver per batch
+     * @return the update counts reported by the driver, one array per executed batch
+     */
+    public int[][] batchUpsert(List<TedTalkModel> models, int batchSize) {
+        return jdbcTemplate.batchUpdate(upsertSql(), models, batchSize, this::setTalkParameters);
+    }
+
+    /**
+     * Reads the author, views and likes currently stored for the given links, locking the rows until the
+     * transaction ends so that concurrent imports cannot replace them in between.
+     *
+     * @param links the links to look up; {@code null} links are ignored
+     * @return the stored contribution of each link that exists
+     */
+    public Map<String, SpeakerInfluenceDelta> findContributionsByLinkForUpdate(Collection<String> links) {
+        List<String> distinctLinks = links.stream().filter(Objects::nonNull).distinct().toList();
+        Map<String, SpeakerInfluenceDelta> contributions = new HashMap<>();
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        for (int from = 0; from < distinctLinks.size(); from += MAX_IN_LIST) {
+            List<String> page = distinctLinks.subList(from, Math.min(from + MAX_IN_LIST, distinctLinks.size()));
+            namedJdbcTemplate.query(
+                    "SELECT link, author, views, likes FROM ted_talk_entity WHERE link IN (:links) FOR UPDATE",
+                    Map.of("links", page),
+                    rs -> {
+                        contributions.put(rs.getString("link"), SpeakerInfluenceDelta.added(
+                                rs.getString("author"), rs.getLong("views"), rs.getLong("likes")));
+                    });
+        }
+        return contributions;
+    }
+
+    /**
+     * Reads the author, views and likes currently stored for the given ids, locking the rows until the
+     * transaction ends.
+     *
+     * @param ids the ids to look up
+     * @return the stored contribution of each id that exists
+     */
+    public Map<Long, SpeakerInfluenceDelta> findContributionsByIdForUpdate(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, SpeakerInfluenceDelta> contributions = new HashMap<>();
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        for (int from = 0; from < distinctIds.size(); from += MAX_IN_LIST) {
+            List<Long> page = distinctIds.subList(from, Math.min(from + MAX_IN_LIST, distinctIds.size()));
+            namedJdbcTemplate.query(
+                    "SELECT id, author, views, likes FROM ted_talk_entity WHERE id IN (:ids) FOR UPDATE",
+                    Map.of("ids", page),
+                    rs -> {
+                        contributions.put(rs.getLong("id"), SpeakerInfluenceDelta.added(
+                                rs.getString("author"), rs.getLong("views"), rs.getLong("likes")));
+                    });
+        }
+        return contributions;
+    }
+
+    /**
+     * Sums the stored contributions of the rows that match the filter per speaker, locking the rows until the
+     * transaction ends. MySQL aggregates and locks in one {@code SELECT ... GROUP BY author FOR UPDATE}; H2 does
+     * not allow locking grouped reads, so there the rows are locked by a separate plain {@code SELECT ... FOR UPDATE}
+     * first.
+     *
+     * @param filter the rows to read
+     * @return the total views, likes and number of matching rows of each speaker, in author order
+     */
+    public List<SpeakerInfluenceDelta> sumContributionsForUpdate(TedTalkPurgeFilter filter) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String where = whereClause(filter, parameters);
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        String sum = "SELECT author, SUM(views) AS views, SUM(likes) AS likes, COUNT(*) AS talks"
+                + " FROM ted_talk_entity WHERE " + where + " GROUP BY author ORDER BY author";
+        if (dialect() == SqlDialect.H2) {
+            namedJdbcTemplate.query("SELECT id FROM ted_talk_entity WHERE " + where + " FOR UPDATE", parameters, rs -> { });
+        } else {
+            sum += " FOR UPDATE";
+        }
+        return namedJdbcTemplate.query(sum, parameters, (rs, rowNum) -> new SpeakerInfluenceDelta(
+                rs.getString("author"), rs.getLong("views"), rs.getLong("likes"), rs.getLong("talks")));
+    }
+
+    /**
+     * Copies the rows that match the filter into {@code ted_talk_archive} with one {@code INSERT ... SELECT}.
+     *
+     * @param filter the rows to copy
+     * @return the number of archived rows
+     */
+    public int archive(TedTalkPurgeFilter filter) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String where = whereClause(filter, parameters);
+        return new NamedParameterJdbcTemplate(jdbcTemplate).update(
+                "INSERT INTO ted_talk_archive (id, title, author, date, views, likes, link, archived_at)"
+                        + " SELECT id, title, author, date, views, likes, link, CURRENT_TIMESTAMP"
+                        + " FROM ted_talk_entity WHERE " + where,
+                parameters);
+    }
+
+    /**
+     * Deletes the rows that match the filter with one {@code DELETE ... WHERE}.
+     *
+     * @param filter the rows to delete
+     * @return the number of deleted rows
+     */
+    public int delete(TedTalkPurgeFilter filter) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String where = whereClause(filter, parameters);
+        return new NamedParameterJdbcTemplate(jdbcTemplate).update("DELETE FROM ted_talk_entity WHERE " + where, parameters);
+    }
+
+    /**
+     * Builds the condition of a validated purge filter. Every part is served by an index: author and link
+     * equality, and the year range as a range on the "yyyy-MM" date strings.
+     */
+    private String whereClause(TedTalkPurgeFilter filter, MapSqlParameterSource parameters) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.author() != null) {
+            conditions.add("author = :author");
+            parameters.addValue("author", filter.author());
+        }
+        if (filter.fromYear() != null) {
+            conditions.add("date >= :fromDate");
+            parameters.addValue("fromDate", yearMonthConverter.convertToDatabaseColumn(YearMonth.of(filter.fromYear(), 1)));
+        }
+        if (filter.toYear() != null) {
+            conditions.add("date <= :toDate");
+            parameters.addValue("toDate", yearMonthConverter.convertToDatabaseColumn(YearMonth.of(filter.toYear(), 12)));
+        }
+        if (filter.links() != null) {
+            conditions.add("link IN (:links)");
+            parameters.addValue("links", filter.links());
+        }
+        return String.join(" AND ", conditions);
+    }
+
+    private void setTalkParameters(PreparedStatement ps, TedTalkModel model) throws SQLException {
+        ps.setString(1, model.getTitle());
+        ps.setString(2, model.getAuthor());
+        ps.setString(3, yearMonthConverter.convertToDatabaseColumn(model.getDate()));
+        ps.setLong(4, model.getViews());
+        ps.setLong(5, model.getLikes());
+        ps.setString(6, model.getLink());
+    }
+
+    private String upsertSql() {
+        return dialect() == SqlDialect.H2 ? H2_UPSERT_SQL : MYSQL_UPSERT_SQL;
+    }
+
+    private SqlDialect dialect() {
+        if (dialect == null) {
+            dialect = SqlDialect.detect(jdbcTemplate);
+        }
+        return dialect;
+    }
+}
@@ -1,9 +1,60 @@
 package com.tugce.tedtalksapp.tedtalks.repository;
 
 import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface TedTalkRepository extends JpaRepository<TedTalkEntity, Long> {
+public interface TedTalkRepository extends JpaRepository<TedTalkEntity, Long>, TedTalkRepositoryCustom {
+
+    int EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * Returns the talks with the given links, looked up through the unique link index.
+     */
+    List<TedTalkEntity> findByLinkIn(Collection<String> links);
+
+    /**
+     * Ranks the talks of each year by influence ({@code views + likeWeight * likes}) with {@code ROW_NUMBER()}
+     * and returns the top {@code n} of every year, ordered by year and rank. Ties are broken by id, so the
+     * result is stable. Talks without a date are left out. The year is everything before the {@code -MM} month
+     * suffix of the stored date, so years of five or more digits such as {@code +10000} are kept apart; the rows
+     * are ordered by that text, not numerically.
+     *
+     * @param likeWeight how much a like counts relative to a view
+     * @param n          the number of talks to return per year
+     * @return the ranked talks
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT ranked.title AS title, ranked.author AS author, ranked.date AS date,
+                   ranked.views AS views, ranked.likes AS likes, ranked.link AS link, ranked.influence AS influence
+            FROM (
+                SELECT SUBSTRING(t.date, 1, CHAR_LENGTH(t.date) - 3) AS talk_year,
+                       t.title, t.author, t.date, t.views, t.likes, t.link,
+                       t.views + :likeWeight * t.likes AS influence,
+                       ROW_NUMBER() OVER (PARTITION BY SUBSTRING(t.date, 1, CHAR_LENGTH(t.date) - 3)
+                                          ORDER BY t.views + :likeWeight * t.likes DESC, t.id) AS rank_in_year
+                FROM ted_talk_entity t
+                WHERE t.date IS NOT NULL
+            ) ranked
+            WHERE ranked.rank_in_year <= :n
+            ORDER BY ranked.talk_year, ranked.rank_in_year""")
+    List<YearlyTopTalk> findTopTalksPerYear(@Param("likeWeight") long likeWeight, @Param("n") int n);
+
+    /**
+     * Streams every talk in id order. The driver fetches {@value #EXPORT_FETCH_SIZE} rows at a time, so the
+     * result set is never held in memory; the stream must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("SELECT t FROM TedTalkEntity t ORDER BY t.id")
+    Stream<TedTalkEntity> streamAll();
 }
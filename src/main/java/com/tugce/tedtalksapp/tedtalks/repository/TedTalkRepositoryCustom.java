@@ -0,0 +1,44 @@
+package com.tugce.tedtalksapp.tedtalks.repository;
+
+import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkFilter;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkPatch;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkSort;
+
+import java.util.List;
+
+/**
+ * Queries of {@link TedTalkRepository} that are assembled at runtime with the Criteria API.
+ */
+public interface TedTalkRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} talks that match the filter and come after the given position in the sort
+     * order: ascending id for {@link TedTalkSort#ID}, newest first for {@link TedTalkSort#DATE} and most
+     * influential first for {@link TedTalkSort#INFLUENCE}, ties broken by id. Each filter is a range or
+     * equality condition on an indexed column (author, date, views).
+     *
+     * @param filter     the conditions talks must meet
+     * @param sort       the order
+     * @param likeWeight how much a like counts relative to a view, for {@link TedTalkSort#INFLUENCE}; only the
+     *                   default weight of 2 pages through an index, other weights cost a full scan per page
+     * @param afterKey   the sort key of the last talk of the previous page: a {@code YearMonth} for
+     *                   {@link TedTalkSort#DATE}, a {@code Long} influence for {@link TedTalkSort#INFLUENCE},
+     *                   unused for {@link TedTalkSort#ID}
+     * @param afterId    the id of the last talk of the previous page, or {@code null} for the first page
+     * @param limit      the maximum number of talks to return
+     * @return the talks, in sort order
+     */
+    List<TedTalkEntity> findPage(TedTalkFilter filter, TedTalkSort sort, long likeWeight,
+                                 Object afterKey, Long afterId, int limit);
+
+    /**
+     * Overwrites the fields set in the patch with a single {@code UPDATE ... WHERE id = ?}, without loading the
+     * talk. Bypasses the persistence context and its entity listeners.
+     *
+     * @param id    the id of the talk
+     * @param patch the fields to overwrite; must not be empty
+     * @return the number of updated rows: 1, or 0 if there is no talk with the id
+     */
+    int patch(Long id, TedTalkPatch patch);
+}
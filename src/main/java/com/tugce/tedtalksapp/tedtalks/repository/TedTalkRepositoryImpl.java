@@ -0,0 +1,130 @@
+package com.tugce.tedtalksapp.tedtalks.repository;
+
+import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkFilter;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkPatch;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria API implementation of {@link TedTalkRepositoryCustom}.
+ */
+class TedTalkRepositoryImpl implements TedTalkRepositoryCustom {
+
+    /**
+     * The like weight of the generated {@code influence} column.
+     */
+    private static final long INDEXED_LIKE_WEIGHT = 2;
+
+    private final EntityManager entityManager;
+
+    TedTalkRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<TedTalkEntity> findPage(TedTalkFilter filter, TedTalkSort sort, long likeWeight,
+                                        Object afterKey, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TedTalkEntity> query = cb.createQuery(TedTalkEntity.class);
+        Root<TedTalkEntity> talk = query.from(TedTalkEntity.class);
+        List<Predicate> predicates = filterPredicates(cb, talk, filter);
+
+        Path<Long> id = talk.get("id");
+        switch (sort) {
+            case ID -> {
+                if (afterId != null) {
+                    predicates.add(cb.greaterThan(id, afterId));
+                }
+                query.orderBy(cb.asc(id));
+            }
+            case DATE -> {
+                // Talks without a date come last, so a page after one of them only holds undated talks
+                Path<YearMonth> date = talk.get("date");
+                if (afterId != null) {
+                    YearMonth afterDate = (YearMonth) afterKey;
+                    predicates.add(afterDate == null
+                            ? cb.and(cb.isNull(date), cb.lessThan(id, afterId))
+                            : cb.or(cb.lessThan(date, afterDate),
+                                    cb.and(cb.equal(date, afterDate), cb.lessThan(id, afterId)),
+                                    cb.isNull(date)));
+                }
+                query.orderBy(((JpaOrder) cb.desc(date)).nullPrecedence(NullPrecedence.LAST), cb.desc(id));
+            }
+            case INFLUENCE -> {
+                // The stored column has the default weight and is indexed; other weights scan and sort every row
+                Expression<Long> influence = likeWeight == INDEXED_LIKE_WEIGHT
+                        ? talk.get("influence")
+                        : cb.sum(talk.get("views"), cb.prod(cb.literal(likeWeight), talk.get("likes")));
+                if (afterId != null) {
+                    Long afterInfluence = (Long) afterKey;
+                    predicates.add(cb.or(cb.lessThan(influence, afterInfluence),
+                            cb.and(cb.equal(influence, afterInfluence), cb.lessThan(id, afterId))));
+                }
+                query.orderBy(cb.desc(influence), cb.desc(id));
+            }
+        }
+
+        query.select(talk).where(predicates.toArray(Predicate[]::new));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public int patch(Long id, TedTalkPatch patch) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<TedTalkEntity> update = cb.createCriteriaUpdate(TedTalkEntity.class);
+        Root<TedTalkEntity> talk = update.from(TedTalkEntity.class);
+        if (patch.title() != null) {
+            update.set(talk.<String>get("title"), patch.title());
+        }
+        if (patch.author() != null) {
+            update.set(talk.<String>get("author"), patch.author());
+        }
+        if (patch.date() != null) {
+            update.set(talk.<YearMonth>get("date"), patch.date());
+        }
+        if (patch.views() != null) {
+            update.set(talk.<Long>get("views"), patch.views());
+        }
+        if (patch.likes() != null) {
+            update.set(talk.<Long>get("likes"), patch.likes());
+        }
+        if (patch.link() != null) {
+            update.set(talk.<String>get("link"), patch.link());
+        }
+        update.where(cb.equal(talk.get("id"), id));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<TedTalkEntity> talk, TedTalkFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.author() != null) {
+            predicates.add(cb.equal(talk.get("author"), filter.author()));
+        }
+        // Dates are stored as "yyyy-MM" strings, so a year range is a range on the date index
+        Path<YearMonth> date = talk.get("date");
+        if (filter.fromYear() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(date, YearMonth.of(filter.fromYear(), 1)));
+        }
+        if (filter.toYear() != null) {
+            predicates.add(cb.lessThanOrEqualTo(date, YearMonth.of(filter.toYear(), 12)));
+        }
+        if (filter.minViews() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(talk.get("views"), filter.minViews()));
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,21 @@
+package com.tugce.tedtalksapp.tedtalks.repository;
+
+/**
+ * Projection of a talk ranked within its year by influence, computed in the database.
+ */
+public interface YearlyTopTalk {
+
+    String getTitle();
+
+    String getAuthor();
+
+    String getDate();
+
+    Long getViews();
+
+    Long getLikes();
+
+    String getLink();
+
+    Long getInfluence();
+}
@@ -0,0 +1,37 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.opencsv.exceptions.CsvValidationException;
+import com.tugce.tedtalksapp.tedtalks.common.CsvRowSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The CSV documents of one import (one for a plain or gzip file, one per entry of a zip archive),
+ * each positioned after its verified header row.
+ */
+interface CsvDocuments extends Closeable {
+
+    /**
+     * Advances to the next document, closing the current one.
+     *
+     * @return {@code false} once all documents have been read
+     * @throws com.tugce.tedtalksapp.tedtalks.exception.CsvParseException if a document is empty or its headers
+     *                                                                    do not match
+     */
+    boolean next() throws IOException, CsvValidationException;
+
+    /**
+     * Returns the data rows of the current document.
+     *
+     * @return the current document's rows
+     */
+    CsvRowSource rows();
+
+    /**
+     * Returns the zip entry of the current document, or {@code null} for plain and gzip files.
+     *
+     * @return the entry name
+     */
+    String entryName();
+}
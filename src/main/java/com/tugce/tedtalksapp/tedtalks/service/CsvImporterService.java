@@ -1,17 +1,28 @@
 package com.tugce.tedtalksapp.tedtalks.service;
 
+import com.opencsv.exceptions.CsvMalformedLineException;
+import com.opencsv.exceptions.CsvValidationException;
 import com.tugce.tedtalksapp.tedtalks.common.CsvHelper;
-import com.tugce.tedtalksapp.tedtalks.common.DateConversionUtil;
+import com.tugce.tedtalksapp.tedtalks.common.CsvRowSource;
+import com.tugce.tedtalksapp.tedtalks.common.MappedCsvReader;
+import com.tugce.tedtalksapp.tedtalks.common.YearMonthParser;
 import com.tugce.tedtalksapp.tedtalks.exception.CsvParseException;
 import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service for importing and parsing CSV files containing TedTalk data.
@@ -19,70 +30,307 @@ import java.util.List;
 @Service
 public class CsvImporterService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CsvImporterService.class);
     private static final DateTimeFormatter YEAR_MONTH_FORMATTER = DateTimeFormatter.ofPattern("MMMM yyyy", java.util.Locale.ENGLISH);
+    private static final String[] EXPECTED_HEADERS = {"title", "author", "date", "views", "likes", "link"};
 
     /**
-     * Parses the uploaded CSV file and converts it to a list of TedTalkModel objects.
+     * Reads CSV content row by row and hands the parsed rows to the consumer in chunks of at most
+     * {@code chunkSize}. The first row that cannot be parsed aborts the import.
      *
-     * @param file the uploaded CSV file
-     * @return a list of TedTalkModel objects
-     * @throws CsvParseException if an error occurs during parsing
+     * @see #streamCsv(InputStream, int, Consumer, RejectedRowHandler)
      */
-    public List<TedTalkModel> parseCsv(MultipartFile file) throws CsvParseException {
+    public long streamCsv(InputStream inputStream, int chunkSize, Consumer<List<TedTalkModel>> chunkConsumer) throws CsvParseException {
+        return streamCsv(inputStream, chunkSize, chunkConsumer, RejectedRowHandler.STRICT);
+    }
+
+    /**
+     * Reads CSV content row by row and hands the parsed rows to the consumer in
+     * chunks of at most {@code chunkSize}, so only one chunk is ever held in memory.
+     * Gzip content is inflated on the fly, and each CSV entry of a zip archive is read in turn,
+     * each with its own header row.
+     * Rows that cannot be parsed are passed to the rejected row handler, which may skip them or abort.
+     * Exceptions thrown by the consumer are propagated unchanged.
+     *
+     * @param inputStream        the CSV, gzip or zip content; closed when parsing finishes
+     * @param chunkSize          the maximum number of rows per chunk
+     * @param chunkConsumer      receives each chunk of parsed rows, in file order
+     * @param rejectedRowHandler decides what happens to rows that cannot be parsed
+     * @return the number of rows parsed
+     * @throws CsvParseException if the file cannot be read or the handler aborts the import
+     */
+    public long streamCsv(InputStream inputStream, int chunkSize, Consumer<List<TedTalkModel>> chunkConsumer,
+                          RejectedRowHandler rejectedRowHandler) throws CsvParseException {
+        try (CsvDocuments documents = openDocuments(inputStream)) {
+            return streamChunks(documents, chunkSize, ReadPosition.START, chunk -> chunkConsumer.accept(chunk.models()),
+                    rejectedRowHandler);
+        } catch (IOException e) {
+            throw new CsvParseException("Error parsing CSV file", e);
+        }
+    }
+
+    /**
+     * Streams the rows of the given documents in chunks, starting at the given position so that an interrupted
+     * import can resume from its checkpoint. Where the rows have byte offsets, the reader seeks straight to the
+     * position; otherwise the rows before it are read past without being parsed.
+     *
+     * @param documents          the documents to read; left open
+     * @param chunkSize          the maximum number of rows per chunk
+     * @param resumeFrom         the position to continue from, {@link ReadPosition#START} for a new import
+     * @param chunkConsumer      receives each chunk of parsed rows, in file order
+     * @param rejectedRowHandler decides what happens to rows that cannot be parsed
+     * @return the number of rows parsed, not counting skipped rows
+     * @throws CsvParseException if the file cannot be read or the handler aborts the import
+     */
+    long streamChunks(CsvDocuments documents, int chunkSize, ReadPosition resumeFrom, Consumer<ParsedChunk> chunkConsumer,
+                      RejectedRowHandler rejectedRowHandler) throws CsvParseException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
         try {
-            System.out.println("Parsing CSV file...");
-            List<String[]> rows = CsvHelper.readCsvFile(file);
-            List<TedTalkModel> tedTalks = new ArrayList<>();
+            long skipRows = resumeFrom.rowsRead();
+            long rowsRead = 0;
+            long rowCount = 0;
+            long firstRow = skipRows + 1;
+            List<TedTalkModel> chunk = new ArrayList<>(chunkSize);
+            long[] rowNumbers = new long[chunkSize];
+            long[] rowOffsets = new long[chunkSize + 1];
+            long[] rowLines = new long[chunkSize + 1];
+            long offset = -1;
+            long linesBefore = 0;
+            boolean firstDocument = true;
+            while (documents.next()) {
+                CsvRowSource rows = documents.rows();
+                if (firstDocument) {
+                    rowsRead = resumeFrom.seek(rows);
+                    firstDocument = false;
+                }
+                offset = rows.getPosition();
+                linesBefore = rows.getLinesRead();
+                while (true) {
+                    String[] line;
+                    try {
+                        line = rows.readNext();
+                    } catch (CsvMalformedLineException e) {
+                        // The source has skipped the malformed row, so the handler may let the import go on
+                        rowsRead++;
+                        if (rowsRead > skipRows) {
+                            rejectedRowHandler.reject(rowsRead, documents.entryName(), linesBefore + 1,
+                                    new String[]{e.getContext()}, new CsvParseException("Error parsing CSV row", e));
+                        }
+                        offset = rows.getPosition();
+                        linesBefore = rows.getLinesRead();
+                        continue;
+                    }
+                    if (line == null) {
+                        break;
+                    }
+                    rowsRead++;
+                    if (rowsRead > skipRows) {
+                        try {
+                            int index = chunk.size();
+                            rowNumbers[index] = rowsRead;
+                            rowOffsets[index] = offset;
+                            rowLines[index] = linesBefore;
+                            chunk.add(parseRow(line));
+                        } catch (CsvParseException e) {
+                            rejectedRowHandler.reject(rowsRead, documents.entryName(), linesBefore + 1, line, e);
+                        }
+                    }
+                    offset = rows.getPosition();
+                    linesBefore = rows.getLinesRead();
+                    if (chunk.size() == chunkSize) {
+                        rowOffsets[chunkSize] = offset;
+                        rowLines[chunkSize] = linesBefore;
+                        chunkConsumer.accept(new ParsedChunk(firstRow, rowsRead, chunk, rowNumbers, rowOffsets, rowLines));
+                        rowCount += chunk.size();
+                        firstRow = rowsRead + 1;
+                        chunk = new ArrayList<>(chunkSize);
+                        rowNumbers = new long[chunkSize];
+                        rowOffsets = new long[chunkSize + 1];
+                        rowLines = new long[chunkSize + 1];
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                rowOffsets[chunk.size()] = offset;
+                rowLines[chunk.size()] = linesBefore;
+                chunkConsumer.accept(new ParsedChunk(firstRow, rowsRead, chunk, rowNumbers, rowOffsets, rowLines));
+                rowCount += chunk.size();
+            }
+            return rowCount;
+        } catch (IOException | CsvValidationException e) {
+            throw new CsvParseException("Error parsing CSV file", e);
+        }
+    }
 
-            if (rows.isEmpty()) {
-                throw new CsvParseException("CSV file is empty");
+    /**
+     * Opens the CSV documents of an upload: plain CSV and gzip content hold one document,
+     * a zip archive one per {@code .csv} entry.
+     *
+     * @param inputStream the CSV, gzip or zip content; closed with the documents
+     * @return the documents
+     * @throws IOException if the content cannot be read
+     */
+    CsvDocuments openDocuments(InputStream inputStream) throws IOException {
+        CsvHelper.CsvEntries entries = CsvHelper.openCsvEntries(inputStream);
+        return new CsvDocuments() {
+            private CsvRowSource current;
+
+            @Override
+            public boolean next() throws IOException, CsvValidationException {
+                closeCurrent();
+                if (!entries.next()) {
+                    if (entries.entryCount() == 0) {
+                        throw new CsvParseException("No CSV files found in the uploaded archive");
+                    }
+                    return false;
+                }
+                current = verifyHeaderRow(CsvHelper.rowSource(CsvHelper.openCsvReader(entries.content())));
+                return true;
+            }
+
+            @Override
+            public CsvRowSource rows() {
+                return current;
             }
 
-            // Verify headers
-            String[] headers = rows.get(0);
-            System.out.println("Headers: " + Arrays.toString(headers));
-            if (!Arrays.equals(headers, new String[]{"title", "author", "date", "views", "likes", "link"})) {
-                throw new CsvParseException("Invalid CSV headers. Expected: [title, author, date, views, likes, link]");
+            @Override
+            public String entryName() {
+                return entries.entryName();
             }
 
-            // Process rows
-            for (int i = 1; i < rows.size(); i++) {
-                String[] line = rows.get(i);
+            @Override
+            public void close() throws IOException {
                 try {
-                    // Log each row for debugging
-                    System.out.println("Processing row: " + Arrays.toString(line));
-
-                    // Handle numeric parsing with fallback to 0
-                    long views = parseOrDefault(line[3], 0L);
-                    long likes = parseOrDefault(line[4], 0L);
-
-                    // Validate and parse the date
-                    YearMonth date = parseYearMonthWithFallback(line[2]);
-
-                    // Parse and create a TedTalkModel object
-                    TedTalkModel model = new TedTalkModel(
-                            line[0], // title
-                            line[1], // author
-                            date,    // Parsed or fallback date
-                            views,   // Parsed or default views
-                            likes,   // Parsed or default likes
-                            line[5]  // link
-                    );
-                    tedTalks.add(model);
-                } catch (Exception e) {
-                    throw new CsvParseException("Error processing row: " + Arrays.toString(line), e);
+                    closeCurrent();
+                } finally {
+                    entries.close();
+                }
+            }
+
+            private void closeCurrent() throws IOException {
+                if (current != null) {
+                    current.close();
+                    current = null;
+                }
+            }
+        };
+    }
+
+    /**
+     * Opens a CSV file on the local file system. Plain CSV files are read through memory-mapped windows with
+     * a byte-level tokenizer; compressed files fall back to {@link #openDocuments(InputStream)}.
+     *
+     * @param file           the file to read
+     * @param mapWindowBytes the number of bytes mapped at a time
+     * @return the documents
+     * @throws IOException if the file cannot be opened
+     */
+    CsvDocuments openDocuments(Path file, int mapWindowBytes) throws IOException {
+        CsvHelper.Compression compression;
+        try (InputStream probe = new BufferedInputStream(Files.newInputStream(file))) {
+            compression = CsvHelper.detectCompression(probe);
+        }
+        if (compression != CsvHelper.Compression.NONE) {
+            return openDocuments(Files.newInputStream(file));
+        }
+        return new CsvDocuments() {
+            private CsvRowSource rows;
+
+            @Override
+            public boolean next() throws IOException, CsvValidationException {
+                if (rows != null) {
+                    return false;
                 }
+                rows = verifyHeaderRow(new MappedCsvReader(file, EXPECTED_HEADERS.length, mapWindowBytes));
+                return true;
+            }
+
+            @Override
+            public CsvRowSource rows() {
+                return rows;
+            }
+
+            @Override
+            public String entryName() {
+                return null;
             }
 
-            System.out.println("Number of valid rows parsed: " + tedTalks.size());
-            return tedTalks;
+            @Override
+            public void close() throws IOException {
+                if (rows != null) {
+                    rows.close();
+                }
+            }
+        };
+    }
 
-        } catch (CsvParseException e) {
-            // Propagate CsvParseException directly
+    /**
+     * Consumes the header row of a row source, verifying it against the expected columns.
+     *
+     * @param rows the CSV rows, including the header
+     * @return the same source, positioned at the first data row
+     * @throws CsvParseException if the file is empty or the headers do not match
+     */
+    private CsvRowSource verifyHeaderRow(CsvRowSource rows) throws IOException, CsvValidationException {
+        try {
+            String[] headers = rows.readNext();
+            if (headers == null) {
+                throw new CsvParseException("CSV file is empty");
+            }
+            verifyHeaders(headers);
+            return rows;
+        } catch (IOException | CsvValidationException | RuntimeException e) {
+            rows.close();
             throw e;
+        }
+    }
+
+    /**
+     * Verifies that the header row matches the expected TedTalk columns.
+     *
+     * @param headers the first row of the file
+     * @throws CsvParseException if the headers do not match
+     */
+    private void verifyHeaders(String[] headers) {
+        logger.debug("Headers: {}", Arrays.toString(headers));
+        if (!Arrays.equals(headers, EXPECTED_HEADERS)) {
+            throw new CsvParseException("Invalid CSV headers. Expected: [title, author, date, views, likes, link]");
+        }
+    }
+
+    /**
+     * Converts a single CSV row to a TedTalkModel, applying the numeric and date fallbacks.
+     *
+     * @param line the CSV row
+     * @return the parsed TedTalkModel
+     * @throws CsvParseException if the row cannot be converted
+     */
+    TedTalkModel parseRow(String[] line) {
+        try {
+            if (line.length < EXPECTED_HEADERS.length) {
+                throw new IllegalArgumentException("Expected " + EXPECTED_HEADERS.length + " columns but found " + line.length);
+            }
+
+            // Handle numeric parsing with fallback to 0
+            long views = parseOrDefault(line[3], 0L);
+            long likes = parseOrDefault(line[4], 0L);
+
+            // Validate and parse the date
+            YearMonth date = parseYearMonthWithFallback(line[2]);
+
+            // Parse and create a TedTalkModel object
+            return new TedTalkModel(
+                    line[0], // title
+                    line[1], // author
+                    date,    // Parsed or fallback date
+                    views,   // Parsed or default views
+                    likes,   // Parsed or default likes
+                    line[5].isBlank() ? null : line[5] // link; blank links are stored as NULL so they never collide
+            );
         } catch (Exception e) {
-            // Catch any other unexpected exceptions
-            throw new CsvParseException("Error parsing CSV file", e);
+            throw new CsvParseException("Error processing row: " + Arrays.toString(line), e);
         }
     }
 
@@ -100,7 +348,6 @@ public class CsvImporterService {
         try {
             return Long.parseLong(str);
         } catch (NumberFormatException e) {
-            System.out.println("Invalid numeric value: " + str + ". Defaulting to " + defaultValue);
             return defaultValue;
         }
     }
@@ -112,6 +359,6 @@ public class CsvImporterService {
      * @return the parsed YearMonth value, or a fallback value with current month/year
      */
     private YearMonth parseYearMonthWithFallback(String str) {
-        return DateConversionUtil.parseYearMonth(str);
+        return YearMonthParser.parse(str);
     }
 }
@@ -0,0 +1,13 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+/**
+ * A raw CSV row together with its position in the file, handed from the reader to the parse workers.
+ *
+ * @param rowNumber  the 1-based index of the row among the data rows
+ * @param entryName  the zip entry the row was read from, or {@code null} for plain and gzip uploads
+ * @param lineNumber the line in the file (or zip entry) where the row starts
+ * @param byteOffset the byte offset where the row starts, or -1 if unknown
+ * @param values     the raw column values
+ */
+record CsvRow(long rowNumber, String entryName, long lineNumber, long byteOffset, String[] values) {
+}
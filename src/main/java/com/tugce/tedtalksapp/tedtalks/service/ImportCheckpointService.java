@@ -0,0 +1,92 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.entity.ImportCheckpointEntity;
+import com.tugce.tedtalksapp.tedtalks.model.ImportJob;
+import com.tugce.tedtalksapp.tedtalks.repository.ImportCheckpointRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists parsed chunks of an import and records, in the same transaction as every batch, how far into
+ * the file the import has got. A failed import that is retried resumes from its last checkpoint.
+ */
+@Service
+public class ImportCheckpointService {
+
+    private final TedTalkPersistenceService persistenceService;
+    private final ImportCheckpointRepository checkpointRepository;
+
+    public ImportCheckpointService(TedTalkPersistenceService persistenceService,
+                                   ImportCheckpointRepository checkpointRepository) {
+        this.persistenceService = persistenceService;
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    /**
+     * Returns the last checkpoint of the given job, if any batch of it has been committed.
+     *
+     * @param jobId the job id
+     * @return the checkpoint, or empty if the import has not committed anything yet
+     */
+    public Optional<ImportCheckpointEntity> find(String jobId) {
+        return checkpointRepository.findById(jobId);
+    }
+
+    /**
+     * Returns the position a checkpoint records: after the rows it covers and, where known, at their byte offset.
+     *
+     * @param checkpoint the checkpoint
+     * @return the position to resume from
+     */
+    ReadPosition resumePosition(ImportCheckpointEntity checkpoint) {
+        if (checkpoint.getByteOffset() == null) {
+            return new ReadPosition(checkpoint.getRowsRead(), -1, -1);
+        }
+        return new ReadPosition(checkpoint.getRowsRead(), checkpoint.getByteOffset(), checkpoint.getLinesRead());
+    }
+
+    /**
+     * Removes the checkpoint of a job that no longer needs to be resumed.
+     *
+     * @param jobId the job id
+     */
+    public void delete(String jobId) {
+        if (checkpointRepository.existsById(jobId)) {
+            checkpointRepository.deleteById(jobId);
+        }
+    }
+
+    /**
+     * Saves a parsed chunk in batches, updating the job's counters and its checkpoint with each batch.
+     * Chunks of one job must be persisted by a single thread, in file order.
+     *
+     * @param job   the job the chunk belongs to
+     * @param chunk the parsed rows
+     */
+    void persist(ImportJob job, ParsedChunk chunk) {
+        AtomicLong handled = new AtomicLong();
+        try {
+            persistenceService.saveAll(chunk.models(), job.getOptions().isUpsert(),
+                    batch -> checkpoint(job, chunk.positionAfter(batch.savedThrough()),
+                            job.getRowsPersisted() + batch.stored(), job.getRowsSkipped() + batch.skipped()),
+                    batch -> {
+                        handled.addAndGet(batch.stored() + batch.skipped());
+                        job.recordPersisted(batch.stored());
+                        job.recordSkipped(batch.skipped());
+                    });
+        } catch (RuntimeException e) {
+            job.recordFailed(chunk.models().size() - handled.get());
+            throw e;
+        }
+    }
+
+    private void checkpoint(ImportJob job, ReadPosition position, long rowsCommitted, long rowsSkipped) {
+        checkpointRepository.save(new ImportCheckpointEntity(job.getId(), position.rowsRead(), rowsCommitted, rowsSkipped,
+                position.seekable() ? position.byteOffset() : null,
+                position.seekable() ? position.linesRead() : null,
+                Instant.now()));
+    }
+}
@@ -0,0 +1,245 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.config.ImportExecutorConfig;
+import com.tugce.tedtalksapp.tedtalks.config.ImportProperties;
+import com.tugce.tedtalksapp.tedtalks.exception.CsvParseException;
+import com.tugce.tedtalksapp.tedtalks.model.ImportJob;
+import com.tugce.tedtalksapp.tedtalks.model.ImportOptions;
+import com.tugce.tedtalksapp.tedtalks.model.ImportStatus;
+import com.tugce.tedtalksapp.tedtalks.model.ImportSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs CSV imports as background jobs on the bounded import executor and keeps track of their progress.
+ * <p>
+ * Jobs and their inputs are held in memory. Checkpoints are stored in the database with the imported rows,
+ * but a failed job can only be retried from its checkpoint while the application that ran it keeps running.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final TedTalkProcessingService processingService;
+    private final ImportCheckpointService checkpointService;
+    private final TaskExecutor importExecutor;
+    private final ImportProperties importProperties;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, JobInput> inputs = new ConcurrentHashMap<>();
+
+    public ImportJobService(TedTalkProcessingService processingService,
+                            ImportCheckpointService checkpointService,
+                            @Qualifier(ImportExecutorConfig.IMPORT_EXECUTOR) TaskExecutor importExecutor,
+                            ImportProperties importProperties) {
+        this.processingService = processingService;
+        this.checkpointService = checkpointService;
+        this.importExecutor = importExecutor;
+        this.importProperties = importProperties;
+    }
+
+    /**
+     * Spools the uploaded file to disk and queues it for import. The multipart file is only valid
+     * for the duration of the request, so its content is copied before the request returns.
+     *
+     * @param file    the uploaded CSV file
+     * @param options how rows that cannot be parsed are treated
+     * @return the queued job
+     * @throws CsvParseException     if the file is empty
+     * @throws IOException           if the upload cannot be spooled
+     * @throws TaskRejectedException if the import queue is full
+     */
+    public ImportJob submit(MultipartFile file, ImportOptions options) throws IOException {
+        if (file.isEmpty()) {
+            throw new CsvParseException("CSV file is empty");
+        }
+        Path spoolFile = createSpoolFile();
+        try {
+            file.transferTo(spoolFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spoolFile);
+            throw e;
+        }
+        return submit(file.getOriginalFilename(), options, spoolFile);
+    }
+
+    /**
+     * Queues a file that has already been spooled to disk, e.g. by a resumable upload, for import.
+     * The job takes ownership of the file and deletes it once the import has completed.
+     *
+     * @param fileName  the original file name
+     * @param options   how rows that cannot be parsed are treated
+     * @param spoolFile the spooled content
+     * @return the queued job
+     * @throws TaskRejectedException if the import queue is full; the spool file is left in place
+     */
+    public ImportJob submit(String fileName, ImportOptions options, Path spoolFile) {
+        return submit(new ImportJob(fileName, options), new JobInput(spoolFile, true));
+    }
+
+    /**
+     * Queues a CSV file from the local import directory ({@code tedtalks.import.local.directory}) for import.
+     * The file is read in place through memory-mapped I/O and left untouched afterwards.
+     *
+     * @param relativePath the file, relative to the local import directory
+     * @param options      how rows that cannot be parsed are treated
+     * @return the queued job
+     * @throws IllegalStateException    if local imports are not configured
+     * @throws IllegalArgumentException if the path leaves the import directory or is not a regular file
+     * @throws TaskRejectedException    if the import queue is full
+     */
+    public ImportJob submitLocalFile(String relativePath, ImportOptions options) {
+        String directory = importProperties.getLocal().getDirectory();
+        if (directory == null || directory.isBlank()) {
+            throw new IllegalStateException("Local imports are disabled, set tedtalks.import.local.directory to enable them");
+        }
+        Path baseDirectory = Path.of(directory).toAbsolutePath().normalize();
+        Path file = baseDirectory.resolve(relativePath).normalize();
+        if (!file.startsWith(baseDirectory) || file.equals(baseDirectory)) {
+            throw new IllegalArgumentException("Path must point to a file inside the local import directory: " + relativePath);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No such file in the local import directory: " + relativePath);
+        }
+        return submit(new ImportJob(baseDirectory.relativize(file).toString(), options), new JobInput(file, false));
+    }
+
+    /**
+     * Queues a failed job again. The import resumes after the last batch the failed attempt committed,
+     * so rows that are already stored are neither parsed nor saved a second time.
+     *
+     * @param id the job id
+     * @return the requeued job, or empty if the job is unknown
+     * @throws IllegalStateException if the job has not failed or its upload is no longer available
+     * @throws TaskRejectedException if the import queue is full
+     */
+    public Optional<ImportJob> retry(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        synchronized (job) {
+            if (job.getStatus() != ImportStatus.FAILED) {
+                throw new IllegalStateException("Only failed imports can be retried, import " + id + " is " + job.getStatus());
+            }
+            if (!inputs.containsKey(id)) {
+                throw new IllegalStateException("The upload of import " + id + " is no longer available");
+            }
+            job.markQueued();
+            try {
+                execute(job);
+            } catch (TaskRejectedException e) {
+                job.markFailed(job.getErrorMessage());
+                throw e;
+            }
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * Returns the job with the given id, if it is still retained.
+     *
+     * @param id the job id
+     * @return the job, or empty if unknown
+     */
+    public Optional<ImportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private ImportJob submit(ImportJob job, JobInput input) {
+        evictFinishedJobs();
+        jobs.put(job.getId(), job);
+        inputs.put(job.getId(), input);
+        try {
+            execute(job);
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            inputs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    private void execute(ImportJob job) {
+        JobInput input = inputs.get(job.getId());
+        importExecutor.execute(() -> runJob(job, input));
+    }
+
+    private void runJob(ImportJob job, JobInput input) {
+        job.markRunning();
+        try {
+            ImportSummary summary = processingService.processFile(input.file(), job);
+            job.markCompleted();
+            logger.info("Import {} completed: {} rows read, {} imported, {} rejected ({} rows/s)",
+                    job.getId(), summary.getRowsRead(), summary.getRowsImported(), summary.getRowsRejected(),
+                    String.format("%.0f", job.getThroughput()));
+            releaseUpload(job.getId());
+        } catch (Exception e) {
+            // The input is kept so that the job can be retried from its checkpoint
+            logger.error("Import {} failed: {}", job.getId(), e.getMessage(), e);
+            job.markFailed(e.getMessage());
+        }
+    }
+
+    private void releaseUpload(String jobId) {
+        JobInput input = inputs.remove(jobId);
+        if (input != null && input.spooled()) {
+            deleteSpoolFile(input.file());
+        }
+    }
+
+    Path createSpoolFile() throws IOException {
+        String spoolDirectory = importProperties.getSpoolDirectory();
+        if (spoolDirectory == null || spoolDirectory.isBlank()) {
+            return Files.createTempFile("tedtalks-upload-", ".upload");
+        }
+        Path directory = Files.createDirectories(Path.of(spoolDirectory));
+        return Files.createTempFile(directory, "tedtalks-upload-", ".upload");
+    }
+
+    private void deleteSpoolFile(Path spoolFile) {
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled upload {}: {}", spoolFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the oldest finished jobs once more than {@code tedtalks.import.retained-jobs} are held.
+     */
+    private void evictFinishedJobs() {
+        long excess = jobs.values().stream().filter(ImportJob::isFinished).count() - importProperties.getRetainedJobs();
+        if (excess > 0) {
+            jobs.values().stream()
+                    .filter(ImportJob::isFinished)
+                    .sorted(Comparator.comparing(ImportJob::getFinishedAt))
+                    .limit(excess)
+                    .toList()
+                    .forEach(job -> {
+                        jobs.remove(job.getId());
+                        releaseUpload(job.getId());
+                        checkpointService.delete(job.getId());
+                    });
+        }
+    }
+
+    /**
+     * The file a job reads; spooled uploads belong to the job and are deleted with it, local files are not.
+     */
+    private record JobInput(Path file, boolean spooled) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.config.ImportProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Locale;
+
+/**
+ * Imports CSV files as they appear in the local import directory. Files should be written under a
+ * temporary name and renamed to {@code *.csv}, {@code *.csv.gz} or {@code *.zip} once complete, since
+ * the import starts as soon as the name appears.
+ */
+@Component
+@ConditionalOnProperty(name = "tedtalks.import.local.watch", havingValue = "true")
+public class LocalImportWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalImportWatcher.class);
+
+    private final ImportJobService importJobService;
+    private final ImportProperties importProperties;
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    public LocalImportWatcher(ImportJobService importJobService, ImportProperties importProperties) {
+        this.importJobService = importJobService;
+        this.importProperties = importProperties;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        String directory = importProperties.getLocal().getDirectory();
+        if (directory == null || directory.isBlank()) {
+            throw new IllegalStateException("tedtalks.import.local.watch requires tedtalks.import.local.directory");
+        }
+        Path watchedDirectory = Files.createDirectories(Path.of(directory));
+        watchService = watchedDirectory.getFileSystem().newWatchService();
+        watchedDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+        watcherThread = new Thread(this::watch, "csv-import-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        logger.info("Watching {} for CSV files to import", watchedDirectory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path fileName && isImportable(fileName)) {
+                        submit(fileName);
+                    } else if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        logger.warn("Missed file events in the local import directory; files may need to be imported manually");
+                    }
+                }
+                if (!key.reset()) {
+                    logger.warn("Local import directory is no longer accessible, stopped watching it");
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(Path fileName) {
+        try {
+            String jobId = importJobService.submitLocalFile(fileName.toString(), importProperties.defaultOptions()).getId();
+            logger.info("Queued import {} for {}", jobId, fileName);
+        } catch (TaskRejectedException | IllegalArgumentException e) {
+            logger.warn("Could not queue import of {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    private static boolean isImportable(Path fileName) {
+        String name = fileName.toString().toLowerCase(Locale.ROOT);
+        return !name.startsWith(".") && (name.endsWith(".csv") || name.endsWith(".csv.gz") || name.endsWith(".zip"));
+    }
+}
@@ -0,0 +1,34 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+
+import java.util.List;
+
+/**
+ * A chunk of parsed TedTalks together with the range of data rows it was read from, so that a checkpoint
+ * can be recorded after every committed batch. Rows in the range that are not among the models were rejected.
+ * <p>
+ * The offsets and line counts hold, for each model, where its row starts, and at index {@code models.size()}
+ * where the row after {@code lastRow} starts. Offsets are -1 when the source cannot tell.
+ *
+ * @param firstRow   the 1-based number of the first data row in the range
+ * @param lastRow    the number of the last data row in the range
+ * @param models     the parsed TedTalks, in file order
+ * @param rowNumbers the data row number of each model
+ * @param rowOffsets the byte offset where each model's row starts, then the end of the range
+ * @param rowLines   the number of lines before each model's row, then before the end of the range
+ */
+record ParsedChunk(long firstRow, long lastRow, List<TedTalkModel> models, long[] rowNumbers,
+                   long[] rowOffsets, long[] rowLines) {
+
+    /**
+     * Returns how far into the file the import has got once the first {@code modelCount} models are saved.
+     *
+     * @param modelCount the number of models saved from this chunk
+     * @return the position after the data rows that are fully handled at that point
+     */
+    ReadPosition positionAfter(int modelCount) {
+        long rowsRead = modelCount < models.size() ? rowNumbers[modelCount] - 1 : lastRow;
+        return new ReadPosition(rowsRead, rowOffsets[modelCount], rowLines[modelCount]);
+    }
+}
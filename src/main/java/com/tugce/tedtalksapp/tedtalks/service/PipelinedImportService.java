@@ -0,0 +1,321 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.opencsv.exceptions.CsvMalformedLineException;
+import com.opencsv.exceptions.CsvValidationException;
+import com.tugce.tedtalksapp.tedtalks.common.CsvRowSource;
+import com.tugce.tedtalksapp.tedtalks.config.ImportProperties;
+import com.tugce.tedtalksapp.tedtalks.exception.CsvParseException;
+import com.tugce.tedtalksapp.tedtalks.model.ImportJob;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Imports CSV content as a three-stage pipeline: the calling thread reads raw rows, a pool of parse
+ * workers converts them to TedTalks, and a single writer persists them in batches. The stages are
+ * joined by bounded queues, so a slow database throttles the parsers and, in turn, the reader.
+ * <p>
+ * The writer puts chunks back into file order before persisting them, so that the import checkpoint always
+ * covers a prefix of the file.
+ */
+@Service
+public class PipelinedImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedImportService.class);
+    private static final long POLL_MILLIS = 100;
+
+    private final CsvImporterService csvImporterService;
+    private final ImportCheckpointService checkpointService;
+    private final ImportProperties importProperties;
+
+    public PipelinedImportService(CsvImporterService csvImporterService,
+                                  ImportCheckpointService checkpointService,
+                                  ImportProperties importProperties) {
+        this.csvImporterService = csvImporterService;
+        this.checkpointService = checkpointService;
+        this.importProperties = importProperties;
+    }
+
+    /**
+     * Imports the rows of the given documents through the pipeline, recording progress and per-stage timings on
+     * the job. Stage times are reported as busy time ({@code read}, {@code parse}, {@code write}), time blocked on
+     * a full downstream queue ({@code *.blocked}) and time waiting on an empty upstream queue ({@code *.idle}).
+     * Rows that cannot be parsed are passed to the rejected row handler, which is called concurrently by the
+     * parse workers. The import continues from the given position, after the rows an earlier attempt has
+     * already committed.
+     *
+     * @param documents          the CSV documents; left open
+     * @param job                the job that receives progress updates
+     * @param rejectedRowHandler decides what happens to rows that cannot be parsed
+     * @param resumeFrom         the position to continue from, {@link ReadPosition#START} for a new import
+     * @return the number of rows persisted by this attempt
+     * @throws CsvParseException if the file cannot be read or the handler aborts the import
+     */
+    long importCsv(CsvDocuments documents, ImportJob job, RejectedRowHandler rejectedRowHandler, ReadPosition resumeFrom) {
+        ImportProperties.Pipeline options = importProperties.getPipeline();
+        Run run = new Run(job, rejectedRowHandler, options.getParseWorkers(), options.getQueueCapacity(), resumeFrom);
+        ExecutorService stages = Executors.newFixedThreadPool(run.parseWorkers + 1, run::newStageThread);
+        try {
+            for (int i = 0; i < run.parseWorkers; i++) {
+                stages.execute(() -> run.guard(run::parse));
+            }
+            stages.execute(() -> run.guard(run::write));
+            run.guard(() -> read(documents, run));
+        } finally {
+            stages.shutdown();
+            awaitStages(stages, run);
+        }
+
+        Throwable failure = run.failure.get();
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (failure != null) {
+            throw new CsvParseException("Error importing CSV file", failure);
+        }
+        logger.info("Pipelined import {} finished: {} rows, stage timings (ms) {}",
+                job.getId(), run.persisted.get(), job.getStageTimings());
+        return run.persisted.get();
+    }
+
+    private void read(CsvDocuments documents, Run run) throws Exception {
+        int chunkSize = importProperties.getChunkSize();
+        try {
+            List<CsvRow> chunk = new ArrayList<>(chunkSize);
+            long start = System.nanoTime();
+            long skipRows = run.resumeFrom.rowsRead();
+            long rowNumber = 0;
+            long offset = -1;
+            long lineNumber = 1;
+            boolean firstDocument = true;
+            while (documents.next()) {
+                CsvRowSource rows = documents.rows();
+                if (firstDocument) {
+                    rowNumber = run.resumeFrom.seek(rows);
+                    firstDocument = false;
+                }
+                String entryName = documents.entryName();
+                offset = rows.getPosition();
+                lineNumber = rows.getLinesRead() + 1;
+                while (true) {
+                    String[] line;
+                    try {
+                        line = rows.readNext();
+                    } catch (CsvMalformedLineException e) {
+                        // The source has skipped the malformed row, so the handler may let the import go on
+                        if (++rowNumber > skipRows) {
+                            run.rejectedRowHandler.reject(rowNumber, entryName, lineNumber,
+                                    new String[]{e.getContext()}, new CsvParseException("Error parsing CSV row", e));
+                        }
+                        offset = rows.getPosition();
+                        lineNumber = rows.getLinesRead() + 1;
+                        continue;
+                    }
+                    if (line == null) {
+                        break;
+                    }
+                    if (++rowNumber > skipRows) {
+                        chunk.add(new CsvRow(rowNumber, entryName, lineNumber, offset, line));
+                    }
+                    offset = rows.getPosition();
+                    lineNumber = rows.getLinesRead() + 1;
+                    if (chunk.size() == chunkSize) {
+                        run.job.recordStageTime("read", System.nanoTime() - start);
+                        run.put(run.rows, new RowChunk(chunk, offset, lineNumber - 1), "read.blocked");
+                        chunk = new ArrayList<>(chunkSize);
+                        start = System.nanoTime();
+                    }
+                }
+            }
+            run.job.recordStageTime("read", System.nanoTime() - start);
+            if (!chunk.isEmpty()) {
+                run.put(run.rows, new RowChunk(chunk, offset, lineNumber - 1), "read.blocked");
+            }
+        } catch (IOException | CsvValidationException e) {
+            throw new CsvParseException("Error parsing CSV file", e);
+        } finally {
+            if (run.failure.get() == null) {
+                for (int i = 0; i < run.parseWorkers; i++) {
+                    run.put(run.rows, Run.END_OF_ROWS, "read.blocked");
+                }
+            }
+        }
+    }
+
+    private void awaitStages(ExecutorService stages, Run run) {
+        try {
+            while (!stages.awaitTermination(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                // Stages exit on their own once the input is exhausted or a failure is recorded
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.failure.compareAndSet(null, e);
+            stages.shutdownNow();
+        }
+    }
+
+    /**
+     * State shared by the stages of a single pipelined import.
+     */
+    private final class Run {
+        private static final RowChunk END_OF_ROWS = new RowChunk(List.of(), -1, -1);
+        private static final ParsedChunk END_OF_MODELS = new ParsedChunk(0, 0, List.of(), new long[0], new long[1], new long[1]);
+
+        private final ImportJob job;
+        private final RejectedRowHandler rejectedRowHandler;
+        private final int parseWorkers;
+        private final ReadPosition resumeFrom;
+        private final BlockingQueue<RowChunk> rows;
+        private final BlockingQueue<ParsedChunk> models;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final AtomicLong persisted = new AtomicLong();
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        private Run(ImportJob job, RejectedRowHandler rejectedRowHandler, int parseWorkers, int queueCapacity,
+                    ReadPosition resumeFrom) {
+            this.job = job;
+            this.rejectedRowHandler = rejectedRowHandler;
+            this.parseWorkers = parseWorkers;
+            this.resumeFrom = resumeFrom;
+            this.rows = new ArrayBlockingQueue<>(queueCapacity);
+            this.models = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        private void parse() throws InterruptedException {
+            RowChunk chunk;
+            while ((chunk = take(rows, "parse.idle")) != END_OF_ROWS) {
+                long start = System.nanoTime();
+                int size = chunk.rows().size();
+                List<TedTalkModel> parsed = new ArrayList<>(size);
+                long[] rowNumbers = new long[size];
+                long[] rowOffsets = new long[size + 1];
+                long[] rowLines = new long[size + 1];
+                for (CsvRow row : chunk.rows()) {
+                    try {
+                        int index = parsed.size();
+                        rowNumbers[index] = row.rowNumber();
+                        rowOffsets[index] = row.byteOffset();
+                        rowLines[index] = row.lineNumber() - 1;
+                        parsed.add(csvImporterService.parseRow(row.values()));
+                    } catch (CsvParseException e) {
+                        rejectedRowHandler.reject(row.rowNumber(), row.entryName(), row.lineNumber(), row.values(), e);
+                    }
+                }
+                job.recordStageTime("parse", System.nanoTime() - start);
+                job.recordParsed(parsed.size());
+                rowOffsets[parsed.size()] = chunk.endOffset();
+                rowLines[parsed.size()] = chunk.endLines();
+                ParsedChunk parsedChunk = new ParsedChunk(chunk.rows().get(0).rowNumber(),
+                        chunk.rows().get(size - 1).rowNumber(), parsed, rowNumbers, rowOffsets, rowLines);
+                put(models, parsedChunk, "parse.blocked");
+            }
+            put(models, END_OF_MODELS, "parse.blocked");
+        }
+
+        private void write() throws InterruptedException {
+            Map<Long, ParsedChunk> pending = new HashMap<>();
+            long nextRow = resumeFrom.rowsRead() + 1;
+            int finishedParsers = 0;
+            while (finishedParsers < parseWorkers) {
+                ParsedChunk chunk = take(models, "write.idle");
+                if (chunk == END_OF_MODELS) {
+                    finishedParsers++;
+                    continue;
+                }
+                pending.put(chunk.firstRow(), chunk);
+                while ((chunk = pending.remove(nextRow)) != null) {
+                    long start = System.nanoTime();
+                    long before = job.getRowsPersisted();
+                    try {
+                        checkpointService.persist(job, chunk);
+                    } finally {
+                        persisted.addAndGet(job.getRowsPersisted() - before);
+                        job.recordStageTime("write", System.nanoTime() - start);
+                    }
+                    nextRow = chunk.lastRow() + 1;
+                }
+            }
+            if (!pending.isEmpty()) {
+                throw new IllegalStateException("Import ended with " + pending.size() + " chunks out of order");
+            }
+        }
+
+        /**
+         * Runs a stage, recording the first failure so that every other stage stops.
+         */
+        private void guard(Stage stage) {
+            try {
+                stage.run();
+            } catch (CancellationException e) {
+                // Another stage failed first
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }
+
+        private <T> void put(BlockingQueue<T> queue, T item, String waitStage) throws InterruptedException {
+            long start = System.nanoTime();
+            try {
+                while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    abortIfFailed();
+                }
+            } finally {
+                job.recordStageTime(waitStage, System.nanoTime() - start);
+            }
+        }
+
+        private <T> T take(BlockingQueue<T> queue, String waitStage) throws InterruptedException {
+            long start = System.nanoTime();
+            try {
+                T item;
+                while ((item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                    abortIfFailed();
+                }
+                return item;
+            } finally {
+                job.recordStageTime(waitStage, System.nanoTime() - start);
+            }
+        }
+
+        private void abortIfFailed() {
+            if (failure.get() != null) {
+                throw new CancellationException();
+            }
+        }
+
+        private Thread newStageThread(Runnable runnable) {
+            return new Thread(runnable, "csv-pipeline-" + job.getId().substring(0, 8) + "-" + threadCount.incrementAndGet());
+        }
+    }
+
+    /**
+     * A chunk of raw rows handed from the reader to the parse workers, with the position after its last row.
+     *
+     * @param rows      the rows, in file order
+     * @param endOffset the byte offset after the last row, or -1 if unknown
+     * @param endLines  the number of lines up to the end of the last row
+     */
+    private record RowChunk(List<CsvRow> rows, long endOffset, long endLines) {
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws Exception;
+    }
+}
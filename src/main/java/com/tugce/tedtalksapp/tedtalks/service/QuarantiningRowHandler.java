@@ -0,0 +1,182 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+import com.tugce.tedtalksapp.tedtalks.common.CsvHelper;
+import com.tugce.tedtalksapp.tedtalks.exception.CsvParseException;
+import com.tugce.tedtalksapp.tedtalks.model.ImportJob;
+import com.tugce.tedtalksapp.tedtalks.model.ImportOptions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lenient handling of bad rows: each rejected row is written to a quarantine CSV together with its
+ * row number, line number and the reason, and the import continues until its error budget is used up. Rows
+ * from a zip upload are located as {@code entry.csv:line}.
+ * <p>
+ * The quarantine file is only created once the first row is rejected. Safe for use by concurrent parse workers.
+ */
+public class QuarantiningRowHandler implements RejectedRowHandler, Closeable {
+
+    static final String[] QUARANTINE_HEADERS = {"row", "line", "reason", "title", "author", "date", "views", "likes", "link"};
+
+    private final ImportJob job;
+    private final ImportOptions options;
+    private final Path quarantineFile;
+    private final long minRowsForPercentCheck;
+    private final boolean append;
+    private CSVWriter writer;
+    private long rejected;
+
+    /**
+     * @param job                    the job whose failed-row counter is updated
+     * @param options                the error budget
+     * @param quarantineFile         where rejected rows are written
+     * @param minRowsForPercentCheck rows to read before the percentage budget is enforced, so that a bad row
+     *                               near the start of the file does not abort the import on its own
+     */
+    public QuarantiningRowHandler(ImportJob job, ImportOptions options, Path quarantineFile, long minRowsForPercentCheck) {
+        this(job, options, quarantineFile, minRowsForPercentCheck, 0, 0);
+    }
+
+    /**
+     * Creates a handler for a resumed import, which appends to the quarantine file of the earlier attempts.
+     * Rows that the earlier attempts rejected after the checkpoint are read again, so they are first removed
+     * from the file.
+     *
+     * @param job                    the job whose failed-row counter is updated
+     * @param options                the error budget
+     * @param quarantineFile         where rejected rows are written
+     * @param minRowsForPercentCheck rows to read before the percentage budget is enforced
+     * @param rowsRead               the number of rows read up to the checkpoint the import resumes from
+     * @param alreadyRejected        rows rejected by earlier attempts up to the checkpoint, which count against
+     *                               the budget
+     */
+    public QuarantiningRowHandler(ImportJob job, ImportOptions options, Path quarantineFile, long minRowsForPercentCheck,
+                                  long rowsRead, long alreadyRejected) {
+        this.job = job;
+        this.options = options;
+        this.quarantineFile = quarantineFile;
+        this.minRowsForPercentCheck = minRowsForPercentCheck;
+        this.rejected = alreadyRejected;
+        try {
+            if (Files.exists(quarantineFile)) {
+                keepRowsUpTo(rowsRead);
+            }
+        } catch (IOException | CsvValidationException e) {
+            throw new CsvParseException("Could not read quarantine file " + quarantineFile, e);
+        }
+        this.append = alreadyRejected > 0 && Files.exists(quarantineFile);
+    }
+
+    @Override
+    public synchronized void reject(long rowsRead, String entryName, long lineNumber, String[] row, CsvParseException error) {
+        rejected++;
+        job.recordFailed(1);
+        writeQuarantineRow(rowsRead, entryName, lineNumber, row, error.getCause() != null ? error.getCause().getMessage() : error.getMessage());
+        if (options.getMaxRejectedRows() != null && rejected > options.getMaxRejectedRows()) {
+            throw new CsvParseException("Error budget exceeded: " + rejected + " rows rejected, at most "
+                    + options.getMaxRejectedRows() + " allowed", error);
+        }
+        if (rowsRead >= minRowsForPercentCheck) {
+            checkPercentBudget(rowsRead);
+        }
+    }
+
+    /**
+     * Enforces the percentage budget against the final row count, once the whole file has been read.
+     *
+     * @param rowsRead the total number of data rows read
+     * @throws CsvParseException if too many rows were rejected
+     */
+    public synchronized void verifyBudget(long rowsRead) {
+        if (rowsRead > 0) {
+            checkPercentBudget(rowsRead);
+        }
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns the quarantine file, or {@code null} if no row was rejected.
+     *
+     * @return the quarantine file path
+     */
+    public synchronized Path getQuarantineFile() {
+        return writer != null || append ? quarantineFile : null;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    /**
+     * Rewrites the quarantine file with only the rows rejected up to the given row. The rows are compared by row
+     * number rather than counted, because parallel parse workers may write them out of order.
+     */
+    private void keepRowsUpTo(long rowsRead) throws IOException, CsvValidationException {
+        if (rowsRead == 0) {
+            Files.delete(quarantineFile);
+            return;
+        }
+        Path kept = quarantineFile.resolveSibling(quarantineFile.getFileName() + ".tmp");
+        try (CSVReader reader = CsvHelper.openCsvReader(Files.newInputStream(quarantineFile));
+             CSVWriter keptWriter = new CSVWriter(Files.newBufferedWriter(kept, StandardCharsets.UTF_8))) {
+            String[] headers = reader.readNext();
+            if (!Arrays.equals(headers, QUARANTINE_HEADERS)) {
+                throw new CsvValidationException("Unexpected quarantine headers " + Arrays.toString(headers));
+            }
+            keptWriter.writeNext(headers);
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                if (Long.parseLong(row[0]) <= rowsRead) {
+                    keptWriter.writeNext(row);
+                }
+            }
+        }
+        Files.move(kept, quarantineFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void checkPercentBudget(long rowsRead) {
+        Double maxPercent = options.getMaxRejectedPercent();
+        if (maxPercent != null && rejected * 100.0 / rowsRead > maxPercent) {
+            throw new CsvParseException(String.format("Error budget exceeded: %d of %d rows rejected, at most %s%% allowed",
+                    rejected, rowsRead, maxPercent));
+        }
+    }
+
+    private void writeQuarantineRow(long rowNumber, String entryName, long lineNumber, String[] row, String reason) {
+        try {
+            if (writer == null && append) {
+                writer = new CSVWriter(Files.newBufferedWriter(quarantineFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.APPEND));
+            } else if (writer == null) {
+                Files.createDirectories(quarantineFile.toAbsolutePath().getParent());
+                writer = new CSVWriter(Files.newBufferedWriter(quarantineFile, StandardCharsets.UTF_8));
+                writer.writeNext(QUARANTINE_HEADERS);
+            }
+            String[] quarantineRow = new String[row.length + 3];
+            quarantineRow[0] = Long.toString(rowNumber);
+            quarantineRow[1] = entryName != null ? entryName + ":" + lineNumber : Long.toString(lineNumber);
+            quarantineRow[2] = reason;
+            System.arraycopy(row, 0, quarantineRow, 3, row.length);
+            writer.writeNext(quarantineRow);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write quarantine file " + quarantineFile, e);
+        }
+    }
+}
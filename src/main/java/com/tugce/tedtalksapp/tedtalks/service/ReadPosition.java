@@ -0,0 +1,44 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.common.CsvRowSource;
+
+import java.io.IOException;
+
+/**
+ * How far into its file an import has got: the number of data rows read and, for files whose rows have known
+ * byte offsets, where the next row starts. A resumed import seeks straight to that offset instead of reading
+ * and tokenizing every row before it again.
+ *
+ * @param rowsRead   the number of data rows read, including rejected rows
+ * @param byteOffset the byte offset of the next row, or -1 if unknown
+ * @param linesRead  the number of lines before the next row, or -1 if unknown
+ */
+record ReadPosition(long rowsRead, long byteOffset, long linesRead) {
+
+    static final ReadPosition START = new ReadPosition(0, -1, -1);
+
+    /**
+     * Returns whether the position can be sought to.
+     *
+     * @return {@code true} if the byte offset is known
+     */
+    boolean seekable() {
+        return byteOffset >= 0;
+    }
+
+    /**
+     * Moves the rows of the first document to this position if both the position and the rows know byte offsets.
+     * Otherwise the rows are left at the start, and the caller skips the rows read so far by reading them.
+     *
+     * @param rows the rows of the first document, positioned after the header
+     * @return the number of data rows moved past
+     * @throws IOException if the position lies outside the document
+     */
+    long seek(CsvRowSource rows) throws IOException {
+        if (rowsRead == 0 || !seekable() || rows.getPosition() < 0) {
+            return 0;
+        }
+        rows.seek(byteOffset, linesRead);
+        return rowsRead;
+    }
+}
@@ -0,0 +1,29 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.exception.CsvParseException;
+
+/**
+ * Decides what happens to a CSV row that cannot be imported: skip it, or abort the import by throwing.
+ */
+@FunctionalInterface
+public interface RejectedRowHandler {
+
+    /**
+     * Aborts the import on the first row that cannot be parsed.
+     */
+    RejectedRowHandler STRICT = (rowsRead, entryName, lineNumber, row, error) -> {
+        throw error;
+    };
+
+    /**
+     * Handles a row that could not be parsed.
+     *
+     * @param rowsRead   the number of data rows read so far, including this one
+     * @param entryName  the zip entry the row was read from, or {@code null} for plain and gzip uploads
+     * @param lineNumber the line in the file (or zip entry) where the row starts
+     * @param row        the raw row values
+     * @param error      why the row was rejected
+     * @throws CsvParseException to abort the import
+     */
+    void reject(long rowsRead, String entryName, long lineNumber, String[] row, CsvParseException error);
+}
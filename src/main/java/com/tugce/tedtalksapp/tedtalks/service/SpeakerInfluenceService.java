@@ -0,0 +1,140 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.common.TopK;
+import com.tugce.tedtalksapp.tedtalks.entity.SpeakerInfluenceEntity;
+import com.tugce.tedtalksapp.tedtalks.model.SpeakerInfluenceDelta;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.repository.SpeakerInfluenceJdbcRepository;
+import com.tugce.tedtalksapp.tedtalks.repository.SpeakerInfluenceRepository;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkJdbcRepository;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the {@code speaker_influence} summary table. Every write to the talk table applies its delta to the
+ * summary in the same transaction, so ranking speakers is a read of one small indexed table. Entity writes are
+ * covered by {@link TedTalkWriteListener}, JDBC imports by {@link #recordBatch(List, boolean)}.
+ */
+@Service
+public class SpeakerInfluenceService {
+    private static final Logger logger = LoggerFactory.getLogger(SpeakerInfluenceService.class);
+
+    /**
+     * Most influential first, ties broken by name.
+     */
+    static final Comparator<Map.Entry<String, Long>> INFLUENCE_ORDER =
+            Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final SpeakerInfluenceRepository summaryRepository;
+    private final SpeakerInfluenceJdbcRepository summaryJdbcRepository;
+    private final TedTalkRepository talkRepository;
+    private final TedTalkJdbcRepository talkJdbcRepository;
+
+    public SpeakerInfluenceService(SpeakerInfluenceRepository summaryRepository,
+                                   SpeakerInfluenceJdbcRepository summaryJdbcRepository,
+                                   TedTalkRepository talkRepository,
+                                   TedTalkJdbcRepository talkJdbcRepository) {
+        this.summaryRepository = summaryRepository;
+        this.summaryJdbcRepository = summaryJdbcRepository;
+        this.talkRepository = talkRepository;
+        this.talkJdbcRepository = talkJdbcRepository;
+    }
+
+    /**
+     * Returns one page of speakers from the summary, most influential first, ties broken by name. With the
+     * default like weight this is an indexed read of the stored influence; other weights recompute each
+     * speaker's influence from the stored totals and keep only the requested page on a bounded heap.
+     *
+     * @param likeWeight how much a like counts relative to a view
+     * @param limit      the maximum number of speakers to return
+     * @param offset     the number of top speakers to skip
+     * @return the speakers and their influence
+     */
+    @Transactional(readOnly = true)
+    public List<Map.Entry<String, Long>> findTopSpeakers(long likeWeight, int limit, int offset) {
+        if (likeWeight == TedTalkManagementService.DEFAULT_LIKE_WEIGHT) {
+            return summaryRepository.findTopSpeakers(limit, offset).stream()
+                    .map(speaker -> Map.entry(speaker.getAuthor(), speaker.getInfluence()))
+                    .toList();
+        }
+        try (Stream<SpeakerInfluenceEntity> speakers = summaryRepository.streamAll()) {
+            Iterator<Map.Entry<String, Long>> ranked = speakers
+                    .map(speaker -> Map.entry(speaker.getAuthor(), speaker.getTotalViews() + likeWeight * speaker.getTotalLikes()))
+                    .iterator();
+            return TopK.page(ranked, limit, offset, INFLUENCE_ORDER);
+        }
+    }
+
+    /**
+     * Applies the given deltas to the summary. Must run inside the transaction that wrote the talks.
+     *
+     * @param deltas the changes to apply
+     */
+    public void apply(Collection<SpeakerInfluenceDelta> deltas) {
+        summaryJdbcRepository.applyDeltas(deltas, TedTalkManagementService.DEFAULT_LIKE_WEIGHT);
+    }
+
+    /**
+     * Applies the deltas of a batch that is about to be written with JDBC. With {@code upsert}, the talks whose
+     * link is already stored are read (and locked) first so that their old contribution is taken away.
+     * Must run inside the batch transaction, before the batch is written.
+     *
+     * @param batch  the talks about to be written
+     * @param upsert whether the batch replaces talks with an existing link
+     */
+    public void recordBatch(List<TedTalkModel> batch, boolean upsert) {
+        List<SpeakerInfluenceDelta> deltas = new ArrayList<>(batch.size());
+        if (upsert) {
+            Map<String, SpeakerInfluenceDelta> stored =
+                    talkJdbcRepository.findContributionsByLinkForUpdate(batch.stream().map(TedTalkModel::getLink).toList());
+            for (TedTalkModel model : batch) {
+                SpeakerInfluenceDelta added = SpeakerInfluenceDelta.added(model);
+                // A link repeated within the batch replaces the row written earlier in the same batch
+                SpeakerInfluenceDelta replaced = model.getLink() == null ? null : stored.put(model.getLink(), added);
+                if (replaced != null) {
+                    deltas.add(replaced.negate());
+                }
+                deltas.add(added);
+            }
+        } else {
+            batch.forEach(model -> deltas.add(SpeakerInfluenceDelta.added(model)));
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Recomputes the summary from the talk table, repairing any drift.
+     *
+     * @return the number of speakers in the summary
+     */
+    @Transactional
+    public int rebuild() {
+        int speakers = summaryJdbcRepository.rebuild(TedTalkManagementService.DEFAULT_LIKE_WEIGHT);
+        logger.info("Rebuilt speaker influence summary: {} speakers", speakers);
+        return speakers;
+    }
+
+    /**
+     * Builds the summary on startup when talks exist but the summary is empty, e.g. on a database that
+     * predates the summary table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (summaryRepository.count() == 0 && talkRepository.count() > 0) {
+            rebuild();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last TedTalk of a page: the sort it belongs to, that talk's sort key and its id.
+ * Clients only see the URL-safe Base64 form, which they pass back unchanged to fetch the next page.
+ *
+ * @param sort  the order the cursor was issued for
+ * @param value the sort key of the last talk on the page; empty for {@link TedTalkSort#ID} and for a talk
+ *              without a date
+ * @param id    the id of the last talk on the page
+ */
+record TalkCursor(TedTalkSort sort, String value, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    String encode() {
+        String plain = sort.name() + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor issued for the given sort.
+     *
+     * @throws IllegalArgumentException if the token is malformed or was issued for another sort
+     */
+    static TalkCursor decode(String token, TedTalkSort expectedSort) {
+        TalkCursor cursor;
+        try {
+            String plain = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = plain.indexOf(SEPARATOR);
+            int last = plain.lastIndexOf(SEPARATOR);
+            cursor = new TalkCursor(TedTalkSort.valueOf(plain.substring(0, first)),
+                    plain.substring(first + 1, last), Long.parseLong(plain.substring(last + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (cursor.sort() != expectedSort) {
+            throw new IllegalArgumentException("Cursor was issued for another sort: " + cursor.sort().name().toLowerCase());
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,244 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.common.TopK;
+import com.tugce.tedtalksapp.tedtalks.config.ApiProperties;
+import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalksChangedEvent;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over titles and authors, served from an in-memory inverted index instead of
+ * {@code LIKE '%term%'} scans. Titles and authors are split into lower-case, accent-free tokens; a query matches
+ * the talks that contain, for every query token, a token starting with it, and the matches are ranked by
+ * influence. The index is built on startup and patched after every committed write from
+ * {@link TedTalksChangedEvent}s, re-reading only the written talks; bulk changes rebuild it.
+ * <p>
+ * Those events are only published within this process, so the index assumes that this application instance is
+ * the only writer to the talk table. Writes made by another instance or directly in the database are not seen
+ * until the index is rebuilt with {@link #rebuild()}.
+ */
+@Service
+public class TalkSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(TalkSearchService.class);
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    /**
+     * Most influential first, ties broken by id.
+     */
+    private static final Comparator<IndexedTalk> RANKING =
+            Comparator.comparingLong(IndexedTalk::influence).reversed().thenComparingLong(IndexedTalk::id);
+
+    private final TedTalkRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApiProperties apiProperties;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<Long, IndexedTalk> talks = new HashMap<>();
+    private volatile boolean ready;
+
+    public TalkSearchService(TedTalkRepository repository,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             ApiProperties apiProperties) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.apiProperties = apiProperties;
+    }
+
+    /**
+     * Returns the most influential talks matching the query.
+     *
+     * @param query the search terms; each term may be the start of a word
+     * @param limit the maximum number of talks to return
+     * @return the matching talks, most influential first; empty if the query has no terms
+     * @throws IllegalStateException if the index is disabled or still being built
+     */
+    public List<TedTalkModel> search(String query, int limit) {
+        if (!apiProperties.isSearchIndexEnabled() || !ready) {
+            throw new IllegalStateException("The search index is not available");
+        }
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> matches = null;
+            // Start with the longest terms, which usually have the fewest matches
+            for (String term : terms.stream().sorted(Comparator.comparingInt(String::length).reversed()).toList()) {
+                Set<Long> termMatches = new HashSet<>();
+                postings.subMap(term, true, term + Character.MAX_VALUE, false).values().forEach(termMatches::addAll);
+                if (matches == null) {
+                    matches = termMatches;
+                } else {
+                    matches.retainAll(termMatches);
+                }
+                if (matches.isEmpty()) {
+                    return List.of();
+                }
+            }
+            Iterator<IndexedTalk> candidates = matches.stream().map(talks::get).iterator();
+            return TopK.select(candidates, limit, RANKING).stream().map(IndexedTalk::model).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the index from the database once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (apiProperties.isSearchIndexEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the database, picking up writes it has missed. Searches wait until it is done.
+     *
+     * @return the number of talks in the index
+     * @throws IllegalStateException if the index is disabled
+     */
+    public int rebuild() {
+        if (!apiProperties.isSearchIndexEnabled()) {
+            throw new IllegalStateException("The search index is not available");
+        }
+        long started = System.nanoTime();
+        int indexed;
+        int tokens;
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            talks.clear();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TedTalkEntity> entities = repository.streamAll()) {
+                    entities.forEach(entity -> {
+                        put(entity);
+                        entityManager.detach(entity);
+                    });
+                }
+            });
+            ready = true;
+            indexed = talks.size();
+            tokens = postings.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Built search index with {} talks and {} tokens in {} ms",
+                indexed, tokens, (System.nanoTime() - started) / 1_000_000);
+        return indexed;
+    }
+
+    /**
+     * Re-reads the written talks once their transaction has committed and updates their index entries, or
+     * rebuilds the index after a bulk change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTedTalksChanged(TedTalksChangedEvent event) {
+        if (!apiProperties.isSearchIndexEnabled()) {
+            return;
+        }
+        if (event.bulk()) {
+            rebuild();
+            return;
+        }
+        List<TedTalkEntity> written = new ArrayList<>();
+        if (event.changedIds() != null && !event.changedIds().isEmpty()) {
+            // Bulk writes can report many ids; look them up in bounded IN lists
+            List<Long> ids = List.copyOf(event.changedIds());
+            for (int from = 0; from < ids.size(); from += LOOKUP_BATCH_SIZE) {
+                written.addAll(repository.findAllById(ids.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, ids.size()))));
+            }
+        }
+        if (!event.links().isEmpty()) {
+            written.addAll(repository.findByLinkIn(event.links()));
+        }
+        lock.writeLock().lock();
+        try {
+            if (event.changedIds() != null) {
+                // Deleted talks are not found again; updated ones are put back below
+                event.changedIds().forEach(this::remove);
+            }
+            written.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(TedTalkEntity entity) {
+        remove(entity.getId());
+        TedTalkModel model = new TedTalkModel(entity.getTitle(), entity.getAuthor(), entity.getDate(),
+                entity.getViews(), entity.getLikes(), entity.getLink());
+        Set<String> tokens = new HashSet<>(tokenize(entity.getTitle()));
+        tokens.addAll(tokenize(entity.getAuthor()));
+        IndexedTalk talk = new IndexedTalk(entity.getId(), model,
+                entity.getViews() + TedTalkManagementService.DEFAULT_LIKE_WEIGHT * entity.getLikes(),
+                tokens.toArray(String[]::new));
+        talks.put(talk.id(), talk);
+        for (String token : talk.tokens()) {
+            postings.computeIfAbsent(token, key -> new HashSet<>()).add(talk.id());
+        }
+    }
+
+    private void remove(Long id) {
+        IndexedTalk talk = talks.remove(id);
+        if (talk == null) {
+            return;
+        }
+        for (String token : talk.tokens()) {
+            Set<Long> ids = postings.get(token);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    /**
+     * Splits text into lower-case tokens of letters and digits, with accents removed.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Stream.of(TOKEN_SEPARATOR.split(folded)).filter(token -> !token.isEmpty()).toList();
+    }
+
+    private record IndexedTalk(long id, TedTalkModel model, long influence, String[] tokens) {
+    }
+}
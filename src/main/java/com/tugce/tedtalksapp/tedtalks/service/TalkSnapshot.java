@@ -0,0 +1,195 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.common.TopK;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable column-oriented copy of the catalog. Numeric columns are primitive arrays and authors are
+ * dictionary-encoded, so the rankings are tight scans over a few arrays without boxing; each scan is split into
+ * chunks that run in parallel on the common fork/join pool.
+ */
+final class TalkSnapshot {
+
+    static final int NO_AUTHOR = -1;
+
+    private final long version;
+    private final int size;
+    private final long[] ids;
+    private final long[] views;
+    private final long[] likes;
+    /**
+     * {@code year * 12 + month - 1}, or {@link Integer#MIN_VALUE} without a date.
+     */
+    private final int[] yearMonths;
+    private final int[] authorIds;
+    private final String[] authors;
+    private final String[] titles;
+    private final String[] links;
+
+    private TalkSnapshot(Builder builder, long version) {
+        this.version = version;
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.views = Arrays.copyOf(builder.views, size);
+        this.likes = Arrays.copyOf(builder.likes, size);
+        this.yearMonths = Arrays.copyOf(builder.yearMonths, size);
+        this.authorIds = Arrays.copyOf(builder.authorIds, size);
+        this.authors = builder.authorList.toArray(String[]::new);
+        this.titles = Arrays.copyOf(builder.titles, size);
+        this.links = Arrays.copyOf(builder.links, size);
+    }
+
+    long version() {
+        return version;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Ranks speakers by the sum of {@code views + likeWeight * likes} over their talks, ties broken by name,
+     * keeping only the requested page on a bounded heap.
+     */
+    List<Map.Entry<String, Long>> topSpeakers(long likeWeight, int limit, int offset, int chunkSize) {
+        // One array per split of the stream rather than per chunk, added up in place
+        long[] influence = chunks(chunkSize).parallel()
+                .collect(() -> new long[authors.length], (partial, chunk) -> {
+                    for (int i = chunk * chunkSize, end = Math.min(i + chunkSize, size); i < end; i++) {
+                        if (authorIds[i] != NO_AUTHOR) {
+                            partial[authorIds[i]] += views[i] + likeWeight * likes[i];
+                        }
+                    }
+                }, TalkSnapshot::addTo);
+        Iterator<Map.Entry<String, Long>> ranked = IntStream.range(0, authors.length)
+                .mapToObj(author -> Map.entry(authors[author], influence[author]))
+                .iterator();
+        return TopK.page(ranked, limit, offset, SpeakerInfluenceService.INFLUENCE_ORDER);
+    }
+
+    /**
+     * Returns the {@code n} most influential talks of every year, ties broken by id, years in ascending order.
+     */
+    Map<Integer, List<TedTalkModel>> topTalksPerYear(long likeWeight, int n, int chunkSize) {
+        // Orders rows from weakest to strongest, so the head of a bounded queue is the one to evict
+        Comparator<Integer> weakestFirst = Comparator.<Integer>comparingLong(row -> views[row] + likeWeight * likes[row])
+                .thenComparing(Comparator.<Integer>comparingLong(row -> ids[row]).reversed());
+        Map<Integer, PriorityQueue<Integer>> candidates = chunks(chunkSize).parallel()
+                .mapToObj(chunk -> {
+                    Map<Integer, PriorityQueue<Integer>> partial = new HashMap<>();
+                    for (int i = chunk * chunkSize, end = Math.min(i + chunkSize, size); i < end; i++) {
+                        if (yearMonths[i] != Integer.MIN_VALUE) {
+                            offer(partial.computeIfAbsent(Math.floorDiv(yearMonths[i], 12), year -> new PriorityQueue<>(weakestFirst)), i, n);
+                        }
+                    }
+                    return partial;
+                })
+                .reduce(new HashMap<>(), (left, right) -> {
+                    Map<Integer, PriorityQueue<Integer>> merged = new HashMap<>(left);
+                    right.forEach((year, rows) -> merged.merge(year, rows, (a, b) -> {
+                        PriorityQueue<Integer> copy = new PriorityQueue<>(a);
+                        b.forEach(row -> offer(copy, row, n));
+                        return copy;
+                    }));
+                    return merged;
+                });
+
+        Map<Integer, List<TedTalkModel>> result = new LinkedHashMap<>();
+        candidates.keySet().stream().sorted().forEach(year -> result.put(year, candidates.get(year).stream()
+                .sorted(weakestFirst.reversed())
+                .map(this::toModel)
+                .toList()));
+        return result;
+    }
+
+    private IntStream chunks(int chunkSize) {
+        return IntStream.range(0, (size + chunkSize - 1) / chunkSize);
+    }
+
+    private static void offer(PriorityQueue<Integer> queue, int row, int n) {
+        queue.offer(row);
+        if (queue.size() > n) {
+            queue.poll();
+        }
+    }
+
+    private static void addTo(long[] total, long[] partial) {
+        for (int i = 0; i < total.length; i++) {
+            total[i] += partial[i];
+        }
+    }
+
+    private TedTalkModel toModel(int row) {
+        YearMonth date = yearMonths[row] == Integer.MIN_VALUE
+                ? null : YearMonth.of(Math.floorDiv(yearMonths[row], 12), Math.floorMod(yearMonths[row], 12) + 1);
+        return new TedTalkModel(titles[row], authorIds[row] == NO_AUTHOR ? null : authors[authorIds[row]],
+                date, views[row], likes[row], links[row]);
+    }
+
+    /**
+     * Collects talks row by row into growable columns.
+     */
+    static final class Builder {
+        private int size;
+        private long[] ids;
+        private long[] views;
+        private long[] likes;
+        private int[] yearMonths;
+        private int[] authorIds;
+        private String[] titles;
+        private String[] links;
+        private final Map<String, Integer> authorDictionary = new HashMap<>();
+        private final List<String> authorList = new ArrayList<>();
+
+        Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            ids = new long[capacity];
+            views = new long[capacity];
+            likes = new long[capacity];
+            yearMonths = new int[capacity];
+            authorIds = new int[capacity];
+            titles = new String[capacity];
+            links = new String[capacity];
+        }
+
+        void add(long id, String title, String author, YearMonth date, long viewCount, long likeCount, String link) {
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                views = Arrays.copyOf(views, capacity);
+                likes = Arrays.copyOf(likes, capacity);
+                yearMonths = Arrays.copyOf(yearMonths, capacity);
+                authorIds = Arrays.copyOf(authorIds, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                links = Arrays.copyOf(links, capacity);
+            }
+            ids[size] = id;
+            views[size] = viewCount;
+            likes[size] = likeCount;
+            yearMonths[size] = date == null ? Integer.MIN_VALUE : date.getYear() * 12 + date.getMonthValue() - 1;
+            authorIds[size] = author == null ? NO_AUTHOR : authorDictionary.computeIfAbsent(author, name -> {
+                authorList.add(name);
+                return authorList.size() - 1;
+            });
+            titles[size] = title;
+            links[size] = link;
+            size++;
+        }
+
+        TalkSnapshot build(long version) {
+            return new TalkSnapshot(this, version);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.config.AnalyticsProperties;
+import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalksChangedEvent;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the optional {@link TalkSnapshot} of the catalog ({@code tedtalks.analytics.snapshot-enabled}).
+ * <p>
+ * Every committed write bumps a version number. A ranking request that sees a snapshot older than the current
+ * version starts a rebuild from the database on a background thread and is answered from the snapshot it has;
+ * only the very first request waits for a load. At most one rebuild runs at a time, so bursts of writes such as
+ * an import cost a rebuild or two, and rankings may lag the latest writes by the length of a rebuild. Answers
+ * served from an outdated snapshot are not cached (see {@link #servedOutdated()}), so the caches never keep a
+ * stale ranking once the rebuild is in use.
+ * <p>
+ * Writes are not patched into the snapshot: its columns are shared, unsynchronized arrays that readers scan in
+ * parallel, so even a single-talk patch would have to copy every column to publish a new snapshot, and the change
+ * events only carry ids, so the written rows would have to be read back as well. A rebuild costs one more
+ * sequential read and keeps a single code path that is always consistent with the table.
+ */
+@Service
+public class TalkSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(TalkSnapshotService.class);
+
+    private final TedTalkRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AnalyticsProperties analyticsProperties;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<CompletableFuture<TalkSnapshot>> rebuild = new AtomicReference<>();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "talk-snapshot-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ThreadLocal<Long> servedVersion = new ThreadLocal<>();
+    private volatile TalkSnapshot snapshot;
+
+    public TalkSnapshotService(TedTalkRepository repository,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               AnalyticsProperties analyticsProperties) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.analyticsProperties = analyticsProperties;
+    }
+
+    public boolean isEnabled() {
+        return analyticsProperties.isSnapshotEnabled();
+    }
+
+    /**
+     * Ranks speakers by influence over the snapshot.
+     *
+     * @see TedTalkManagementService#findMostInfluentialSpeakers(int, int)
+     */
+    public List<Map.Entry<String, Long>> findTopSpeakers(long likeWeight, int limit, int offset) {
+        TalkSnapshot current = current();
+        servedVersion.set(current.version());
+        return current.topSpeakers(likeWeight, limit, offset, analyticsProperties.getScanChunkSize());
+    }
+
+    /**
+     * Returns the {@code n} most influential talks of every year from the snapshot.
+     *
+     * @see TedTalkManagementService#findMostInfluentialTedTalksPerYear(int)
+     */
+    public Map<Integer, List<TedTalkModel>> findTopTalksPerYear(long likeWeight, int n) {
+        TalkSnapshot current = current();
+        servedVersion.set(current.version());
+        return current.topTalksPerYear(likeWeight, n, analyticsProperties.getScanChunkSize());
+    }
+
+    /**
+     * Returns whether the last ranking computed by the calling thread came from a snapshot that is outdated by
+     * now, and forgets that ranking. Such answers must not be cached: the writes they miss have already evicted
+     * the caches, and the rebuild that catches up may complete before the answer would be stored.
+     *
+     * @return {@code true} if the last ranking is outdated
+     */
+    public boolean servedOutdated() {
+        Long served = servedVersion.get();
+        servedVersion.remove();
+        return served != null && served != version.get();
+    }
+
+    /**
+     * Marks the snapshot stale once the transaction that changed the talks has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTedTalksChanged(TedTalksChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    TalkSnapshot current() {
+        TalkSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        } else if (current.version() != version.get()) {
+            refresh();
+        }
+        return current;
+    }
+
+    /**
+     * Starts a background rebuild of the snapshot, unless one is running already.
+     *
+     * @return the running rebuild, which completes once its snapshot is in use
+     */
+    CompletableFuture<TalkSnapshot> refresh() {
+        CompletableFuture<TalkSnapshot> started = new CompletableFuture<>();
+        CompletableFuture<TalkSnapshot> running = rebuild.compareAndExchange(null, started);
+        if (running != null) {
+            return running;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                TalkSnapshot loaded = load();
+                snapshot = loaded;
+                rebuild.set(null);
+                started.complete(loaded);
+            } catch (RuntimeException e) {
+                logger.warn("Rebuilding the talk snapshot failed; serving the previous one", e);
+                rebuild.set(null);
+                started.completeExceptionally(e);
+            }
+        });
+        return started;
+    }
+
+    private TalkSnapshot load() {
+        // Read the version first: a write committing during the load leaves the snapshot stale, not wrong
+        long loadedVersion = version.get();
+        long started = System.nanoTime();
+        TalkSnapshot loaded = readOnlyTransaction.execute(status -> {
+            TalkSnapshot.Builder builder = new TalkSnapshot.Builder((int) Math.min(repository.count(), Integer.MAX_VALUE - 8));
+            try (Stream<TedTalkEntity> entities = repository.streamAll()) {
+                for (Iterator<TedTalkEntity> it = entities.iterator(); it.hasNext(); ) {
+                    TedTalkEntity talk = it.next();
+                    builder.add(talk.getId(), talk.getTitle(), talk.getAuthor(), talk.getDate(),
+                            talk.getViews(), talk.getLikes(), talk.getLink());
+                    entityManager.detach(talk);
+                }
+            }
+            return builder.build(loadedVersion);
+        });
+        logger.info("Loaded talk snapshot with {} talks in {} ms", loaded.size(), (System.nanoTime() - started) / 1_000_000);
+        return loaded;
+    }
+}
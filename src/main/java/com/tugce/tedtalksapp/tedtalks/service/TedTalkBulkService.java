@@ -0,0 +1,235 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.config.ApiProperties;
+import com.tugce.tedtalksapp.tedtalks.model.BulkItemResult;
+import com.tugce.tedtalksapp.tedtalks.model.BulkItemResult.Outcome;
+import com.tugce.tedtalksapp.tedtalks.model.SpeakerInfluenceDelta;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkPurgeFilter;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalksChangedEvent;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkJdbcRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Creates, updates and deletes many TedTalks per request. Items are written in chunks of
+ * {@code tedtalks.api.bulk-chunk-size}: each chunk is one transaction and one JDBC batch, and carries its
+ * speaker influence deltas and {@link TedTalksChangedEvent} like a single write would.
+ * <p>
+ * Missing ids are reported per item without failing the chunk. If the database rejects a chunk, e.g. because of
+ * a duplicate link, the chunk is rolled back and retried one item per transaction, so that only the offending
+ * items fail.
+ * <p>
+ * {@link #purge(TedTalkPurgeFilter, boolean)} instead removes every TedTalk matching a filter with a single
+ * {@code DELETE ... WHERE}.
+ */
+@Service
+public class TedTalkBulkService {
+    private final TedTalkJdbcRepository jdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SpeakerInfluenceService speakerInfluenceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApiProperties apiProperties;
+
+    public TedTalkBulkService(TedTalkJdbcRepository jdbcRepository,
+                              TransactionTemplate transactionTemplate,
+                              SpeakerInfluenceService speakerInfluenceService,
+                              ApplicationEventPublisher eventPublisher,
+                              ApiProperties apiProperties) {
+        this.jdbcRepository = jdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.speakerInfluenceService = speakerInfluenceService;
+        this.eventPublisher = eventPublisher;
+        this.apiProperties = apiProperties;
+    }
+
+    /**
+     * Creates the given TedTalks.
+     *
+     * @param models the TedTalks to create
+     * @return one result per TedTalk, in request order, with the id of each created TedTalk
+     */
+    public List<BulkItemResult> createAll(List<TedTalkModel> models) {
+        return inChunks(models, (from, chunk) -> {
+            List<Integer> indexes = new ArrayList<>();
+            List<TedTalkModel> valid = new ArrayList<>();
+            List<BulkItemResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.get(i) == null) {
+                    results.add(BulkItemResult.rejected(from + i, null, Outcome.INVALID, "TedTalk is missing"));
+                } else {
+                    indexes.add(results.size());
+                    valid.add(chunk.get(i));
+                    results.add(null);
+                }
+            }
+            if (!valid.isEmpty()) {
+                speakerInfluenceService.recordBatch(valid, false);
+                List<Long> ids = jdbcRepository.insertReturningIds(valid);
+                for (int i = 0; i < ids.size(); i++) {
+                    int position = indexes.get(i);
+                    results.set(position, BulkItemResult.written(from + position, ids.get(i), Outcome.CREATED));
+                }
+                eventPublisher.publishEvent(TedTalksChangedEvent.written(ids));
+            }
+            return results;
+        }, model -> null);
+    }
+
+    /**
+     * Overwrites the given TedTalks.
+     *
+     * @param updates the id of each TedTalk and its new values
+     * @return one result per update, in request order
+     */
+    public List<BulkItemResult> updateAll(List<Map.Entry<Long, TedTalkModel>> updates) {
+        return inChunks(updates, (from, chunk) -> {
+            Map<Long, SpeakerInfluenceDelta> stored =
+                    jdbcRepository.findContributionsByIdForUpdate(chunk.stream().map(Map.Entry::getKey).toList());
+            List<BulkItemResult> results = new ArrayList<>(chunk.size());
+            List<Map.Entry<Long, TedTalkModel>> found = new ArrayList<>();
+            List<SpeakerInfluenceDelta> deltas = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                Map.Entry<Long, TedTalkModel> update = chunk.get(i);
+                Long id = update.getKey();
+                if (id == null || update.getValue() == null) {
+                    results.add(BulkItemResult.rejected(from + i, id, Outcome.INVALID, "Id and TedTalk are required"));
+                } else if (!stored.containsKey(id)) {
+                    results.add(BulkItemResult.rejected(from + i, id, Outcome.NOT_FOUND, "TedTalk not found"));
+                } else {
+                    SpeakerInfluenceDelta added = SpeakerInfluenceDelta.added(update.getValue());
+                    // An id repeated within the chunk replaces the values written earlier in the same chunk
+                    deltas.add(stored.put(id, added).negate());
+                    deltas.add(added);
+                    found.add(update);
+                    results.add(BulkItemResult.written(from + i, id, Outcome.UPDATED));
+                }
+            }
+            if (!found.isEmpty()) {
+                speakerInfluenceService.apply(deltas);
+                jdbcRepository.batchUpdateById(found, found.size());
+                eventPublisher.publishEvent(TedTalksChangedEvent.written(found.stream().map(Map.Entry::getKey).toList()));
+            }
+            return results;
+        }, Map.Entry::getKey);
+    }
+
+    /**
+     * Deletes the TedTalks with the given ids.
+     *
+     * @param ids the ids of the TedTalks to delete
+     * @return one result per id, in request order
+     */
+    public List<BulkItemResult> deleteAll(List<Long> ids) {
+        return inChunks(ids, (from, chunk) -> {
+            Map<Long, SpeakerInfluenceDelta> stored = jdbcRepository.findContributionsByIdForUpdate(chunk);
+            List<BulkItemResult> results = new ArrayList<>(chunk.size());
+            List<Long> found = new ArrayList<>();
+            List<SpeakerInfluenceDelta> deltas = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                Long id = chunk.get(i);
+                // An id repeated within the chunk is gone after its first occurrence
+                SpeakerInfluenceDelta removed = id == null ? null : stored.remove(id);
+                if (removed == null) {
+                    results.add(BulkItemResult.rejected(from + i, id, Outcome.NOT_FOUND, "TedTalk not found"));
+                } else {
+                    deltas.add(removed.negate());
+                    found.add(id);
+                    results.add(BulkItemResult.written(from + i, id, Outcome.DELETED));
+                }
+            }
+            if (!found.isEmpty()) {
+                speakerInfluenceService.apply(deltas);
+                jdbcRepository.deleteByIds(found);
+                eventPublisher.publishEvent(TedTalksChangedEvent.written(found));
+            }
+            return results;
+        }, id -> id);
+    }
+
+    /**
+     * Deletes every TedTalk matching the filter in one transaction: the matching rows are locked and summed per
+     * speaker for the speaker influence deltas, optionally copied to {@code ted_talk_archive} with one
+     * {@code INSERT ... SELECT}, and removed with one {@code DELETE ... WHERE}. No ids are read; caches and the
+     * search index are told with {@link TedTalksChangedEvent#bulkChanged()} to drop everything instead.
+     *
+     * @param filter  the TedTalks to delete
+     * @param archive whether to archive the TedTalks before deleting them
+     * @return the number of deleted TedTalks
+     * @throws IllegalArgumentException if the filter is invalid or lists too many links
+     * @throws IllegalStateException    if the matching TedTalks changed during the purge, which is rolled back
+     */
+    public int purge(TedTalkPurgeFilter filter, boolean archive) {
+        filter.validate();
+        if (filter.links() != null && filter.links().size() > apiProperties.getMaxBulkSize()) {
+            throw new IllegalArgumentException("A purge may list at most " + apiProperties.getMaxBulkSize() + " links");
+        }
+        return transactionTemplate.execute(status -> {
+            List<SpeakerInfluenceDelta> contributions = jdbcRepository.sumContributionsForUpdate(filter);
+            long matched = contributions.stream().mapToLong(SpeakerInfluenceDelta::talks).sum();
+            if (matched == 0) {
+                return 0;
+            }
+            if (archive && jdbcRepository.archive(filter) != matched) {
+                throw new IllegalStateException("TedTalks changed during the purge; try again");
+            }
+            if (jdbcRepository.delete(filter) != matched) {
+                throw new IllegalStateException("TedTalks changed during the purge; try again");
+            }
+            speakerInfluenceService.apply(contributions.stream().map(SpeakerInfluenceDelta::negate).toList());
+            eventPublisher.publishEvent(TedTalksChangedEvent.bulkChanged());
+            return (int) matched;
+        });
+    }
+
+    private <T> List<BulkItemResult> inChunks(List<T> items, ChunkWriter<T> writer, Function<T, Long> idOf) {
+        if (items.size() > apiProperties.getMaxBulkSize()) {
+            throw new IllegalArgumentException("A bulk request may contain at most "
+                    + apiProperties.getMaxBulkSize() + " items");
+        }
+        int chunkSize = apiProperties.getBulkChunkSize();
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, items.size());
+            try {
+                write(writer, from, items.subList(from, to), results);
+            } catch (DataIntegrityViolationException e) {
+                // Find the offending items by writing the chunk again one item at a time
+                for (int index = from; index < to; index++) {
+                    try {
+                        write(writer, index, items.subList(index, index + 1), results);
+                    } catch (DataIntegrityViolationException itemFailure) {
+                        results[index] = BulkItemResult.rejected(index, idOf.apply(items.get(index)),
+                                itemFailure instanceof DuplicateKeyException ? Outcome.CONFLICT : Outcome.INVALID,
+                                itemFailure.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private <T> void write(ChunkWriter<T> writer, int from, List<T> chunk, BulkItemResult[] results) {
+        List<BulkItemResult> written = transactionTemplate.execute(status -> writer.write(from, chunk));
+        for (int i = 0; i < written.size(); i++) {
+            results[from + i] = written.get(i);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        /**
+         * Writes the chunk that starts at request index {@code from}, inside its transaction.
+         */
+        List<BulkItemResult> write(int from, List<T> chunk);
+    }
+}
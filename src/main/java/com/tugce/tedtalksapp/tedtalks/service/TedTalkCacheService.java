@@ -0,0 +1,72 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tugce.tedtalksapp.tedtalks.config.CacheConfig;
+import com.tugce.tedtalksapp.tedtalks.dto.CacheStatsDTO;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalksChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Invalidates the read-through caches when TedTalks change and reports their statistics.
+ * <p>
+ * Invalidation runs after the writing transaction has committed: evicting earlier would let a concurrent
+ * read cache the old row again before the new one becomes visible.
+ */
+@Service
+public class TedTalkCacheService {
+    private final CacheManager cacheManager;
+
+    public TedTalkCacheService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Evicts the changed TedTalks (all of them if unknown, as after a bulk change) and every ranking, which any
+     * write may change.
+     * Imported TedTalks that are new need no eviction, as they cannot be cached yet.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTedTalksChanged(TedTalksChangedEvent event) {
+        Cache talks = cacheManager.getCache(CacheConfig.TED_TALKS);
+        if (talks != null) {
+            if (event.changedIds() == null) {
+                talks.clear();
+            } else {
+                event.changedIds().forEach(talks::evict);
+            }
+        }
+        clear(CacheConfig.INFLUENTIAL_SPEAKERS);
+        clear(CacheConfig.TOP_TALKS_PER_YEAR);
+    }
+
+    /**
+     * Returns the statistics of every cache that records them; empty when caching is switched off.
+     *
+     * @return one entry per cache
+     */
+    public List<CacheStatsDTO> getStatistics() {
+        List<CacheStatsDTO> statistics = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                CacheStats stats = caffeine.stats();
+                statistics.add(new CacheStatsDTO(name, caffeine.estimatedSize(), stats.hitCount(), stats.missCount(),
+                        stats.hitRate(), stats.evictionCount()));
+            }
+        }
+        return statistics;
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
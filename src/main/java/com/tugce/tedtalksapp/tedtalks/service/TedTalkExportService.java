@@ -0,0 +1,49 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole catalog for exports without materializing it.
+ */
+@Service
+public class TedTalkExportService {
+    private final TedTalkRepository repository;
+    private final EntityManager entityManager;
+
+    public TedTalkExportService(TedTalkRepository repository, EntityManager entityManager) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Hands every TedTalk to {@code consumer}, in id order. Rows are read from a database cursor inside a
+     * read-only transaction and each entity is detached once it has been handed over, so memory use does not
+     * grow with the size of the catalog.
+     *
+     * @param consumer receives each TedTalk
+     * @return the number of TedTalks exported
+     */
+    @Transactional(readOnly = true)
+    public long forEachTedTalk(Consumer<TedTalkModel> consumer) {
+        long exported = 0;
+        try (Stream<TedTalkEntity> entities = repository.streamAll()) {
+            for (Iterator<TedTalkEntity> it = entities.iterator(); it.hasNext(); ) {
+                TedTalkEntity entity = it.next();
+                consumer.accept(new TedTalkModel(entity.getTitle(), entity.getAuthor(), entity.getDate(),
+                        entity.getViews(), entity.getLikes(), entity.getLink()));
+                entityManager.detach(entity);
+                exported++;
+            }
+        }
+        return exported;
+    }
+}
@@ -1,41 +1,123 @@
 package com.tugce.tedtalksapp.tedtalks.service;
 
+import com.tugce.tedtalksapp.tedtalks.config.CacheConfig;
+import com.tugce.tedtalksapp.tedtalks.converter.YearMonthConverter;
 import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.model.SpeakerInfluenceDelta;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkFilter;
 import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkPage;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkPatch;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkSort;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalksChangedEvent;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkJdbcRepository;
 import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
+import com.tugce.tedtalksapp.tedtalks.repository.YearlyTopTalk;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import java.time.DateTimeException;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 
 
 @Service
 public class TedTalkManagementService {
-    private static final int LIKE_WEIGHT = 2; // Weight of likes in the influence calculation
+    public static final int DEFAULT_LIKE_WEIGHT = 2; // Weight of likes in the influence calculation
     private final TedTalkRepository repository;
+    private final TedTalkJdbcRepository jdbcRepository;
+    private final SpeakerInfluenceService speakerInfluenceService;
+    private final TalkSnapshotService snapshotService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final YearMonthConverter yearMonthConverter = new YearMonthConverter();
 
-    public TedTalkManagementService(TedTalkRepository repository) {
+    public TedTalkManagementService(TedTalkRepository repository,
+                                    TedTalkJdbcRepository jdbcRepository,
+                                    SpeakerInfluenceService speakerInfluenceService,
+                                    TalkSnapshotService snapshotService,
+                                    ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
+        this.jdbcRepository = jdbcRepository;
+        this.speakerInfluenceService = speakerInfluenceService;
+        this.snapshotService = snapshotService;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional
     public TedTalkModel createTedTalk(TedTalkModel model) {
         TedTalkEntity entity = mapModelToEntity(model);
         TedTalkEntity savedEntity = repository.save(entity);
         return mapEntityToModel(savedEntity);
     }
 
-    public List<TedTalkModel> getAllTedTalks() {
-        return repository.findAll().stream().map(this::mapEntityToModel).toList();
+    /**
+     * Returns one page of all TedTalks.
+     *
+     * @see #getTedTalkPage(TedTalkFilter, TedTalkSort, String, int)
+     */
+    public TedTalkPage getTedTalkPage(TedTalkSort sort, String cursor, int size) {
+        return getTedTalkPage(TedTalkFilter.none(), sort, cursor, size);
     }
 
+    /**
+     * Returns one page of the TedTalks matching the filter, using keyset pagination: each page continues after
+     * the sort key and id of the previous page's last talk instead of skipping rows, so deep pages cost the
+     * same as the first one.
+     *
+     * @param filter the conditions TedTalks must meet
+     * @param sort   the order to page in
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param size   the maximum number of TedTalks on the page
+     * @return the page and the cursor of the next one
+     * @throws IllegalArgumentException if the filter is invalid, or the cursor is malformed or was issued for
+     *                                  another sort
+     */
+    public TedTalkPage getTedTalkPage(TedTalkFilter filter, TedTalkSort sort, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        filter.validate();
+        TalkCursor after = cursor == null ? null : TalkCursor.decode(cursor, sort);
+        Object afterKey;
+        try {
+            afterKey = after == null ? null : switch (sort) {
+                case ID -> null;
+                case DATE -> after.value().isEmpty() ? null : yearMonthConverter.convertToEntityAttribute(after.value());
+                case INFLUENCE -> Long.parseLong(after.value());
+            };
+        } catch (DateTimeException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        // One extra row tells whether another page follows
+        List<TedTalkEntity> entities = repository.findPage(filter, sort, DEFAULT_LIKE_WEIGHT, afterKey,
+                after == null ? null : after.id(), size + 1);
+        String nextCursor = null;
+        if (entities.size() > size) {
+            entities = entities.subList(0, size);
+            TedTalkEntity last = entities.get(size - 1);
+            String value = switch (sort) {
+                case ID -> "";
+                case DATE -> last.getDate() == null ? "" : yearMonthConverter.convertToDatabaseColumn(last.getDate());
+                case INFLUENCE -> Long.toString(last.getViews() + DEFAULT_LIKE_WEIGHT * last.getLikes());
+            };
+            nextCursor = new TalkCursor(sort, value, last.getId()).encode();
+        }
+        return new TedTalkPage(entities.stream().map(this::mapEntityToModel).toList(), nextCursor);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.TED_TALKS, key = "#id")
     public TedTalkModel getTedTalkById(Long id) {
         TedTalkEntity entity = repository.findById(id).orElseThrow(() -> new RuntimeException("TedTalk not found"));
         return mapEntityToModel(entity);
     }
 
+    @Transactional
     public TedTalkModel updateTedTalk(Long id, TedTalkModel model) {
         TedTalkEntity entity = repository.findById(id).orElseThrow(() -> new RuntimeException("TedTalk not found"));
         entity.setTitle(model.getTitle());
@@ -48,6 +130,36 @@ public class TedTalkManagementService {
         return mapEntityToModel(updatedEntity);
     }
 
+    /**
+     * Overwrites only the fields set in the patch, with a single {@code UPDATE} instead of loading and saving
+     * the whole TedTalk. A patch of the author, views or likes first reads and locks the stored values, which
+     * the speaker influence summary needs.
+     *
+     * @param id    the id of the TedTalk
+     * @param patch the fields to overwrite
+     * @return {@code false} if there is no TedTalk with the id
+     * @throws IllegalArgumentException if the patch changes no field
+     */
+    @Transactional
+    public boolean patchTedTalk(Long id, TedTalkPatch patch) {
+        if (patch.isEmpty()) {
+            throw new IllegalArgumentException("The patch must change at least one field");
+        }
+        SpeakerInfluenceDelta stored = patch.changesInfluence()
+                ? jdbcRepository.findContributionsByIdForUpdate(List.of(id)).get(id)
+                : null;
+        if (repository.patch(id, patch) == 0) {
+            return false;
+        }
+        // The update bypasses TedTalkWriteListener, so do its work here
+        if (stored != null) {
+            speakerInfluenceService.apply(List.of(stored.negate(), patch.applyTo(stored)));
+        }
+        eventPublisher.publishEvent(TedTalksChangedEvent.written(id));
+        return true;
+    }
+
+    @Transactional
     public void deleteTedTalk(Long id) {
         repository.deleteById(id);
     }
@@ -61,24 +173,92 @@ public class TedTalkManagementService {
     }
 
     public List<Map.Entry<String, Long>> findMostInfluentialSpeakers() {
-        return repository.findAll().stream()
-                .collect(Collectors.groupingBy(
-                        TedTalkEntity::getAuthor, // Group by author
-                        Collectors.summingLong(entity -> entity.getViews() + LIKE_WEIGHT * entity.getLikes()) // Views + LIKE_WEIGHT * Likes
-                ))
-                .entrySet().stream()
-                .sorted((entry1, entry2) -> Long.compare(entry2.getValue(), entry1.getValue())) // Sort descending by influence
-                .toList(); // Return the result as a list
-    }
-
-    public Map<Integer, Optional<TedTalkEntity>> findMostInfluentialTedTalkPerYear() {
-        return repository.findAll().stream()
-                .collect(Collectors.groupingBy(
-                        tedTalk -> tedTalk.getDate().getYear(), // Group by year
-                        Collectors.maxBy(Comparator.comparingLong(
-                                tedTalk -> tedTalk.getViews() + LIKE_WEIGHT * tedTalk.getLikes() // Calculate influence
-                        ))
-                ));
+        return findMostInfluentialSpeakers(Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Returns one page of speakers ranked with the default like weight. Calls the ranking directly, without
+     * going through the cache.
+     *
+     * @see #findMostInfluentialSpeakers(long, int, int)
+     */
+    public List<Map.Entry<String, Long>> findMostInfluentialSpeakers(int limit, int offset) {
+        return findMostInfluentialSpeakers(DEFAULT_LIKE_WEIGHT, limit, offset);
+    }
+
+    /**
+     * Returns one page of speakers ranked by influence (views + likeWeight * likes over all their talks).
+     * With the default weight the ranking is an indexed read of the speaker influence summary, which every
+     * write keeps up to date, and is cached; other weights rank the summary's totals with a bounded heap.
+     * When the in-memory snapshot is enabled, the ranking is computed over it instead.
+     *
+     * @param likeWeight how much a like counts relative to a view
+     * @param limit      the maximum number of speakers to return
+     * @param offset     the number of top speakers to skip
+     * @return the speakers and their influence, most influential first
+     */
+    @Cacheable(cacheNames = CacheConfig.INFLUENTIAL_SPEAKERS, condition = "#likeWeight == " + DEFAULT_LIKE_WEIGHT,
+            unless = "@talkSnapshotService.servedOutdated()")
+    public List<Map.Entry<String, Long>> findMostInfluentialSpeakers(long likeWeight, int limit, int offset) {
+        if (likeWeight < 0 || limit < 0 || offset < 0) {
+            throw new IllegalArgumentException("Like weight, limit and offset must not be negative");
+        }
+        if (snapshotService.isEnabled()) {
+            return snapshotService.findTopSpeakers(likeWeight, limit, offset);
+        }
+        return speakerInfluenceService.findTopSpeakers(likeWeight, limit, offset);
+    }
+
+    /**
+     * Recomputes the speaker influence summary from the talk table.
+     *
+     * @return the number of speakers in the summary
+     */
+    @CacheEvict(cacheNames = CacheConfig.INFLUENTIAL_SPEAKERS, allEntries = true)
+    public int rebuildSpeakerInfluence() {
+        return speakerInfluenceService.rebuild();
+    }
+
+    /**
+     * Returns the {@code n} most influential talks of every year with the default like weight. Calls the
+     * ranking directly, without going through the cache.
+     *
+     * @see #findMostInfluentialTedTalksPerYear(long, int)
+     */
+    public Map<Integer, List<TedTalkModel>> findMostInfluentialTedTalksPerYear(int n) {
+        return findMostInfluentialTedTalksPerYear(DEFAULT_LIKE_WEIGHT, n);
+    }
+
+    /**
+     * Returns the {@code n} most influential talks of every year. The talks are ranked per year in the database
+     * with a window function, so only the returned talks are transferred, or over the in-memory snapshot when
+     * it is enabled. Results for the default like weight are cached.
+     *
+     * @param likeWeight how much a like counts relative to a view
+     * @param n          the number of talks per year
+     * @return the talks of each year, most influential first, keyed by year in ascending order
+     */
+    @Cacheable(cacheNames = CacheConfig.TOP_TALKS_PER_YEAR, condition = "#likeWeight == " + DEFAULT_LIKE_WEIGHT,
+            unless = "@talkSnapshotService.servedOutdated()")
+    public Map<Integer, List<TedTalkModel>> findMostInfluentialTedTalksPerYear(long likeWeight, int n) {
+        if (likeWeight < 0) {
+            throw new IllegalArgumentException("Like weight must not be negative");
+        }
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be at least 1");
+        }
+        if (snapshotService.isEnabled()) {
+            return snapshotService.findTopTalksPerYear(likeWeight, n);
+        }
+        // Sorted here because the query orders years as text
+        Map<Integer, List<TedTalkModel>> talksPerYear = new TreeMap<>();
+        for (YearlyTopTalk talk : repository.findTopTalksPerYear(likeWeight, n)) {
+            YearMonth date = yearMonthConverter.convertToEntityAttribute(talk.getDate());
+            talksPerYear.computeIfAbsent(date.getYear(), year -> new ArrayList<>())
+                    .add(new TedTalkModel(talk.getTitle(), talk.getAuthor(), date,
+                            talk.getViews(), talk.getLikes(), talk.getLink()));
+        }
+        return talksPerYear;
     }
 
 }
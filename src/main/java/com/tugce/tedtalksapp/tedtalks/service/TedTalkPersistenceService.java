@@ -1,34 +1,135 @@
 package com.tugce.tedtalksapp.tedtalks.service;
 
-import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.config.ImportProperties;
 import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
-import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalksChangedEvent;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkJdbcRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 @Service
 public class TedTalkPersistenceService {
-    private final TedTalkRepository repository;
+    private final TedTalkJdbcRepository jdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportProperties importProperties;
+    private final SpeakerInfluenceService speakerInfluenceService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TedTalkPersistenceService(TedTalkRepository repository) {
-        this.repository = repository;
+    public TedTalkPersistenceService(TedTalkJdbcRepository jdbcRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     ImportProperties importProperties,
+                                     SpeakerInfluenceService speakerInfluenceService,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.jdbcRepository = jdbcRepository;
+        this.speakerInfluenceService = speakerInfluenceService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.importProperties = importProperties;
     }
 
+    /**
+     * Saves the given TedTalks with JDBC batch inserts. The list is split into batches of
+     * {@code tedtalks.import.batch-size} rows, and each batch is committed in its own transaction together with
+     * its changes to the speaker influence summary.
+     *
+     * @param models the TedTalks to save
+     */
     public void saveAll(List<TedTalkModel> models) {
-        List<TedTalkEntity> entities = models.stream().map(model -> {
-            TedTalkEntity entity = new TedTalkEntity();
-            entity.setTitle(model.getTitle());
-            entity.setAuthor(model.getAuthor());
-            entity.setDate(model.getDate());
-            entity.setViews(model.getViews());
-            entity.setLikes(model.getLikes());
-            entity.setLink(model.getLink());
-            return entity;
-        }).collect(Collectors.toList());
-
-        repository.saveAll(entities);
+        saveAll(models, committedRows -> { });
+    }
+
+    /**
+     * Saves the given TedTalks like {@link #saveAll(List)}, reporting the size of each batch once it is committed.
+     *
+     * @param models         the TedTalks to save
+     * @param batchCommitted called with the number of rows after each committed batch
+     */
+    public void saveAll(List<TedTalkModel> models, IntConsumer batchCommitted) {
+        saveAll(models, false, batchCommitted);
+    }
+
+    /**
+     * Saves the given TedTalks like {@link #saveAll(List, IntConsumer)}. With {@code upsert}, a TedTalk whose
+     * link already exists updates the stored row in place instead of being inserted again.
+     *
+     * @param models         the TedTalks to save
+     * @param upsert         whether to update rows with an existing link
+     * @param batchCommitted called with the number of rows after each committed batch
+     */
+    public void saveAll(List<TedTalkModel> models, boolean upsert, IntConsumer batchCommitted) {
+        saveAll(models, upsert, batch -> { }, batch -> batchCommitted.accept(batch.stored()));
+    }
+
+    /**
+     * Saves the given TedTalks like {@link #saveAll(List, boolean, IntConsumer)}, calling {@code inTransaction}
+     * before each batch commits so that related bookkeeping is committed atomically with the batch.
+     * <p>
+     * Without {@code upsert}, a TedTalk whose link is already stored, or occurs earlier in the batch, is skipped
+     * rather than inserted a second time. A concurrent import of the same links can still fail on the unique link
+     * index.
+     *
+     * @param models         the TedTalks to save
+     * @param upsert         whether to update rows with an existing link
+     * @param inTransaction  called inside each batch transaction
+     * @param batchCommitted called after each batch has committed
+     */
+    public void saveAll(List<TedTalkModel> models, boolean upsert,
+                        Consumer<SavedBatch> inTransaction, Consumer<SavedBatch> batchCommitted) {
+        int batchSize = importProperties.getBatchSize();
+        for (int from = 0; from < models.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, models.size());
+            List<TedTalkModel> batch = models.subList(from, to);
+            SavedBatch saved = transactionTemplate.execute(status -> {
+                List<TedTalkModel> stored = upsert ? batch : withoutStoredLinks(batch);
+                speakerInfluenceService.recordBatch(stored, upsert);
+                if (upsert) {
+                    // Rows without a link cannot match a stored row; insert them so that their ids are known
+                    Map<Boolean, List<TedTalkModel>> byLink = stored.stream()
+                            .collect(Collectors.partitioningBy(model -> model.getLink() != null));
+                    jdbcRepository.batchUpsert(byLink.get(true), batchSize);
+                    eventPublisher.publishEvent(TedTalksChangedEvent.imported(
+                            byLink.get(true).stream().map(TedTalkModel::getLink).toList(), true));
+                    insertReturningIds(byLink.get(false));
+                } else {
+                    insertReturningIds(stored);
+                }
+                SavedBatch result = new SavedBatch(to, stored.size(), batch.size() - stored.size());
+                inTransaction.accept(result);
+                return result;
+            });
+            batchCommitted.accept(saved);
+        }
     }
-}
 
+    private void insertReturningIds(List<TedTalkModel> models) {
+        if (!models.isEmpty()) {
+            eventPublisher.publishEvent(TedTalksChangedEvent.written(jdbcRepository.insertReturningIds(models)));
+        }
+    }
+
+    private List<TedTalkModel> withoutStoredLinks(List<TedTalkModel> batch) {
+        Set<String> links = new HashSet<>(jdbcRepository.findStoredLinks(
+                batch.stream().map(TedTalkModel::getLink).filter(Objects::nonNull).toList()));
+        return batch.stream().filter(model -> model.getLink() == null || links.add(model.getLink())).toList();
+    }
+
+    /**
+     * A batch saved by {@link #saveAll(List, boolean, Consumer, Consumer)}.
+     *
+     * @param savedThrough the number of models of the list handled so far, including this batch
+     * @param stored       the number of rows of this batch written to the table
+     * @param skipped      the number of rows of this batch left out because their link was stored already
+     */
+    public record SavedBatch(int savedThrough, int stored, int skipped) {
+    }
+}
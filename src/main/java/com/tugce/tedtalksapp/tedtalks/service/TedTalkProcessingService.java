@@ -1,32 +1,135 @@
 package com.tugce.tedtalksapp.tedtalks.service;
 
 
-import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.config.ImportProperties;
+import com.tugce.tedtalksapp.tedtalks.entity.ImportCheckpointEntity;
+import com.tugce.tedtalksapp.tedtalks.exception.CsvParseException;
+import com.tugce.tedtalksapp.tedtalks.model.ImportJob;
+import com.tugce.tedtalksapp.tedtalks.model.ImportSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class TedTalkProcessingService {
+    private static final Logger logger = LoggerFactory.getLogger(TedTalkProcessingService.class);
+
     private final CsvImporterService csvImporterService;
-    private final TedTalkPersistenceService persistenceService;
+    private final ImportCheckpointService checkpointService;
+    private final PipelinedImportService pipelinedImportService;
+    private final ImportProperties importProperties;
 
-    public TedTalkProcessingService(CsvImporterService csvImporterService, TedTalkPersistenceService persistenceService) {
+    public TedTalkProcessingService(CsvImporterService csvImporterService,
+                                    ImportCheckpointService checkpointService,
+                                    PipelinedImportService pipelinedImportService,
+                                    ImportProperties importProperties) {
         this.csvImporterService = csvImporterService;
-        this.persistenceService = persistenceService;
+        this.checkpointService = checkpointService;
+        this.pipelinedImportService = pipelinedImportService;
+        this.importProperties = importProperties;
     }
 
     /**
-     * Processes the uploaded CSV file by parsing and saving its content to the database.
+     * Streams a CSV file to the database, recording parsed, persisted and failed rows on the given job.
+     * The file is a spooled upload or a file from the local import directory. Plain CSV files are read through
+     * memory-mapped windows of {@code tedtalks.import.local.map-window} bytes, which avoids copying the file
+     * through stream and reader buffers; gzip and zip files are inflated as they are read.
+     * Runs as a reader / parser / writer pipeline when {@code tedtalks.import.pipeline.enabled} is set.
+     * In lenient mode, rows that cannot be parsed are written to a quarantine file until the job's
+     * error budget is exceeded; otherwise the first bad row aborts the import.
+     * <p>
+     * Every committed batch checkpoints the job. If the job has a checkpoint from an earlier, failed attempt,
+     * the import continues after the rows it covers, seeking straight to their byte offset in plain CSV files,
+     * and the job's counters continue from it.
      *
-     * @param file the uploaded CSV file
+     * @param file the CSV, gzip or zip file
+     * @param job  the job that receives progress updates and carries the import options
+     * @return the import summary
      */
-    public void processCsv(MultipartFile file) {
-        // Parse the CSV into TedTalkModel objects
-        List<TedTalkModel> tedTalkModels = csvImporterService.parseCsv(file);
+    public ImportSummary processFile(Path file, ImportJob job) {
+        int mapWindowBytes = (int) Math.min(Integer.MAX_VALUE, importProperties.getLocal().getMapWindow().toBytes());
+        try (CsvDocuments documents = csvImporterService.openDocuments(file, mapWindowBytes)) {
+            return process(documents, job);
+        } catch (IOException e) {
+            throw new CsvParseException("Error reading CSV file " + file.getFileName(), e);
+        }
+    }
+
+    private ImportSummary process(CsvDocuments documents, ImportJob job) {
+        ReadPosition resumeFrom = ReadPosition.START;
+        long committed = 0;
+        long skipped = 0;
+        Optional<ImportCheckpointEntity> checkpoint = checkpointService.find(job.getId());
+        if (checkpoint.isPresent()) {
+            resumeFrom = checkpointService.resumePosition(checkpoint.get());
+            committed = checkpoint.get().getRowsCommitted();
+            skipped = checkpoint.get().getRowsSkipped() != null ? checkpoint.get().getRowsSkipped() : 0;
+            job.resumeFrom(committed, skipped, resumeFrom.rowsRead() - committed - skipped);
+            logger.info("Import {} resumes after row {} at byte {} ({} rows already committed)",
+                    job.getId(), resumeFrom.rowsRead(), resumeFrom.byteOffset(), committed);
+        }
+
+        if (!job.getOptions().isLenient()) {
+            long read = committed + skipped + importRows(documents, job, RejectedRowHandler.STRICT, resumeFrom);
+            checkpointService.delete(job.getId());
+            return new ImportSummary(read, job.getRowsPersisted(), job.getRowsSkipped(), 0, null);
+        }
+
+        Path quarantineFile = quarantineDirectory().resolve("tedtalks-rejected-" + job.getId() + ".csv");
+        QuarantiningRowHandler rejectedRows = new QuarantiningRowHandler(job, job.getOptions(), quarantineFile,
+                importProperties.getChunkSize(), resumeFrom.rowsRead(), resumeFrom.rowsRead() - committed - skipped);
+        try (rejectedRows) {
+            long parsed = committed + skipped + importRows(documents, job, rejectedRows, resumeFrom);
+            long read = parsed + rejectedRows.getRejected();
+            rejectedRows.verifyBudget(read);
+            checkpointService.delete(job.getId());
+            return new ImportSummary(read, job.getRowsPersisted(), job.getRowsSkipped(), rejectedRows.getRejected(),
+                    pathOrNull(rejectedRows.getQuarantineFile()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close quarantine file " + quarantineFile, e);
+        } finally {
+            job.setQuarantineFile(pathOrNull(rejectedRows.getQuarantineFile()));
+            if (rejectedRows.getRejected() > 0) {
+                logger.warn("Import {} rejected {} rows, see {}", job.getId(), rejectedRows.getRejected(), quarantineFile);
+            }
+        }
+    }
+
+    private long importRows(CsvDocuments documents, ImportJob job, RejectedRowHandler rejectedRowHandler,
+                            ReadPosition resumeFrom) {
+        if (importProperties.getPipeline().isEnabled()) {
+            return pipelinedImportService.importCsv(documents, job, rejectedRowHandler, resumeFrom);
+        }
+        long start = System.nanoTime();
+        AtomicLong writeNanos = new AtomicLong();
+        try {
+            return csvImporterService.streamChunks(documents, importProperties.getChunkSize(), resumeFrom, chunk -> {
+                job.recordParsed(chunk.models().size());
+                long writeStart = System.nanoTime();
+                try {
+                    checkpointService.persist(job, chunk);
+                } finally {
+                    writeNanos.addAndGet(System.nanoTime() - writeStart);
+                }
+            }, rejectedRowHandler);
+        } finally {
+            job.recordStageTime("write", writeNanos.get());
+            job.recordStageTime("parse", System.nanoTime() - start - writeNanos.get());
+        }
+    }
+
+    private Path quarantineDirectory() {
+        String directory = importProperties.getQuarantineDirectory();
+        return directory == null || directory.isBlank() ? Path.of(System.getProperty("java.io.tmpdir")) : Path.of(directory);
+    }
 
-        // Save the parsed data to the database
-        persistenceService.saveAll(tedTalkModels);
+    private static String pathOrNull(Path path) {
+        return path != null ? path.toString() : null;
     }
 }
@@ -0,0 +1,95 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.model.SpeakerInfluenceDelta;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalksChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reacts to talks written through JPA: applies their speaker influence deltas and publishes a
+ * {@link TedTalksChangedEvent}. Hibernate calls the listener right after it executes the statement, inside the
+ * same transaction, and passes the previous state on update and delete.
+ */
+@Component
+public class TedTalkWriteListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final SpeakerInfluenceService speakerInfluenceService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TedTalkWriteListener(EntityManagerFactory entityManagerFactory,
+                                SpeakerInfluenceService speakerInfluenceService,
+                                ApplicationEventPublisher eventPublisher) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.speakerInfluenceService = speakerInfluenceService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof TedTalkEntity talk) {
+            speakerInfluenceService.apply(List.of(contribution(talk)));
+            eventPublisher.publishEvent(TedTalksChangedEvent.written(talk.getId()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof TedTalkEntity talk && event.getOldState() != null) {
+            speakerInfluenceService.apply(List.of(
+                    contribution(event.getPersister(), event.getOldState()).negate(), contribution(talk)));
+            eventPublisher.publishEvent(TedTalksChangedEvent.written(talk.getId()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof TedTalkEntity talk) {
+            speakerInfluenceService.apply(List.of(contribution(event.getPersister(), event.getDeletedState()).negate()));
+            eventPublisher.publishEvent(TedTalksChangedEvent.written(talk.getId()));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static SpeakerInfluenceDelta contribution(TedTalkEntity talk) {
+        return SpeakerInfluenceDelta.added(talk.getAuthor(), talk.getViews(), talk.getLikes());
+    }
+
+    private static SpeakerInfluenceDelta contribution(EntityPersister persister, Object[] state) {
+        List<String> properties = Arrays.asList(persister.getPropertyNames());
+        return SpeakerInfluenceDelta.added(
+                (String) state[properties.indexOf("author")],
+                (Long) state[properties.indexOf("views")],
+                (Long) state[properties.indexOf("likes")]);
+    }
+}
@@ -0,0 +1,143 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.config.ImportProperties;
+import com.tugce.tedtalksapp.tedtalks.exception.CsvParseException;
+import com.tugce.tedtalksapp.tedtalks.exception.UploadOffsetMismatchException;
+import com.tugce.tedtalksapp.tedtalks.model.ImportJob;
+import com.tugce.tedtalksapp.tedtalks.model.ImportOptions;
+import com.tugce.tedtalksapp.tedtalks.model.UploadSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Receives large files in chunks so that an interrupted upload can continue where it stopped instead of
+ * starting over. Chunks are appended to a spool file, which becomes the input of the import job once the
+ * upload is complete.
+ * <p>
+ * Sessions are held in memory only, so an upload can be continued as long as the application keeps running;
+ * after a restart it has to start over.
+ */
+@Service
+public class UploadSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionService.class);
+
+    private final ImportJobService importJobService;
+    private final ImportProperties importProperties;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public UploadSessionService(ImportJobService importJobService, ImportProperties importProperties) {
+        this.importJobService = importJobService;
+        this.importProperties = importProperties;
+    }
+
+    /**
+     * Starts a resumable upload.
+     *
+     * @param fileName the name of the file being uploaded
+     * @return the new upload session
+     * @throws IOException if the spool file cannot be created
+     */
+    public UploadSession create(String fileName) throws IOException {
+        evictIdleSessions();
+        UploadSession session = new UploadSession(fileName, importJobService.createSpoolFile());
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Returns the upload session with the given id.
+     *
+     * @param id the session id
+     * @return the session, or empty if it is unknown, completed or expired
+     */
+    public Optional<UploadSession> getSession(String id) {
+        return Optional.ofNullable(sessions.get(id));
+    }
+
+    /**
+     * Appends a chunk to the upload. If the connection drops mid-chunk, the bytes that did arrive are kept
+     * and the session reports them, so the client can continue from there.
+     *
+     * @param id      the session id
+     * @param offset  the position of the chunk in the file, which must equal the bytes received so far
+     * @param content the chunk
+     * @return the session, or empty if it is unknown
+     * @throws UploadOffsetMismatchException if the chunk does not continue the upload
+     * @throws IOException                   if the chunk cannot be read or stored
+     */
+    public Optional<UploadSession> appendChunk(String id, long offset, InputStream content) throws IOException {
+        UploadSession session = sessions.get(id);
+        if (session == null) {
+            return Optional.empty();
+        }
+        synchronized (session) {
+            if (offset != session.getReceivedBytes()) {
+                throw new UploadOffsetMismatchException(offset, session.getReceivedBytes());
+            }
+            try (OutputStream out = Files.newOutputStream(session.getSpoolFile(), StandardOpenOption.APPEND)) {
+                content.transferTo(out);
+            } finally {
+                session.setReceivedBytes(Files.size(session.getSpoolFile()));
+            }
+        }
+        return Optional.of(session);
+    }
+
+    /**
+     * Finishes the upload and queues the received file for import.
+     *
+     * @param id      the session id
+     * @param options how rows that cannot be parsed are treated
+     * @return the import job, or empty if the session is unknown
+     * @throws CsvParseException     if nothing was uploaded
+     * @throws TaskRejectedException if the import queue is full; the session stays open for another attempt
+     */
+    public Optional<ImportJob> complete(String id, ImportOptions options) {
+        UploadSession session = sessions.get(id);
+        if (session == null) {
+            return Optional.empty();
+        }
+        synchronized (session) {
+            if (!sessions.containsKey(id)) {
+                return Optional.empty();
+            }
+            if (session.getReceivedBytes() == 0) {
+                throw new CsvParseException("CSV file is empty");
+            }
+            ImportJob job = importJobService.submit(session.getFileName(), options, session.getSpoolFile());
+            sessions.remove(id);
+            return Optional.of(job);
+        }
+    }
+
+    /**
+     * Drops uploads that have not received a chunk for {@code tedtalks.import.upload-session-timeout}.
+     */
+    private void evictIdleSessions() {
+        Instant cutoff = Instant.now().minus(importProperties.getUploadSessionTimeout());
+        sessions.values().stream()
+                .filter(session -> session.getUpdatedAt().isBefore(cutoff))
+                .toList()
+                .forEach(session -> {
+                    sessions.remove(session.getId());
+                    try {
+                        Files.deleteIfExists(session.getSpoolFile());
+                    } catch (IOException e) {
+                        logger.warn("Could not delete abandoned upload {}: {}", session.getSpoolFile(), e.getMessage());
+                    }
+                });
+    }
+}
@@ -0,0 +1,55 @@
+package com.tugce.tedtalksapp.tedtalks.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BoundedTaskExecutorTest {
+
+    @Test
+    void testExecute_limitsConcurrencyAndRejectsWhenQueueIsFull() throws InterruptedException {
+        // Arrange
+        BoundedTaskExecutor executor = new BoundedTaskExecutor(new SimpleAsyncTaskExecutor(), 2, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Runnable task = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+                finished.countDown();
+            }
+        };
+
+        // Act
+        executor.execute(task);
+        executor.execute(task);
+        executor.execute(task);
+
+        // Assert
+        assertThrows(TaskRejectedException.class, () -> executor.execute(task));
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+
+        // Finished tasks free their slots
+        CountDownLatch next = new CountDownLatch(1);
+        executor.execute(next::countDown);
+        assertTrue(next.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,130 @@
+package com.tugce.tedtalksapp.tedtalks.common;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvMalformedLineException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MappedCsvReaderTest {
+
+    private static final String CSV = "title,author,date,views,likes,link\r\n"
+            + "\"Talk, with comma\",Author 1,January 2022,1000,500,http://example.com/talk1\r\n"
+            + "\"The \"\"quoted\"\" talk\",Author 2,February 2023,2000,1000,http://example.com/talk2\n"
+            + "\"Two\nlines\",Zoë,March 2021,,,http://example.com/talk3\n"
+            + "\n"
+            + "\"C:\\talks\\\"\" talk\",Author 4,April 2021,4,4,\n"
+            + "Short row,Author 4\n"
+            + "Talk 5,Author 5,May 2020,5,5,http://example.com/talk5,extra\n"
+            + "Talk 6,Author 6,June 2020,6,6,";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadNext_matchesOpenCsvForEveryWindowSize() throws Exception {
+        // Arrange
+        Path file = write(CSV);
+        List<String[]> expected = readWithOpenCsv(CSV);
+
+        for (int windowSize : new int[]{128, 97, 80}) {
+            // Act
+            List<String[]> rows = new ArrayList<>();
+            long linesRead;
+            try (MappedCsvReader reader = new MappedCsvReader(file, 6, windowSize)) {
+                String[] row;
+                while ((row = reader.readNext()) != null) {
+                    rows.add(row);
+                }
+                linesRead = reader.getLinesRead();
+            }
+
+            // Assert
+            assertEquals(expected.size(), rows.size(), "window " + windowSize);
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.get(i), rows.get(i), "row " + i + ", window " + windowSize);
+            }
+            assertEquals(10, linesRead);
+        }
+    }
+
+    @Test
+    void testReadNext_treatsBackslashAsOrdinaryCharacter() throws Exception {
+        String csv = "title,author\n\"C:\\talks\\\"\"\",\"say \\\"\"hi\\\"\"\"\n";
+        String[] expected = {"C:\\talks\\\"", "say \\\"hi\\\""};
+
+        try (MappedCsvReader reader = new MappedCsvReader(write(csv), 2, 1024)) {
+            reader.readNext();
+            assertArrayEquals(expected, reader.readNext());
+        }
+        assertArrayEquals(expected, readWithOpenCsv(csv).get(1));
+    }
+
+    @Test
+    void testReadNext_skipsByteOrderMark() throws Exception {
+        Path file = tempDir.resolve("bom.csv");
+        Files.write(file, ("\uFEFFtitle,author\nTalk,Author\n").getBytes(StandardCharsets.UTF_8));
+
+        try (MappedCsvReader reader = new MappedCsvReader(file, 2, 1024)) {
+            assertArrayEquals(new String[]{"title", "author"}, reader.readNext());
+            assertArrayEquals(new String[]{"Talk", "Author"}, reader.readNext());
+            assertNull(reader.readNext());
+        }
+    }
+
+    @Test
+    void testReadNext_failsOnRowLargerThanWindow() throws Exception {
+        Path file = write("a,b\n" + "x".repeat(100) + ",y\n");
+
+        try (MappedCsvReader reader = new MappedCsvReader(file, 2, 32)) {
+            assertArrayEquals(new String[]{"a", "b"}, reader.readNext());
+            IOException exception = assertThrows(IOException.class, reader::readNext);
+            assertEquals("Row at line 2 is larger than the map window of 32 bytes", exception.getMessage());
+        }
+    }
+
+    @Test
+    void testReadNext_skipsLineWithUnterminatedQuote() throws Exception {
+        Path file = write("a,b\r\n\"never closed,x\r\nc,d\n");
+
+        try (MappedCsvReader reader = new MappedCsvReader(file, 2, 1024)) {
+            assertArrayEquals(new String[]{"a", "b"}, reader.readNext());
+            CsvMalformedLineException exception = assertThrows(CsvMalformedLineException.class, reader::readNext);
+            assertEquals("\"never closed,x", exception.getContext());
+            assertEquals(2, exception.getLineNumber());
+            assertArrayEquals(new String[]{"c", "d"}, reader.readNext());
+            assertEquals(3, reader.getLinesRead());
+            assertNull(reader.readNext());
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("talks.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<String[]> readWithOpenCsv(String content) throws Exception {
+        List<String[]> rows = new ArrayList<>();
+        try (CSVReader reader = CsvHelper.openCsvReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)))) {
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
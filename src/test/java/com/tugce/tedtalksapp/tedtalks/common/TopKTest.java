@@ -0,0 +1,39 @@
+package com.tugce.tedtalksapp.tedtalks.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TopKTest {
+
+    @Test
+    void testSelect_matchesFullSort() {
+        List<Integer> values = new Random(42).ints(1000, 0, 200).boxed().collect(Collectors.toList());
+        Comparator<Integer> descending = Comparator.reverseOrder();
+
+        for (int k : new int[]{1, 5, 20, 999, 1000, 5000}) {
+            List<Integer> expected = values.stream().sorted(descending).limit(k).toList();
+            assertEquals(expected, TopK.select(values.iterator(), k, descending), "k=" + k);
+        }
+        assertEquals(List.of(), TopK.select(values.iterator(), 0, descending));
+    }
+
+    @Test
+    void testPage_skipsOffset() {
+        List<Integer> values = IntStream.rangeClosed(1, 10).boxed().toList();
+
+        assertEquals(List.of(7, 6, 5), TopK.page(values.iterator(), 3, 3, Comparator.reverseOrder()));
+        assertEquals(List.of(1), TopK.page(values.iterator(), Integer.MAX_VALUE, 9, Comparator.reverseOrder()));
+        assertEquals(List.of(), TopK.page(values.iterator(), 3, 20, Comparator.reverseOrder()));
+    }
+}
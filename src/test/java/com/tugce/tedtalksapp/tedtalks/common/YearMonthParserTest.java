@@ -0,0 +1,69 @@
+package com.tugce.tedtalksapp.tedtalks.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DateTimeException;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class YearMonthParserTest {
+
+    @Test
+    void testParse_validDates() {
+        assertEquals(YearMonth.of(2022, 1), YearMonthParser.parse("January 2022"));
+        assertEquals(YearMonth.of(2019, 5), YearMonthParser.parse("May 2019"));
+        assertEquals(YearMonth.of(2006, 9), YearMonthParser.parse("September 2006"));
+        assertEquals(YearMonth.of(2021, 12), YearMonthParser.parse("December 2021"));
+    }
+
+    @Test
+    void testParse_invalidMonthValidYear() {
+        YearMonth expected = YearMonth.of(2022, YearMonth.now().getMonthValue());
+        assertEquals(expected, YearMonthParser.parse("Invalid 2022"));
+        assertEquals(expected, YearMonthParser.parse("january 2022"), "Month names are case-sensitive.");
+        assertEquals(expected, YearMonthParser.parse("Jan 2022"), "Only full month names are accepted.");
+    }
+
+    @Test
+    void testParse_invalidYearValidMonth() {
+        YearMonth expected = YearMonth.of(YearMonth.now().getYear(), 1);
+        assertEquals(expected, YearMonthParser.parse("January InvalidYear"));
+        assertEquals(expected, YearMonthParser.parse("January"));
+        assertEquals(expected, YearMonthParser.parse("January 99999999999"));
+    }
+
+    @Test
+    void testParse_nullAndEmptyInput() {
+        assertEquals(YearMonth.now(), YearMonthParser.parse(null));
+        assertEquals(YearMonth.now(), YearMonthParser.parse(""));
+    }
+
+    @Test
+    void testParse_yearOutOfRangeThrowsLikeDateConversionUtil() {
+        assertThrows(DateTimeException.class, () -> DateConversionUtil.parseYearMonth("May 2000000000"));
+        assertThrows(DateTimeException.class, () -> YearMonthParser.parse("May 2000000000"));
+    }
+
+    @Test
+    void testParse_matchesDateConversionUtil() {
+        String[] inputs = {
+                "January 2022", "February 1999", "March 0", "April -44", "June +2010", "July 2010 extra",
+                "August  2010", " October 2010", "November", "December ", " ", "   ", "X", "May -", "May +",
+                "May 2147483647", "May -2147483648", "May 2147483648", "Mayo 2020", "Ma 2020", "Septembers 2020",
+                "InvalidDate", "2020", "May ٢٠٢٠"
+        };
+        for (String input : inputs) {
+            try {
+                YearMonth expected = DateConversionUtil.parseYearMonth(input);
+                assertEquals(expected, YearMonthParser.parse(input), "Mismatch for input '" + input + "'");
+            } catch (DateTimeException e) {
+                assertThrows(DateTimeException.class, () -> YearMonthParser.parse(input), "Mismatch for input '" + input + "'");
+            }
+        }
+    }
+}
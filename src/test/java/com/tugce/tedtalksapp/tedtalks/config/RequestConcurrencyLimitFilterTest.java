@@ -0,0 +1,84 @@
+package com.tugce.tedtalksapp.tedtalks.config;
+
+import com.tugce.tedtalksapp.tedtalks.common.BoundedTaskExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "tedtalks.threads.mode=bounded",
+        "tedtalks.api.max-concurrent-requests=1",
+        "tedtalks.api.request-permit-timeout=50ms"
+})
+@ActiveProfiles("test")
+class RequestConcurrencyLimitFilterTest {
+
+    private final RequestConcurrencyLimitFilter filter;
+    private final TaskExecutor importExecutor;
+
+    @Autowired
+    public RequestConcurrencyLimitFilterTest(RequestConcurrencyLimitFilter filter,
+                                             @Qualifier(ImportExecutorConfig.IMPORT_EXECUTOR) TaskExecutor importExecutor) {
+        this.filter = filter;
+        this.importExecutor = importExecutor;
+    }
+
+    @Test
+    void testBoundedModeRunsImportJobsOnBoundedExecutor() {
+        assertInstanceOf(BoundedTaskExecutor.class, importExecutor);
+    }
+
+    @Test
+    void testDoFilter_rejectsRequestsBeyondTheLimit() throws Exception {
+        // Arrange: the only permit is held by a request that waits until it is released
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/tedtalks"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            holding.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockHttpServletResponse notLimited = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tedtalks"), rejected, (request, response) -> { });
+        filter.doFilter(new MockHttpServletRequest("GET", "/h2-console"), notLimited, (request, response) -> { });
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.OK.value(), notLimited.getStatus());
+
+        // A finished request frees its permit
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tedtalks"), next, (request, response) -> { });
+        assertEquals(HttpStatus.OK.value(), next.getStatus());
+    }
+}
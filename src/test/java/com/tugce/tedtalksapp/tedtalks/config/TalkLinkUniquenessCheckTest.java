@@ -0,0 +1,55 @@
+package com.tugce.tedtalksapp.tedtalks.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TalkLinkUniquenessCheckTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // A table from before the unique link index, in a database of its own
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:link-check", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void testVerify_passesWithoutTable() {
+        assertDoesNotThrow(() -> new TalkLinkUniquenessCheck(jdbcTemplate).verify());
+    }
+
+    @Test
+    void testVerify_failsOnDuplicateLinks() {
+        // Arrange
+        jdbcTemplate.execute("CREATE TABLE ted_talk_entity (id BIGINT PRIMARY KEY, link VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO ted_talk_entity VALUES (1, 'link1'), (2, 'link1'), (3, 'link2'), (4, NULL), (5, NULL)");
+        TalkLinkUniquenessCheck check = new TalkLinkUniquenessCheck(jdbcTemplate);
+
+        // Act
+        IllegalStateException exception = assertThrows(IllegalStateException.class, check::verify);
+
+        // Assert
+        assertTrue(exception.getMessage().startsWith("1 links occur more than once in ted_talk_entity, e.g. [link1]"),
+                exception.getMessage());
+
+        // Once the duplicate is gone, startup may go ahead
+        jdbcTemplate.update("DELETE FROM ted_talk_entity WHERE id = 1");
+        assertDoesNotThrow(check::verify);
+    }
+}
@@ -1,7 +1,10 @@
 package com.tugce.tedtalksapp.tedtalks.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.tugce.tedtalksapp.tedtalks.model.ImportJob;
+import com.tugce.tedtalksapp.tedtalks.model.ImportStatus;
 import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
-import com.tugce.tedtalksapp.tedtalks.service.TedTalkProcessingService;
+import com.tugce.tedtalksapp.tedtalks.service.ImportJobService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,8 +14,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
@@ -24,7 +33,7 @@ class TedTalkFileControllerTest {
 
     private final WebApplicationContext webApplicationContext;
     private final TedTalkRepository repository;
-    private final TedTalkProcessingService processingService;
+    private final ImportJobService importJobService;
 
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
@@ -33,10 +42,10 @@ class TedTalkFileControllerTest {
     @Autowired
     public TedTalkFileControllerTest(WebApplicationContext webApplicationContext,
                                      TedTalkRepository repository,
-                                     TedTalkProcessingService processingService) {
+                                     ImportJobService importJobService) {
         this.webApplicationContext = webApplicationContext;
         this.repository = repository;
-        this.processingService = processingService;
+        this.importJobService = importJobService;
     }
 
 
@@ -64,12 +73,16 @@ class TedTalkFileControllerTest {
         );
 
         // Act & Assert
-        mockMvc.perform(multipart("/api/tedtalks/upload").file(file))
-                .andExpect(status().isOk())
-                .andExpect(content().string("CSV file processed and saved successfully."));
+        String jobId = uploadAndAwait(file);
 
         // Verify data is saved in the repository
         assertEquals(2, repository.findAll().size());
+        mockMvc.perform(get("/api/tedtalks/imports/" + jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.rowsParsed").value(2))
+                .andExpect(jsonPath("$.rowsPersisted").value(2))
+                .andExpect(jsonPath("$.rowsFailed").value(0));
     }
 
     @Test
@@ -89,9 +102,7 @@ class TedTalkFileControllerTest {
         );
 
         // Act & Assert
-        mockMvc.perform(multipart("/api/tedtalks/upload").file(file))
-                .andExpect(status().isOk())
-                .andExpect(content().string("CSV file processed and saved successfully."));
+        uploadAndAwait(file);
 
         // Verify fallback data is saved
         assertEquals(2, repository.findAll().size());
@@ -109,10 +120,147 @@ class TedTalkFileControllerTest {
 
         // Act & Assert
         mockMvc.perform(multipart("/api/tedtalks/upload").file(file))
-                .andExpect(status().isInternalServerError())
-                .andExpect(content().string("Failed to process and save the CSV file."));
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("CSV file is empty"));
 
         // Verify no data is saved
         assertEquals(0, repository.findAll().size());
     }
+
+    @Test
+    void testUploadCsvWithInvalidHeadersFailsJob() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "bad_headers.csv",
+                "text/csv",
+                "name,speaker\nTalk 1,Author 1\n".getBytes()
+        );
+
+        // Act
+        String jobId = uploadAndAwait(file);
+
+        // Assert
+        assertEquals(ImportStatus.FAILED, importJobService.getJob(jobId).orElseThrow().getStatus());
+        assertEquals(0, repository.findAll().size());
+    }
+
+    @Test
+    void testGetUnknownImportJob() throws Exception {
+        mockMvc.perform(get("/api/tedtalks/imports/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUploadCsvInLenientModeQuarantinesBadRows() throws Exception {
+        // Arrange
+        String csvContent = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,January 2022,1000,500,http://example.com/talk1
+                Talk 2
+                """;
+        MockMultipartFile file = new MockMultipartFile("file", "tedtalks.csv", "text/csv", csvContent.getBytes());
+
+        // Act
+        String response = mockMvc.perform(multipart("/api/tedtalks/upload").file(file).param("lenient", "true"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(response).get("id").asText();
+        awaitJob(jobId);
+
+        // Assert
+        assertEquals(1, repository.findAll().size());
+        mockMvc.perform(get("/api/tedtalks/imports/" + jobId))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.rowsPersisted").value(1))
+                .andExpect(jsonPath("$.rowsFailed").value(1))
+                .andExpect(jsonPath("$.rejectedRowsUrl").value(
+                        org.hamcrest.Matchers.endsWith("/api/tedtalks/imports/" + jobId + "/rejected-rows")));
+        mockMvc.perform(get("/api/tedtalks/imports/" + jobId + "/rejected-rows"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("\"3\",\"Expected 6 columns but found 1\"")));
+    }
+
+    @Test
+    void testResumableUploadContinuesFromReceivedOffset() throws Exception {
+        // Arrange
+        byte[] csvContent = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,January 2022,1000,500,http://example.com/talk1
+                Talk 2,Author 2,February 2023,2000,1000,http://example.com/talk2
+                """.getBytes();
+        int split = 50;
+        String session = mockMvc.perform(post("/api/tedtalks/uploads").param("fileName", "tedtalks.csv"))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        String uploadId = objectMapper.readTree(session).get("id").asText();
+
+        // Act
+        mockMvc.perform(put("/api/tedtalks/uploads/" + uploadId).param("offset", "0")
+                        .content(Arrays.copyOfRange(csvContent, 0, split)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receivedBytes").value(split));
+        mockMvc.perform(put("/api/tedtalks/uploads/" + uploadId).param("offset", "0")
+                        .content(Arrays.copyOfRange(csvContent, split, csvContent.length)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.receivedBytes").value(split));
+        mockMvc.perform(put("/api/tedtalks/uploads/" + uploadId).param("offset", String.valueOf(split))
+                        .content(Arrays.copyOfRange(csvContent, split, csvContent.length)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receivedBytes").value(csvContent.length));
+        String response = mockMvc.perform(post("/api/tedtalks/uploads/" + uploadId + "/complete"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(response).get("id").asText();
+        awaitJob(jobId);
+
+        // Assert
+        assertEquals(ImportStatus.COMPLETED, importJobService.getJob(jobId).orElseThrow().getStatus());
+        assertEquals(2, repository.findAll().size());
+        mockMvc.perform(get("/api/tedtalks/uploads/" + uploadId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testRetryOfCompletedImportIsRejected() throws Exception {
+        // Arrange
+        String csvContent = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,January 2022,1000,500,http://example.com/talk1
+                """;
+        String jobId = uploadAndAwait(new MockMultipartFile("file", "tedtalks.csv", "text/csv", csvContent.getBytes()));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/tedtalks/imports/" + jobId + "/retry"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/tedtalks/imports/unknown/retry"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testLocalImportIsRejectedWhenNoDirectoryIsConfigured() throws Exception {
+        mockMvc.perform(post("/api/tedtalks/admin/imports/local").param("path", "talks.csv"))
+                .andExpect(status().isForbidden());
+    }
+
+    private String uploadAndAwait(MockMultipartFile file) throws Exception {
+        String response = mockMvc.perform(multipart("/api/tedtalks/upload").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.id").exists())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode body = objectMapper.readTree(response);
+        String jobId = body.get("id").asText();
+        awaitJob(jobId);
+        return jobId;
+    }
+
+    private void awaitJob(String jobId) throws InterruptedException {
+        ImportJob job = importJobService.getJob(jobId).orElseThrow();
+        for (int attempt = 0; attempt < 200 && !job.isFinished(); attempt++) {
+            Thread.sleep(25);
+        }
+        assertTrue(job.isFinished(), "Import job did not finish in time");
+    }
 }
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -86,6 +87,140 @@ class TedTalkManagementControllerTest {
                 .andExpect(jsonPath("$[1].title").value("Title2"));
     }
 
+    @Test
+    void testGetAllTedTalks_pagesWithCursor() throws Exception {
+        // Arrange
+        repository.save(new TedTalkEntity(null, "Title1", "Author1", YearMonth.of(2021, 1), 1000, 500, "link1")); // 2000
+        repository.save(new TedTalkEntity(null, "Title2", "Author2", YearMonth.of(2023, 2), 100, 10, "link2"));   // 120
+        repository.save(new TedTalkEntity(null, "Title3", "Author3", YearMonth.of(2022, 3), 3000, 0, "link3"));   // 3000
+
+        // Act & Assert
+        String cursor = mockMvc.perform(get("/api/tedtalks").param("sort", "influence").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Title3"))
+                .andExpect(jsonPath("$[1].title").value("Title1"))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+        mockMvc.perform(get("/api/tedtalks").param("sort", "influence").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Title2"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+        mockMvc.perform(get("/api/tedtalks").param("sort", "date").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tedtalks").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tedtalks").param("author", "Author1").param("fromYear", "2021").param("minViews", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Title1"));
+        mockMvc.perform(get("/api/tedtalks").param("fromYear", "2023").param("toYear", "2022"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExportTedTalks() throws Exception {
+        // Arrange
+        repository.save(new TedTalkEntity(null, "Title1", "Author1", YearMonth.of(2022, 1), 1000, 500, "link1"));
+        repository.save(new TedTalkEntity(null, "Title2", "Author2", YearMonth.of(2023, 2), 2000, 1000, "link2"));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/tedtalks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Title1", objectMapper.readTree(lines[0]).get("title").asText());
+        assertEquals("January 2022", objectMapper.readTree(lines[0]).get("date").asText());
+        assertEquals("Title2", objectMapper.readTree(lines[1]).get("title").asText());
+    }
+
+    @Test
+    void testSearchTedTalks() throws Exception {
+        // Arrange
+        repository.save(new TedTalkEntity(null, "Learning to code", "Author1", YearMonth.of(2022, 1), 1000, 500, "link1"));
+        repository.save(new TedTalkEntity(null, "Lessons in learning", "Author2", YearMonth.of(2023, 2), 2000, 1000, "link2"));
+        repository.save(new TedTalkEntity(null, "Something else", "Author3", YearMonth.of(2023, 3), 9000, 0, "link3"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/tedtalks/search").param("q", "learn"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Lessons in learning"))
+                .andExpect(jsonPath("$[1].title").value("Learning to code"));
+        mockMvc.perform(get("/api/tedtalks/search").param("q", "learn").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBulkCreateUpdateAndDelete() throws Exception {
+        // Arrange
+        List<TedTalkDTO> dtos = List.of(
+                new TedTalkDTO("Title1", "Author1", "January 2022", 1000, 500, "link1"),
+                new TedTalkDTO("Title2", "Author2", "February 2022", 2000, 1000, "link2"));
+
+        // Act & Assert
+        String created = mockMvc.perform(post("/api/tedtalks/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[1].status").value(201))
+                .andReturn().getResponse().getContentAsString();
+        long firstId = objectMapper.readTree(created).get(0).get("id").asLong();
+        long secondId = objectMapper.readTree(created).get(1).get("id").asLong();
+
+        mockMvc.perform(put("/api/tedtalks/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\": " + firstId + ", \"talk\": "
+                                + objectMapper.writeValueAsString(new TedTalkDTO("New Title", "Author1", "March 2022", 1, 1, "link1"))
+                                + "}, {\"id\": -1, \"talk\": " + objectMapper.writeValueAsString(dtos.get(1)) + "}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[1].status").value(404));
+        assertEquals("New Title", repository.findById(firstId).orElseThrow().getTitle());
+
+        mockMvc.perform(post("/api/tedtalks/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + secondId + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(204));
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void testPatchTedTalk() throws Exception {
+        // Arrange
+        TedTalkEntity entity = repository.save(new TedTalkEntity(null, "Title", "Author", YearMonth.of(2022, 1), 1000, 500, "link"));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/tedtalks/" + entity.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"views\": 2000, \"date\": \"March 2023\"}"))
+                .andExpect(status().isNoContent());
+        TedTalkEntity patched = repository.findById(entity.getId()).orElseThrow();
+        assertEquals("Title", patched.getTitle());
+        assertEquals(2000, patched.getViews());
+        assertEquals(500, patched.getLikes());
+        assertEquals(YearMonth.of(2023, 3), patched.getDate());
+
+        mockMvc.perform(patch("/api/tedtalks/" + (entity.getId() + 1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"views\": 2000}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/api/tedtalks/" + entity.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetTedTalkById() throws Exception {
         // Arrange
@@ -137,5 +272,39 @@ class TedTalkManagementControllerTest {
         assertEquals(0, repository.findAll().size());
     }
 
+    @Test
+    void testGetMostInfluentialSpeakersWithLimit() throws Exception {
+        // Arrange
+        repository.save(new TedTalkEntity(null, "Title1", "Author1", YearMonth.of(2022, 1), 1000, 500, "link1"));
+        repository.save(new TedTalkEntity(null, "Title2", "Author2", YearMonth.of(2023, 2), 2000, 1000, "link2"));
 
+        // Act & Assert
+        mockMvc.perform(get("/api/tedtalks/influential-speakers").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].Author2").value(4000));
+        mockMvc.perform(get("/api/tedtalks/influential-speakers").param("limit", "1").param("likeWeight", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].Author2").value(2000));
+        mockMvc.perform(get("/api/tedtalks/influential-speakers").param("offset", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetMostInfluentialTedTalksPerYear() throws Exception {
+        // Arrange
+        repository.save(new TedTalkEntity(null, "Title1", "Author1", YearMonth.of(2022, 1), 1000, 500, "link1"));
+        repository.save(new TedTalkEntity(null, "Title2", "Author2", YearMonth.of(2022, 2), 2000, 1000, "link2"));
+        repository.save(new TedTalkEntity(null, "Title3", "Author3", YearMonth.of(2023, 3), 100, 10, "link3"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/tedtalks/most-influential-tedtalks-per-year").param("n", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.2022.length()").value(2))
+                .andExpect(jsonPath("$.2022[0].title").value("Title2"))
+                .andExpect(jsonPath("$.2022[1].title").value("Title1"))
+                .andExpect(jsonPath("$.2023[0].title").value("Title3"));
+        mockMvc.perform(get("/api/tedtalks/most-influential-tedtalks-per-year").param("n", "0"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -8,10 +8,18 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,15 +39,15 @@ class CsvImporterServiceTest {
     }
 
     @Test
-    void testParseCsvWithValidData() throws Exception {
+    void testStreamCsvWithValidData() throws Exception {
         String csvContent = """
                 title,author,date,views,likes,link
                 Talk 1,Author 1,December 2021,1300000,19000,http://example.com/talk1
                 Talk 2,Author 2,February 2022,50000,1000,http://example.com/talk2
                 """;
-        MockMultipartFile file = new MockMultipartFile("file", "data.csv", "text/csv", csvContent.getBytes());
+        List<TedTalkModel> tedTalks = new ArrayList<>();
 
-        List<TedTalkModel> tedTalks = csvImporterService.parseCsv(file);
+        csvImporterService.streamCsv(new ByteArrayInputStream(csvContent.getBytes()), 10, tedTalks::addAll);
 
         assertEquals(2, tedTalks.size());
         TedTalkModel talk1 = tedTalks.get(0);
@@ -52,14 +60,14 @@ class CsvImporterServiceTest {
     }
 
     @Test
-    void testParseCsvWithInvalidNumericData() throws Exception {
+    void testStreamCsvWithInvalidNumericData() throws Exception {
         String csvContent = """
                 title,author,date,views,likes,link
                 Talk 1,Author 1,December 2021,abcd,19000,http://example.com/talk1
                 """;
-        MockMultipartFile file = new MockMultipartFile("file", "data.csv", "text/csv", csvContent.getBytes());
+        List<TedTalkModel> tedTalks = new ArrayList<>();
 
-        List<TedTalkModel> tedTalks = csvImporterService.parseCsv(file);
+        csvImporterService.streamCsv(new ByteArrayInputStream(csvContent.getBytes()), 10, tedTalks::addAll);
 
         assertEquals(1, tedTalks.size());
         TedTalkModel talk = tedTalks.get(0);
@@ -68,14 +76,14 @@ class CsvImporterServiceTest {
     }
 
     @Test
-    void testParseCsvWithInvalidDate() throws Exception {
+    void testStreamCsvWithInvalidDate() throws Exception {
         String csvContent = """
                 title,author,date,views,likes,link
                 Talk 1,Author 1,InvalidDate,1300000,19000,http://example.com/talk1
                 """;
-        MockMultipartFile file = new MockMultipartFile("file", "data.csv", "text/csv", csvContent.getBytes());
+        List<TedTalkModel> tedTalks = new ArrayList<>();
 
-        List<TedTalkModel> tedTalks = csvImporterService.parseCsv(file);
+        csvImporterService.streamCsv(new ByteArrayInputStream(csvContent.getBytes()), 10, tedTalks::addAll);
 
         assertEquals(1, tedTalks.size());
         TedTalkModel talk = tedTalks.get(0);
@@ -85,14 +93,13 @@ class CsvImporterServiceTest {
     }
 
     @Test
-    void testParseCsvWithInvalidHeaders() {
+    void testStreamCsvWithInvalidHeaders() {
         String csvContent = """
                 incorrectHeader1,incorrectHeader2,date,views,likes,link
                 Talk 1,Author 1,December 2021,1300000,19000,http://example.com/talk1
                 """;
-        MockMultipartFile file = new MockMultipartFile("file", "data.csv", "text/csv", csvContent.getBytes());
-
-        CsvParseException exception = assertThrows(CsvParseException.class, () -> csvImporterService.parseCsv(file));
+        CsvParseException exception = assertThrows(CsvParseException.class, () ->
+                csvImporterService.streamCsv(new ByteArrayInputStream(csvContent.getBytes()), 10, chunk -> { }));
 
         // Validate the exact error message
         String expectedMessage = "Invalid CSV headers. Expected: [title, author, date, views, likes, link]";
@@ -100,14 +107,129 @@ class CsvImporterServiceTest {
     }
 
     @Test
-    void testParseCsvWithEmptyFile() {
-        MockMultipartFile file = new MockMultipartFile("file", "data.csv", "text/csv", "".getBytes());
-
-        CsvParseException exception = assertThrows(CsvParseException.class, () -> csvImporterService.parseCsv(file));
+    void testStreamCsvWithEmptyFile() {
+        CsvParseException exception = assertThrows(CsvParseException.class, () ->
+                csvImporterService.streamCsv(new ByteArrayInputStream(new byte[0]), 10, chunk -> { }));
 
         // Validate the exact error message
         String expectedMessage = "CSV file is empty";
         assertEquals(expectedMessage, exception.getMessage());
     }
 
+    @Test
+    void testStreamCsvDeliversFixedSizeChunks() throws Exception {
+        String csvContent = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,December 2021,100,10,http://example.com/talk1
+                Talk 2,Author 2,February 2022,200,20,http://example.com/talk2
+                Talk 3,Author 3,March 2022,300,30,http://example.com/talk3
+                Talk 4,Author 4,April 2022,400,40,http://example.com/talk4
+                Talk 5,Author 5,May 2022,500,50,http://example.com/talk5
+                """;
+        MockMultipartFile file = new MockMultipartFile("file", "data.csv", "text/csv", csvContent.getBytes());
+        List<List<TedTalkModel>> chunks = new ArrayList<>();
+
+        long rowCount = csvImporterService.streamCsv(file.getInputStream(), 2, chunks::add);
+
+        assertEquals(5, rowCount);
+        assertEquals(3, chunks.size());
+        assertEquals(2, chunks.get(0).size());
+        assertEquals(2, chunks.get(1).size());
+        assertEquals(1, chunks.get(2).size());
+        assertEquals("Talk 5", chunks.get(2).get(0).getTitle());
+    }
+
+    @Test
+    void testStreamCsvInflatesGzipContent() throws Exception {
+        // Arrange
+        String csvContent = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,December 2021,100,10,http://example.com/talk1
+                Talk 2,Author 2,February 2022,200,20,http://example.com/talk2
+                """;
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(csvContent.getBytes(StandardCharsets.UTF_8));
+        }
+        List<TedTalkModel> tedTalks = new ArrayList<>();
+
+        // Act
+        long rowCount = csvImporterService.streamCsv(new ByteArrayInputStream(gzipped.toByteArray()), 10, tedTalks::addAll);
+
+        // Assert
+        assertEquals(2, rowCount);
+        assertEquals("Talk 2", tedTalks.get(1).getTitle());
+    }
+
+    @Test
+    void testStreamCsvReadsEachCsvEntryOfZip() throws Exception {
+        // Arrange
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipped)) {
+            addZipEntry(zip, "2021.csv", """
+                    title,author,date,views,likes,link
+                    Talk 1,Author 1,December 2021,100,10,http://example.com/talk1
+                    Talk 2,Author 2,February 2021,200,20,http://example.com/talk2
+                    """);
+            addZipEntry(zip, "README.txt", "not a csv");
+            addZipEntry(zip, "2022/talks.csv", """
+                    title,author,date,views,likes,link
+                    Talk 3,Author 3,March 2022,300,30,http://example.com/talk3
+                    """);
+        }
+        List<TedTalkModel> tedTalks = new ArrayList<>();
+
+        // Act
+        long rowCount = csvImporterService.streamCsv(new ByteArrayInputStream(zipped.toByteArray()), 2, tedTalks::addAll);
+
+        // Assert
+        assertEquals(3, rowCount);
+        assertEquals(List.of("Talk 1", "Talk 2", "Talk 3"), tedTalks.stream().map(TedTalkModel::getTitle).toList());
+    }
+
+    @Test
+    void testStreamCsvReportsZipEntryOfRejectedRow() throws Exception {
+        // Arrange
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipped)) {
+            addZipEntry(zip, "first.csv", """
+                    title,author,date,views,likes,link
+                    Talk 1,Author 1,December 2021,100,10,http://example.com/talk1
+                    """);
+            addZipEntry(zip, "second.csv", """
+                    title,author,date,views,likes,link
+                    Talk 2,Author 2,February 2022,200,20,http://example.com/talk2
+                    Broken row
+                    """);
+        }
+        List<String> rejected = new ArrayList<>();
+
+        // Act
+        long rowCount = csvImporterService.streamCsv(new ByteArrayInputStream(zipped.toByteArray()), 10, chunk -> { },
+                (rowsRead, entryName, lineNumber, row, error) -> rejected.add(rowsRead + "@" + entryName + ":" + lineNumber));
+
+        // Assert
+        assertEquals(2, rowCount);
+        assertEquals(List.of("3@second.csv:3"), rejected);
+    }
+
+    @Test
+    void testStreamCsvWithZipWithoutCsvEntries() throws Exception {
+        // Arrange
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipped)) {
+            addZipEntry(zip, "notes.txt", "nothing to import");
+        }
+
+        // Act & Assert
+        CsvParseException exception = assertThrows(CsvParseException.class, () ->
+                csvImporterService.streamCsv(new ByteArrayInputStream(zipped.toByteArray()), 10, chunk -> { }));
+        assertEquals("No CSV files found in the uploaded archive", exception.getMessage());
+    }
+
+    private static void addZipEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
 }
@@ -0,0 +1,101 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.exception.CsvParseException;
+import com.tugce.tedtalksapp.tedtalks.model.ImportJob;
+import com.tugce.tedtalksapp.tedtalks.model.ImportSummary;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "tedtalks.import.pipeline.enabled=true",
+        "tedtalks.import.chunk-size=100",
+        "tedtalks.import.pipeline.parse-workers=3",
+        "tedtalks.import.pipeline.queue-capacity=2"
+})
+class PipelinedImportServiceTest {
+
+    private final TedTalkRepository repository;
+    private final TedTalkProcessingService processingService;
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    public PipelinedImportServiceTest(TedTalkRepository repository, TedTalkProcessingService processingService) {
+        this.repository = repository;
+        this.processingService = processingService;
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll(); // Clear repository before each test
+    }
+
+    @Test
+    void testImportCsv_persistsAllRowsAndReportsStageTimings() throws Exception {
+        // Arrange
+        StringBuilder csv = new StringBuilder("title,author,date,views,likes,link\n");
+        for (int i = 0; i < 1050; i++) {
+            csv.append("Talk ").append(i).append(",Author ").append(i % 7).append(",May 2020,")
+                    .append(i).append(',').append(i * 2).append(",http://example.com/talk").append(i).append('\n');
+        }
+        ImportJob job = new ImportJob("talks.csv");
+
+        // Act
+        ImportSummary summary = importCsv(csv.toString(), job);
+
+        // Assert
+        assertEquals(1050, summary.getRowsImported());
+        assertEquals(1050, repository.count());
+        assertEquals(1050, job.getRowsParsed());
+        assertEquals(1050, job.getRowsPersisted());
+        Map<String, Long> timings = job.getStageTimings();
+        assertTrue(timings.keySet().containsAll(List.of("read", "parse", "write", "write.idle")),
+                "Expected timings for every stage but got " + timings.keySet());
+    }
+
+    @Test
+    void testImportCsv_propagatesRowFailureWithoutHanging() {
+        // Arrange
+        String csv = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,January 2022,1000,500,http://example.com/talk1
+                Talk 2,Author 2
+                """;
+        ImportJob job = new ImportJob("broken.csv");
+
+        // Act & Assert
+        CsvParseException exception = assertThrows(CsvParseException.class,
+                () -> importCsv(csv, job));
+        assertTrue(exception.getMessage().startsWith("Error processing row"));
+    }
+
+    @Test
+    void testImportCsv_withEmptyFile() {
+        ImportJob job = new ImportJob("empty.csv");
+
+        CsvParseException exception = assertThrows(CsvParseException.class,
+                () -> importCsv("", job));
+
+        assertEquals("CSV file is empty", exception.getMessage());
+        assertEquals(0, repository.count());
+    }
+
+    private ImportSummary importCsv(String csv, ImportJob job) throws IOException {
+        Path file = Files.createTempFile(tempDir, "talks-", ".csv");
+        Files.writeString(file, csv);
+        return processingService.processFile(file, job);
+    }
+}
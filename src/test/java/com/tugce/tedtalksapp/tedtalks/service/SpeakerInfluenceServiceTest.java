@@ -0,0 +1,106 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.repository.SpeakerInfluenceRepository;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SpeakerInfluenceServiceTest {
+
+    private final TedTalkRepository repository;
+    private final SpeakerInfluenceRepository summaryRepository;
+    private final TedTalkManagementService managementService;
+    private final TedTalkPersistenceService persistenceService;
+    private final SpeakerInfluenceService speakerInfluenceService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SpeakerInfluenceServiceTest(TedTalkRepository repository,
+                                       SpeakerInfluenceRepository summaryRepository,
+                                       TedTalkManagementService managementService,
+                                       TedTalkPersistenceService persistenceService,
+                                       SpeakerInfluenceService speakerInfluenceService,
+                                       JdbcTemplate jdbcTemplate) {
+        this.repository = repository;
+        this.summaryRepository = summaryRepository;
+        this.managementService = managementService;
+        this.persistenceService = persistenceService;
+        this.speakerInfluenceService = speakerInfluenceService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll(); // Clear repository before each test
+    }
+
+    @Test
+    void testSummaryFollowsCreateUpdateAndDelete() {
+        // Arrange
+        managementService.createTedTalk(new TedTalkModel("Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1"));
+        managementService.createTedTalk(new TedTalkModel("Talk 2", "Author 1", YearMonth.of(2022, 2), 2000, 300, "link2"));
+        Long secondId = repository.findAll().stream().filter(talk -> "link2".equals(talk.getLink())).findFirst().orElseThrow().getId();
+
+        // Act
+        managementService.updateTedTalk(secondId, new TedTalkModel("Talk 2", "Author 2", YearMonth.of(2022, 2), 4000, 100, "link2"));
+
+        // Assert
+        assertEquals(List.of(Map.entry("Author 2", 4200L), Map.entry("Author 1", 2000L)),
+                speakerInfluenceService.findTopSpeakers(TedTalkManagementService.DEFAULT_LIKE_WEIGHT, 10, 0));
+
+        // Act
+        managementService.deleteTedTalk(secondId);
+
+        // Assert
+        assertEquals(List.of(Map.entry("Author 1", 2000L)), speakerInfluenceService.findTopSpeakers(TedTalkManagementService.DEFAULT_LIKE_WEIGHT, 10, 0));
+        assertFalse(summaryRepository.existsById("Author 2"));
+    }
+
+    @Test
+    void testUpsertImportReplacesPreviousContribution() {
+        // Arrange
+        persistenceService.saveAll(List.of(
+                new TedTalkModel("Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1"),
+                new TedTalkModel("Talk 2", "Author 2", YearMonth.of(2022, 2), 2000, 300, "link2")));
+
+        // Act
+        persistenceService.saveAll(List.of(
+                new TedTalkModel("Talk 1", "Author 2", YearMonth.of(2022, 1), 100, 50, "link1"),
+                new TedTalkModel("Talk 3", "Author 3", YearMonth.of(2022, 3), 10, 0, "link3"),
+                new TedTalkModel("Talk 3", "Author 3", YearMonth.of(2022, 3), 30, 0, "link3")), true, rows -> { });
+
+        // Assert
+        assertEquals(List.of(Map.entry("Author 2", 2800L), Map.entry("Author 3", 30L)),
+                speakerInfluenceService.findTopSpeakers(TedTalkManagementService.DEFAULT_LIKE_WEIGHT, 10, 0));
+        assertEquals(2, summaryRepository.findById("Author 2").orElseThrow().getTalkCount());
+        assertFalse(summaryRepository.existsById("Author 1"));
+    }
+
+    @Test
+    void testRebuildRepairsDrift() {
+        // Arrange
+        managementService.createTedTalk(new TedTalkModel("Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1"));
+        jdbcTemplate.update("UPDATE speaker_influence SET influence = 1, total_views = 1");
+        jdbcTemplate.update("INSERT INTO speaker_influence (author, total_views, total_likes, talk_count, influence) VALUES ('Ghost', 5, 5, 1, 15)");
+
+        // Act
+        int speakers = speakerInfluenceService.rebuild();
+
+        // Assert
+        assertEquals(1, speakers);
+        assertEquals(List.of(Map.entry("Author 1", 2000L)), speakerInfluenceService.findTopSpeakers(TedTalkManagementService.DEFAULT_LIKE_WEIGHT, 10, 0));
+    }
+}
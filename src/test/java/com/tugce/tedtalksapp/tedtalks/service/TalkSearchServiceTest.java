@@ -0,0 +1,124 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TalkSearchServiceTest {
+
+    private final TedTalkRepository repository;
+    private final TedTalkManagementService managementService;
+    private final TedTalkPersistenceService persistenceService;
+    private final TalkSearchService searchService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TalkSearchServiceTest(TedTalkRepository repository,
+                                 TedTalkManagementService managementService,
+                                 TedTalkPersistenceService persistenceService,
+                                 TalkSearchService searchService,
+                                 JdbcTemplate jdbcTemplate) {
+        this.repository = repository;
+        this.managementService = managementService;
+        this.persistenceService = persistenceService;
+        this.searchService = searchService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll(); // Clear repository before each test
+    }
+
+    @Test
+    void testSearch_matchesWordPrefixesAndRanksByInfluence() {
+        // Arrange
+        managementService.createTedTalk(new TedTalkModel("Do schools kill creativity?", "Ken Robinson", YearMonth.of(2006, 2), 1000, 100, "link1"));
+        managementService.createTedTalk(new TedTalkModel("Bring on the learning revolution!", "Ken Robinson", YearMonth.of(2010, 2), 5000, 100, "link2"));
+        managementService.createTedTalk(new TedTalkModel("The power of vulnerability", "Brené Brown", YearMonth.of(2010, 6), 3000, 0, "link3"));
+
+        // Act & Assert
+        assertEquals(List.of("Bring on the learning revolution!", "Do schools kill creativity?"), titles(searchService.search("robin", 10)));
+        assertEquals(List.of("Do schools kill creativity?"), titles(searchService.search("KEN creat", 10)));
+        assertEquals(List.of("The power of vulnerability"), titles(searchService.search("brene", 10)));
+        assertEquals(List.of("Bring on the learning revolution!"), titles(searchService.search("ken", 1)));
+        assertTrue(searchService.search("ken brown", 10).isEmpty());
+        assertTrue(searchService.search(" ?! ", 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_followsUpdatesDeletesAndImports() {
+        // Arrange
+        TedTalkModel created = managementService.createTedTalk(new TedTalkModel("Old Title", "Author", YearMonth.of(2022, 1), 1000, 500, "link1"));
+        Long id = repository.findAll().get(0).getId();
+
+        // Act
+        managementService.updateTedTalk(id, new TedTalkModel("New Title", created.getAuthor(), created.getDate(), 1000, 500, "link1"));
+
+        // Assert
+        assertTrue(searchService.search("old", 10).isEmpty());
+        assertEquals(List.of("New Title"), titles(searchService.search("new", 10)));
+
+        // Act
+        persistenceService.saveAll(List.of(new TedTalkModel("Imported Talk", "Someone", YearMonth.of(2021, 1), 10, 0, "link2")));
+
+        // Assert
+        assertEquals(List.of("New Title", "Imported Talk"), titles(searchService.search("t", 10)));
+
+        // Act
+        managementService.deleteTedTalk(id);
+
+        // Assert
+        assertEquals(List.of("Imported Talk"), titles(searchService.search("t", 10)));
+    }
+
+    @Test
+    void testSearch_indexesImportedTalksWithoutLink() {
+        // Act
+        persistenceService.saveAll(List.of(new TedTalkModel("Appended Talk", "Someone", YearMonth.of(2021, 1), 10, 0, null)));
+        persistenceService.saveAll(List.of(
+                new TedTalkModel("Upserted Talk", "Someone", YearMonth.of(2021, 1), 20, 0, null),
+                new TedTalkModel("Linked Talk", "Someone", YearMonth.of(2021, 1), 30, 0, "link1")), true, rows -> { });
+
+        // Assert
+        assertEquals(List.of("Linked Talk", "Upserted Talk", "Appended Talk"), titles(searchService.search("someone", 10)));
+    }
+
+    @Test
+    void testRebuild_picksUpWritesMadeBehindTheIndex() {
+        // Arrange: written in plain SQL, as another instance would, so no change event is published
+        jdbcTemplate.update("INSERT INTO ted_talk_entity (title, author, date, views, likes, link) "
+                + "VALUES ('Written Elsewhere', 'Author', '2022-01', 10, 0, 'link1')");
+        assertTrue(searchService.search("elsewhere", 10).isEmpty());
+
+        // Act
+        int indexed = searchService.rebuild();
+
+        // Assert
+        assertEquals(1, indexed);
+        assertEquals(List.of("Written Elsewhere"), titles(searchService.search("elsewhere", 10)));
+    }
+
+    @Test
+    void testTokenize_foldsCaseAndAccents() {
+        // Act & Assert
+        assertEquals(List.of("cafe", "a", "la", "creme", "2024"), TalkSearchService.tokenize("Café à la Crème — 2024"));
+        assertEquals(List.of(), TalkSearchService.tokenize(null));
+    }
+
+    private static List<String> titles(List<TedTalkModel> talks) {
+        return talks.stream().map(TedTalkModel::getTitle).toList();
+    }
+}
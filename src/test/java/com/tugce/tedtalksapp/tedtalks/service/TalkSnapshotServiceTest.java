@@ -0,0 +1,104 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"tedtalks.analytics.snapshot-enabled=true", "tedtalks.analytics.scan-chunk-size=2"})
+@ActiveProfiles("test")
+class TalkSnapshotServiceTest {
+
+    private final TedTalkRepository repository;
+    private final TedTalkManagementService managementService;
+    private final TedTalkPersistenceService persistenceService;
+    private final SpeakerInfluenceService speakerInfluenceService;
+    private final TalkSnapshotService snapshotService;
+
+    @Autowired
+    public TalkSnapshotServiceTest(TedTalkRepository repository,
+                                   TedTalkManagementService managementService,
+                                   TedTalkPersistenceService persistenceService,
+                                   SpeakerInfluenceService speakerInfluenceService,
+                                   TalkSnapshotService snapshotService) {
+        this.repository = repository;
+        this.managementService = managementService;
+        this.persistenceService = persistenceService;
+        this.speakerInfluenceService = speakerInfluenceService;
+        this.snapshotService = snapshotService;
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll(); // Clear repository before each test
+    }
+
+    @Test
+    void testSnapshotRankingsMatchDatabase() {
+        // Arrange
+        persistenceService.saveAll(List.of(
+                new TedTalkModel("Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1"),  // 2000
+                new TedTalkModel("Talk 2", "Author 2", YearMonth.of(2022, 2), 3000, 200, "link2"),  // 3400
+                new TedTalkModel("Talk 3", "Author 3", YearMonth.of(2021, 3), 2500, 300, "link3"),  // 3100
+                new TedTalkModel("Talk 4", "Author 1", YearMonth.of(2021, 4), 2000, 400, "link4"),  // 2800
+                new TedTalkModel("Talk 5", "Author 2", YearMonth.of(2021, 5), 3100, 0, "link5"))); // 3100
+        snapshotService.refresh().join();
+
+        // Act
+        List<Map.Entry<String, Long>> speakers = managementService.findMostInfluentialSpeakers(10, 0);
+        Map<Integer, List<TedTalkModel>> perYear = managementService.findMostInfluentialTedTalksPerYear(2);
+
+        // Assert
+        assertEquals(speakerInfluenceService.findTopSpeakers(TedTalkManagementService.DEFAULT_LIKE_WEIGHT, 10, 0), speakers);
+        assertEquals(List.of(Map.entry("Author 2", 6500L)), managementService.findMostInfluentialSpeakers(1, 0));
+        assertEquals(List.of(2021, 2022), List.copyOf(perYear.keySet()));
+        // Equal influence is broken by id, as in the database ranking
+        assertEquals(List.of("Talk 3", "Talk 5"), perYear.get(2021).stream().map(TedTalkModel::getTitle).toList());
+        assertEquals(List.of("Talk 2", "Talk 1"), perYear.get(2022).stream().map(TedTalkModel::getTitle).toList());
+        assertEquals(YearMonth.of(2022, 2), perYear.get(2022).get(0).getDate());
+    }
+
+    @Test
+    void testSnapshotRefreshesAfterWrites() {
+        // Arrange
+        TedTalkEntity entity = repository.save(new TedTalkEntity(null, "Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1"));
+        snapshotService.refresh().join();
+        assertEquals(List.of(Map.entry("Author 1", 2000L)), managementService.findMostInfluentialSpeakers(10, 0));
+
+        // Act
+        managementService.updateTedTalk(entity.getId(), new TedTalkModel("Talk 1", "Author 2", YearMonth.of(2022, 1), 10, 0, "link1"));
+
+        // Assert: the stale snapshot answers while the rebuild runs in the background
+        assertEquals(List.of(Map.entry("Author 1", 2000L)), managementService.findMostInfluentialSpeakers(10, 0));
+        snapshotService.refresh().join();
+        assertEquals(List.of(Map.entry("Author 2", 10L)), managementService.findMostInfluentialSpeakers(10, 0));
+    }
+
+    @Test
+    void testStaleSnapshotRankingsAreNotCached() {
+        // Arrange
+        TedTalkEntity entity = repository.save(new TedTalkEntity(null, "Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1"));
+        snapshotService.refresh().join();
+        managementService.updateTedTalk(entity.getId(), new TedTalkModel("Talk 1", "Author 2", YearMonth.of(2022, 1), 10, 0, "link1"));
+        long likeWeight = TedTalkManagementService.DEFAULT_LIKE_WEIGHT;
+        assertEquals(List.of(Map.entry("Author 1", 2000L)), managementService.findMostInfluentialSpeakers(likeWeight, 10, 0));
+        managementService.findMostInfluentialTedTalksPerYear(likeWeight, 1); // stale unless the rebuild has finished
+
+        // Act
+        snapshotService.refresh().join();
+
+        // Assert
+        assertEquals(List.of(Map.entry("Author 2", 10L)), managementService.findMostInfluentialSpeakers(likeWeight, 10, 0));
+        assertEquals("Author 2", managementService.findMostInfluentialTedTalksPerYear(likeWeight, 1).get(2022).get(0).getAuthor());
+    }
+}
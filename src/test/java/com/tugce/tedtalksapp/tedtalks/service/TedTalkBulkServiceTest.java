@@ -0,0 +1,166 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.config.ApiProperties;
+import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.model.BulkItemResult;
+import com.tugce.tedtalksapp.tedtalks.model.BulkItemResult.Outcome;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkPurgeFilter;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TedTalkBulkServiceTest {
+
+    private final TedTalkRepository repository;
+    private final TedTalkBulkService bulkService;
+    private final TedTalkManagementService managementService;
+    private final TalkSearchService searchService;
+    private final ApiProperties apiProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private int defaultChunkSize;
+
+    @Autowired
+    public TedTalkBulkServiceTest(TedTalkRepository repository,
+                                  TedTalkBulkService bulkService,
+                                  TedTalkManagementService managementService,
+                                  TalkSearchService searchService,
+                                  ApiProperties apiProperties,
+                                  JdbcTemplate jdbcTemplate) {
+        this.repository = repository;
+        this.bulkService = bulkService;
+        this.managementService = managementService;
+        this.searchService = searchService;
+        this.apiProperties = apiProperties;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll(); // Clear repository before each test
+        jdbcTemplate.update("DELETE FROM ted_talk_archive");
+        defaultChunkSize = apiProperties.getBulkChunkSize();
+        apiProperties.setBulkChunkSize(2); // Spread the requests over several chunks
+    }
+
+    @AfterEach
+    void tearDown() {
+        apiProperties.setBulkChunkSize(defaultChunkSize);
+    }
+
+    @Test
+    void testCreateAll_returnsIdsAndRejectsOnlyDuplicates() {
+        // Arrange
+        repository.save(new TedTalkEntity(null, "Existing", "Author 1", YearMonth.of(2020, 1), 10, 0, "link0"));
+
+        // Act
+        List<BulkItemResult> results = bulkService.createAll(List.of(
+                new TedTalkModel("Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1"),
+                new TedTalkModel("Talk 2", "Author 2", YearMonth.of(2022, 2), 2000, 0, "link2"),
+                new TedTalkModel("Duplicate", "Author 2", YearMonth.of(2022, 3), 3000, 0, "link0")));
+
+        // Assert
+        assertEquals(List.of(Outcome.CREATED, Outcome.CREATED, Outcome.CONFLICT), results.stream().map(BulkItemResult::outcome).toList());
+        assertEquals(List.of(0, 1, 2), results.stream().map(BulkItemResult::index).toList());
+        assertEquals("Talk 2", repository.findById(results.get(1).id()).orElseThrow().getTitle());
+        assertEquals(3, repository.count());
+        assertEquals(List.of(Map.entry("Author 1", 2010L), Map.entry("Author 2", 2000L)),
+                managementService.findMostInfluentialSpeakers(10, 0));
+    }
+
+    @Test
+    void testUpdateAllAndDeleteAll_reportMissingIds() {
+        // Arrange
+        Long first = repository.save(new TedTalkEntity(null, "Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1")).getId();
+        Long second = repository.save(new TedTalkEntity(null, "Talk 2", "Author 2", YearMonth.of(2022, 2), 2000, 0, "link2")).getId();
+        managementService.getTedTalkById(first); // Cache the talk so that the update must evict it
+
+        // Act
+        List<BulkItemResult> updated = bulkService.updateAll(List.of(
+                Map.entry(first, new TedTalkModel("New Title", "Author 2", YearMonth.of(2022, 1), 1000, 500, "link1")),
+                Map.entry(-1L, new TedTalkModel("Missing", "Author 3", YearMonth.of(2022, 1), 1, 1, "link3"))));
+
+        // Assert
+        assertEquals(List.of(Outcome.UPDATED, Outcome.NOT_FOUND), updated.stream().map(BulkItemResult::outcome).toList());
+        assertEquals("New Title", managementService.getTedTalkById(first).getTitle());
+        assertEquals(List.of(Map.entry("Author 2", 4000L)), managementService.findMostInfluentialSpeakers(10, 0));
+
+        // Act
+        List<BulkItemResult> deleted = bulkService.deleteAll(List.of(second, -1L, second));
+
+        // Assert
+        assertEquals(List.of(Outcome.DELETED, Outcome.NOT_FOUND, Outcome.NOT_FOUND), deleted.stream().map(BulkItemResult::outcome).toList());
+        assertEquals(List.of(first), repository.findAll().stream().map(TedTalkEntity::getId).toList());
+        assertEquals(List.of(Map.entry("Author 2", 2000L)), managementService.findMostInfluentialSpeakers(10, 0));
+    }
+
+    @Test
+    void testCreateAll_rejectsOversizedRequests() {
+        // Arrange
+        int defaultMaxBulkSize = apiProperties.getMaxBulkSize();
+        apiProperties.setMaxBulkSize(1);
+
+        // Act & Assert
+        try {
+            assertThrows(IllegalArgumentException.class, () -> bulkService.createAll(List.of(
+                    new TedTalkModel("Talk 1", "Author 1", YearMonth.of(2022, 1), 1, 1, "link1"),
+                    new TedTalkModel("Talk 2", "Author 1", YearMonth.of(2022, 1), 1, 1, "link2"))));
+        } finally {
+            apiProperties.setMaxBulkSize(defaultMaxBulkSize);
+        }
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void testPurge_archivesAndDeletesMatchingTalks() {
+        // Arrange
+        Long kept = repository.save(new TedTalkEntity(null, "Talk 1", "Author 1", YearMonth.of(2019, 12), 1000, 0, "link1")).getId();
+        Long purged = repository.save(new TedTalkEntity(null, "Talk 2", "Author 1", YearMonth.of(2020, 1), 2000, 0, "link2")).getId();
+        repository.save(new TedTalkEntity(null, "Talk 3", "Author 1", YearMonth.of(2021, 12), 3000, 0, "link3"));
+        repository.save(new TedTalkEntity(null, "Talk 4", "Author 2", YearMonth.of(2020, 6), 4000, 0, "link4"));
+        managementService.getTedTalkById(purged); // Cache the talk so that the purge must evict it
+
+        // Act
+        int deleted = bulkService.purge(new TedTalkPurgeFilter("Author 1", 2020, 2021, null), true);
+
+        // Assert
+        assertEquals(2, deleted);
+        assertEquals(List.of("link1", "link4"), repository.findAll().stream().map(TedTalkEntity::getLink).sorted().toList());
+        assertEquals(List.of("link2", "link3"),
+                jdbcTemplate.queryForList("SELECT link FROM ted_talk_archive ORDER BY link", String.class));
+        assertEquals(purged, jdbcTemplate.queryForObject("SELECT id FROM ted_talk_archive WHERE link = 'link2'", Long.class));
+        assertEquals(List.of(Map.entry("Author 2", 4000L), Map.entry("Author 1", 1000L)),
+                managementService.findMostInfluentialSpeakers(10, 0));
+        assertThrows(RuntimeException.class, () -> managementService.getTedTalkById(purged));
+        assertEquals(List.of("Talk 1"), searchService.search("author 1", 10).stream().map(TedTalkModel::getTitle).toList());
+
+        // Act
+        int deletedByLink = bulkService.purge(new TedTalkPurgeFilter(null, null, null, List.of("link4", "missing")), false);
+
+        // Assert
+        assertEquals(1, deletedByLink);
+        assertEquals(List.of(kept), repository.findAll().stream().map(TedTalkEntity::getId).toList());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ted_talk_archive", Integer.class));
+        assertEquals(List.of(Map.entry("Author 1", 1000L)), managementService.findMostInfluentialSpeakers(10, 0));
+    }
+
+    @Test
+    void testPurge_requiresAFilter() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bulkService.purge(new TedTalkPurgeFilter(null, null, null, null), false));
+        assertThrows(IllegalArgumentException.class, () -> bulkService.purge(new TedTalkPurgeFilter(null, 2021, 2020, null), false));
+    }
+}
@@ -0,0 +1,93 @@
+package com.tugce.tedtalksapp.tedtalks.service;
+
+import com.tugce.tedtalksapp.tedtalks.config.CacheConfig;
+import com.tugce.tedtalksapp.tedtalks.dto.CacheStatsDTO;
+import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TedTalkCacheServiceTest {
+
+    private final TedTalkRepository repository;
+    private final TedTalkManagementService managementService;
+    private final TedTalkPersistenceService persistenceService;
+    private final TedTalkCacheService cacheService;
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public TedTalkCacheServiceTest(TedTalkRepository repository,
+                                   TedTalkManagementService managementService,
+                                   TedTalkPersistenceService persistenceService,
+                                   TedTalkCacheService cacheService,
+                                   CacheManager cacheManager) {
+        this.repository = repository;
+        this.managementService = managementService;
+        this.persistenceService = persistenceService;
+        this.cacheService = cacheService;
+        this.cacheManager = cacheManager;
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll(); // Clear repository before each test
+    }
+
+    @Test
+    void testGetTedTalkById_isCachedUntilUpdated() {
+        // Arrange
+        TedTalkEntity entity = repository.save(new TedTalkEntity(null, "Title", "Author", YearMonth.of(2022, 1), 1000, 500, "link"));
+        long hitsBefore = stats(CacheConfig.TED_TALKS).getHits();
+
+        // Act
+        managementService.getTedTalkById(entity.getId());
+        managementService.getTedTalkById(entity.getId());
+
+        // Assert
+        assertEquals(hitsBefore + 1, stats(CacheConfig.TED_TALKS).getHits());
+        assertNotNull(cacheManager.getCache(CacheConfig.TED_TALKS).get(entity.getId()));
+
+        // Act
+        managementService.updateTedTalk(entity.getId(), new TedTalkModel("New Title", "Author", YearMonth.of(2022, 1), 1000, 500, "link"));
+
+        // Assert
+        assertNull(cacheManager.getCache(CacheConfig.TED_TALKS).get(entity.getId()));
+        assertEquals("New Title", managementService.getTedTalkById(entity.getId()).getTitle());
+    }
+
+    @Test
+    void testRankingsAreInvalidatedByImports() {
+        // Arrange
+        persistenceService.saveAll(List.of(new TedTalkModel("Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1")));
+        assertEquals(List.of(Map.entry("Author 1", 2000L)), managementService.findMostInfluentialSpeakers(10, 0));
+        assertEquals(1, managementService.findMostInfluentialTedTalksPerYear(1).size());
+
+        // Act
+        persistenceService.saveAll(List.of(new TedTalkModel("Talk 2", "Author 2", YearMonth.of(2021, 1), 5000, 0, "link2")));
+
+        // Assert
+        assertEquals(List.of(Map.entry("Author 2", 5000L), Map.entry("Author 1", 2000L)),
+                managementService.findMostInfluentialSpeakers(10, 0));
+        assertEquals(2, managementService.findMostInfluentialTedTalksPerYear(1).size());
+    }
+
+    private CacheStatsDTO stats(String name) {
+        return cacheService.getStatistics().stream()
+                .filter(stats -> stats.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -1,7 +1,11 @@
 package com.tugce.tedtalksapp.tedtalks.service;
 
 import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkFilter;
 import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkPage;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkPatch;
+import com.tugce.tedtalksapp.tedtalks.model.TedTalkSort;
 import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,9 +16,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -56,13 +60,13 @@ class TedTalkManagementServiceTest {
     }
 
     @Test
-    void testGetAllTedTalks() {
+    void testGetTedTalkPage_returnsAllTedTalksById() {
         // Arrange
         repository.save(new TedTalkEntity(null, "Title1", "Author1", YearMonth.of(2022, 1), 1000, 500, "link1"));
         repository.save(new TedTalkEntity(null, "Title2", "Author2", YearMonth.of(2023, 2), 2000, 1000, "link2"));
 
         // Act
-        List<TedTalkModel> results = service.getAllTedTalks();
+        List<TedTalkModel> results = service.getTedTalkPage(TedTalkSort.ID, null, 10).talks();
 
         // Assert
         assertEquals(2, results.size());
@@ -100,6 +104,44 @@ class TedTalkManagementServiceTest {
         assertEquals(YearMonth.of(2023, 2), result.getDate());
     }
 
+    @Test
+    void testPatchTedTalk_writesOnlyGivenFields() {
+        // Arrange
+        TedTalkEntity entity = repository.save(new TedTalkEntity(null, "Title", "Author", YearMonth.of(2022, 1), 1000, 500, "link"));
+        service.getTedTalkById(entity.getId()); // Cache the talk so that the patch must evict it
+
+        // Act
+        boolean patched = service.patchTedTalk(entity.getId(), new TedTalkPatch(null, null, null, 5000L, null, null));
+
+        // Assert
+        assertTrue(patched);
+        TedTalkModel result = service.getTedTalkById(entity.getId());
+        assertEquals("Title", result.getTitle());
+        assertEquals(YearMonth.of(2022, 1), result.getDate());
+        assertEquals(5000, result.getViews());
+        assertEquals(500, result.getLikes());
+        assertEquals(List.of(Map.entry("Author", 6000L)), service.findMostInfluentialSpeakers(10, 0));
+
+        // Act
+        service.patchTedTalk(entity.getId(), new TedTalkPatch("New Title", "New Author", null, null, null, null));
+
+        // Assert
+        assertEquals("New Title", service.getTedTalkById(entity.getId()).getTitle());
+        assertEquals(List.of(Map.entry("New Author", 6000L)), service.findMostInfluentialSpeakers(10, 0));
+    }
+
+    @Test
+    void testPatchTedTalk_missingOrEmpty() {
+        // Arrange
+        TedTalkEntity entity = repository.save(new TedTalkEntity(null, "Title", "Author", YearMonth.of(2022, 1), 1000, 500, "link"));
+
+        // Act & Assert
+        assertFalse(service.patchTedTalk(entity.getId() + 1, new TedTalkPatch(null, null, null, 1L, null, null)));
+        assertFalse(service.patchTedTalk(entity.getId() + 1, new TedTalkPatch("Title", null, null, null, null, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.patchTedTalk(entity.getId(), new TedTalkPatch(null, null, null, null, null, null)));
+    }
+
     @Test
     void testDeleteTedTalk() {
         // Arrange
@@ -112,6 +154,97 @@ class TedTalkManagementServiceTest {
         assertFalse(repository.findById(entity.getId()).isPresent());
     }
 
+    @Test
+    void testGetTedTalkPage_walksEverySortWithoutGapsOrDuplicates() {
+        // Arrange
+        for (int i = 1; i <= 7; i++) {
+            // Months and influence repeat, so ties must be broken by id
+            repository.save(new TedTalkEntity(null, "Talk " + i, "Author", YearMonth.of(2020, i % 3 + 1), 100L * (i % 2), 0, "link" + i));
+        }
+
+        for (TedTalkSort sort : TedTalkSort.values()) {
+            // Act
+            List<String> titles = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                TedTalkPage page = service.getTedTalkPage(sort, cursor, 3);
+                page.talks().forEach(talk -> titles.add(talk.getTitle()));
+                cursor = page.nextCursor();
+                pages++;
+            } while (cursor != null);
+
+            // Assert
+            assertEquals(3, pages, sort.name());
+            assertEquals(7, titles.stream().distinct().count(), sort.name());
+        }
+        assertEquals(List.of("Talk 5", "Talk 2"), service.getTedTalkPage(TedTalkSort.DATE, null, 2).talks().stream()
+                .map(TedTalkModel::getTitle).toList()); // Newest month (March), highest id first
+    }
+
+    @Test
+    void testGetTedTalkPage_byDatePutsTalksWithoutDateLast() {
+        // Arrange
+        repository.save(new TedTalkEntity(null, "Talk 1", "Author", null, 0, 0, "link1"));
+        repository.save(new TedTalkEntity(null, "Talk 2", "Author", YearMonth.of(2020, 1), 0, 0, "link2"));
+        repository.save(new TedTalkEntity(null, "Talk 3", "Author", null, 0, 0, "link3"));
+        repository.save(new TedTalkEntity(null, "Talk 4", "Author", YearMonth.of(2021, 1), 0, 0, "link4"));
+        repository.save(new TedTalkEntity(null, "Talk 5", "Author", null, 0, 0, "link5"));
+
+        // Act: pages of two end on a dated and on an undated talk
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            TedTalkPage page = service.getTedTalkPage(TedTalkSort.DATE, cursor, 2);
+            page.talks().forEach(talk -> titles.add(talk.getTitle()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(List.of("Talk 4", "Talk 2", "Talk 5", "Talk 3", "Talk 1"), titles);
+    }
+
+    @Test
+    void testGetTedTalkPage_byInfluenceUsesGeneratedColumn() {
+        // Arrange
+        TedTalkEntity saved = repository.save(new TedTalkEntity(null, "Talk 1", "Author", YearMonth.of(2020, 1), 100, 30, "link1"));
+        repository.save(new TedTalkEntity(null, "Talk 2", "Author", YearMonth.of(2020, 1), 150, 0, "link2"));
+
+        // Act
+        TedTalkPage page = service.getTedTalkPage(TedTalkSort.INFLUENCE, null, 1);
+
+        // Assert
+        assertEquals(160L, repository.findById(saved.getId()).orElseThrow().getInfluence());
+        assertEquals(List.of("Talk 1"), page.talks().stream().map(TedTalkModel::getTitle).toList());
+        assertEquals(List.of("Talk 2"), service.getTedTalkPage(TedTalkSort.INFLUENCE, page.nextCursor(), 1).talks().stream()
+                .map(TedTalkModel::getTitle).toList());
+    }
+
+    @Test
+    void testGetTedTalkPage_withFilter() {
+        // Arrange
+        repository.save(new TedTalkEntity(null, "Talk 1", "Author 1", YearMonth.of(2014, 12), 2_000_000, 0, "link1"));
+        repository.save(new TedTalkEntity(null, "Talk 2", "Author 1", YearMonth.of(2015, 1), 2_000_000, 0, "link2"));
+        repository.save(new TedTalkEntity(null, "Talk 3", "Author 2", YearMonth.of(2017, 6), 500_000, 0, "link3"));
+        repository.save(new TedTalkEntity(null, "Talk 4", "Author 2", YearMonth.of(2019, 12), 1_500_000, 0, "link4"));
+        repository.save(new TedTalkEntity(null, "Talk 5", "Author 2", YearMonth.of(2020, 1), 3_000_000, 0, "link5"));
+
+        // Act
+        TedTalkFilter popularInRange = new TedTalkFilter(null, 2015, 2019, 1_000_000L);
+        TedTalkPage firstPage = service.getTedTalkPage(popularInRange, TedTalkSort.DATE, null, 1);
+        TedTalkPage secondPage = service.getTedTalkPage(popularInRange, TedTalkSort.DATE, firstPage.nextCursor(), 1);
+
+        // Assert
+        assertEquals(List.of("Talk 4"), firstPage.talks().stream().map(TedTalkModel::getTitle).toList());
+        assertEquals(List.of("Talk 2"), secondPage.talks().stream().map(TedTalkModel::getTitle).toList());
+        assertNull(secondPage.nextCursor());
+        assertEquals(List.of("Talk 3", "Talk 4", "Talk 5"), service.getTedTalkPage(
+                new TedTalkFilter("Author 2", null, null, null), TedTalkSort.ID, null, 10).talks().stream()
+                .map(TedTalkModel::getTitle).toList());
+        assertThrows(IllegalArgumentException.class, () -> service.getTedTalkPage(
+                new TedTalkFilter(null, 2019, 2015, null), TedTalkSort.ID, null, 10));
+    }
+
     @Test
     void testFindMostInfluentialSpeakers_withWeightedLikes() {
         // Arrange
@@ -135,7 +268,44 @@ class TedTalkManagementServiceTest {
     }
 
     @Test
-    void testFindMostInfluentialTedTalkPerYear() {
+    void testFindMostInfluentialSpeakers_withLimitAndOffset() {
+        // Arrange
+        repository.save(new TedTalkEntity(null, "Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1")); // 2000
+        repository.save(new TedTalkEntity(null, "Talk 2", "Author 2", YearMonth.of(2022, 2), 2000, 300, "link2")); // 2600
+        repository.save(new TedTalkEntity(null, "Talk 3", "Author 3", YearMonth.of(2021, 3), 3000, 200, "link3")); // 3400
+        repository.save(new TedTalkEntity(null, "Talk 4", "Author 4", YearMonth.of(2021, 4), 100, 10, "link4"));   // 120
+
+        // Act
+        List<Map.Entry<String, Long>> secondPage = service.findMostInfluentialSpeakers(2, 2);
+
+        // Assert
+        assertEquals(List.of(Map.entry("Author 1", 2000L), Map.entry("Author 4", 120L)), secondPage);
+        assertEquals("Author 3", service.findMostInfluentialSpeakers(1, 0).get(0).getKey());
+        assertThrows(IllegalArgumentException.class, () -> service.findMostInfluentialSpeakers(-1, 0));
+    }
+
+    @Test
+    void testFindMostInfluentialSpeakers_withCustomLikeWeight() {
+        // Arrange
+        repository.save(new TedTalkEntity(null, "Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1"));
+        repository.save(new TedTalkEntity(null, "Talk 2", "Author 2", YearMonth.of(2022, 2), 2000, 300, "link2"));
+        repository.save(new TedTalkEntity(null, "Talk 3", "Author 3", YearMonth.of(2021, 3), 100, 1000, "link3"));
+
+        // Act
+        List<Map.Entry<String, Long>> byViews = service.findMostInfluentialSpeakers(0, 10, 0);
+        List<Map.Entry<String, Long>> byLikes = service.findMostInfluentialSpeakers(10, 2, 0);
+
+        // Assert
+        assertEquals(List.of(Map.entry("Author 2", 2000L), Map.entry("Author 1", 1000L), Map.entry("Author 3", 100L)), byViews);
+        assertEquals(List.of(Map.entry("Author 3", 10100L), Map.entry("Author 1", 6000L)), byLikes);
+        assertEquals(List.of(Map.entry("Author 1", 6000L)), service.findMostInfluentialSpeakers(10, 1, 1));
+        assertEquals("Talk 3", service.findMostInfluentialTedTalksPerYear(10, 1).get(2021).get(0).getTitle());
+        assertEquals("Talk 2", service.findMostInfluentialTedTalksPerYear(0, 1).get(2022).get(0).getTitle());
+        assertThrows(IllegalArgumentException.class, () -> service.findMostInfluentialSpeakers(-1, 10, 0));
+    }
+
+    @Test
+    void testFindMostInfluentialTedTalksPerYear() {
         // Arrange
         repository.save(new TedTalkEntity(null, "Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1")); // Influence = 2000
         repository.save(new TedTalkEntity(null, "Talk 2", "Author 2", YearMonth.of(2022, 2), 3000, 200, "link2")); // Influence = 3400
@@ -143,23 +313,57 @@ class TedTalkManagementServiceTest {
         repository.save(new TedTalkEntity(null, "Talk 4", "Author 4", YearMonth.of(2021, 4), 2000, 400, "link4")); // Influence = 2800
 
         // Act
-        Map<Integer, Optional<TedTalkEntity>> result = service.findMostInfluentialTedTalkPerYear();
+        Map<Integer, List<TedTalkModel>> result = service.findMostInfluentialTedTalksPerYear(1);
 
         // Assert
-        assertEquals(2, result.size()); // Two years: 2021 and 2022
+        assertEquals(List.of(2021, 2022), List.copyOf(result.keySet())); // Two years, in ascending order
 
         // Assert for year 2022
-        Optional<TedTalkEntity> mostInfluential2022 = result.get(2022);
-        assertTrue(mostInfluential2022.isPresent());
-        assertEquals("Talk 2", mostInfluential2022.get().getTitle());
-        assertEquals("Author 2", mostInfluential2022.get().getAuthor());
-        assertEquals(3400, mostInfluential2022.get().getViews() + 2 * mostInfluential2022.get().getLikes()); // Influence = 3400
+        List<TedTalkModel> mostInfluential2022 = result.get(2022);
+        assertEquals(1, mostInfluential2022.size());
+        assertEquals("Talk 2", mostInfluential2022.get(0).getTitle());
+        assertEquals("Author 2", mostInfluential2022.get(0).getAuthor());
+        assertEquals(YearMonth.of(2022, 2), mostInfluential2022.get(0).getDate());
+        assertEquals(3400, mostInfluential2022.get(0).getViews() + 2 * mostInfluential2022.get(0).getLikes()); // Influence = 3400
 
         // Assert for year 2021
-        Optional<TedTalkEntity> mostInfluential2021 = result.get(2021);
-        assertTrue(mostInfluential2021.isPresent());
-        assertEquals("Talk 3", mostInfluential2021.get().getTitle());
-        assertEquals("Author 3", mostInfluential2021.get().getAuthor());
-        assertEquals(3100, mostInfluential2021.get().getViews() + 2 * mostInfluential2021.get().getLikes()); // Influence = 3100
+        List<TedTalkModel> mostInfluential2021 = result.get(2021);
+        assertEquals(1, mostInfluential2021.size());
+        assertEquals("Talk 3", mostInfluential2021.get(0).getTitle());
+        assertEquals("Author 3", mostInfluential2021.get(0).getAuthor());
+        assertEquals(3100, mostInfluential2021.get(0).getViews() + 2 * mostInfluential2021.get(0).getLikes()); // Influence = 3100
+    }
+
+    @Test
+    void testFindMostInfluentialTedTalksPerYear_topN() {
+        // Arrange
+        repository.save(new TedTalkEntity(null, "Talk 1", "Author 1", YearMonth.of(2022, 1), 1000, 500, "link1")); // Influence = 2000
+        repository.save(new TedTalkEntity(null, "Talk 2", "Author 2", YearMonth.of(2022, 2), 3000, 200, "link2")); // Influence = 3400
+        repository.save(new TedTalkEntity(null, "Talk 3", "Author 3", YearMonth.of(2022, 3), 2500, 300, "link3")); // Influence = 3100
+        repository.save(new TedTalkEntity(null, "Talk 4", "Author 4", YearMonth.of(2021, 4), 2000, 400, "link4")); // Influence = 2800
+
+        // Act
+        Map<Integer, List<TedTalkModel>> result = service.findMostInfluentialTedTalksPerYear(2);
+
+        // Assert
+        assertEquals(List.of("Talk 2", "Talk 3"), result.get(2022).stream().map(TedTalkModel::getTitle).toList());
+        assertEquals(List.of("Talk 4"), result.get(2021).stream().map(TedTalkModel::getTitle).toList());
+        assertThrows(IllegalArgumentException.class, () -> service.findMostInfluentialTedTalksPerYear(0));
+    }
+
+    @Test
+    void testFindMostInfluentialTedTalksPerYear_withFiveDigitYears() {
+        // Arrange
+        repository.save(new TedTalkEntity(null, "Talk 1", "Author 1", YearMonth.of(10000, 1), 1000, 500, "link1"));
+        repository.save(new TedTalkEntity(null, "Talk 2", "Author 2", YearMonth.of(10001, 2), 3000, 200, "link2"));
+        repository.save(new TedTalkEntity(null, "Talk 3", "Author 3", YearMonth.of(2022, 3), 2500, 300, "link3"));
+
+        // Act
+        Map<Integer, List<TedTalkModel>> result = service.findMostInfluentialTedTalksPerYear(1);
+
+        // Assert
+        assertEquals(List.of(2022, 10000, 10001), List.copyOf(result.keySet()));
+        assertEquals("Talk 1", result.get(10000).get(0).getTitle());
+        assertEquals(YearMonth.of(10001, 2), result.get(10001).get(0).getDate());
     }
 }
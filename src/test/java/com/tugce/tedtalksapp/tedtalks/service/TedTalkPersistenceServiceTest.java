@@ -2,6 +2,7 @@ package com.tugce.tedtalksapp.tedtalks.service;
 
 import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
 import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
+import com.tugce.tedtalksapp.tedtalks.repository.TedTalkJdbcRepository;
 import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,11 +19,15 @@ class TedTalkPersistenceServiceTest {
 
     private final TedTalkRepository repository;
     private final TedTalkPersistenceService persistenceService;
+    private final TedTalkJdbcRepository jdbcRepository;
 
     @Autowired
-    public TedTalkPersistenceServiceTest(TedTalkRepository repository, TedTalkPersistenceService persistenceService) {
+    public TedTalkPersistenceServiceTest(TedTalkRepository repository,
+                                         TedTalkPersistenceService persistenceService,
+                                         TedTalkJdbcRepository jdbcRepository) {
         this.repository = repository;
         this.persistenceService = persistenceService;
+        this.jdbcRepository = jdbcRepository;
     }
 
     @BeforeEach
@@ -97,4 +102,53 @@ class TedTalkPersistenceServiceTest {
         assertEquals(0, entity.getLikes());
         assertNull(entity.getLink());
     }
+
+    @Test
+    void testBatchInsert_sendsMultiRowBatchesToDriver() {
+        // Arrange
+        List<TedTalkModel> models = List.of(
+                new TedTalkModel("Title1", "Author1", YearMonth.of(2022, 1), 1, 1, "link1"),
+                new TedTalkModel("Title2", "Author2", YearMonth.of(2022, 2), 2, 2, "link2"),
+                new TedTalkModel("Title3", "Author3", YearMonth.of(2022, 3), 3, 3, "link3"),
+                new TedTalkModel("Title4", "Author4", YearMonth.of(2022, 4), 4, 4, "link4"),
+                new TedTalkModel("Title5", "Author5", YearMonth.of(2022, 5), 5, 5, "link5")
+        );
+
+        // Act
+        int[][] updateCounts = jdbcRepository.batchInsert(models, 2);
+
+        // Assert: the driver executed three batches of 2, 2 and 1 statements
+        assertEquals(3, updateCounts.length);
+        assertEquals(2, updateCounts[0].length);
+        assertEquals(2, updateCounts[1].length);
+        assertEquals(1, updateCounts[2].length);
+        assertEquals(5, repository.count());
+        assertEquals(YearMonth.of(2022, 5), repository.findAll().get(4).getDate());
+    }
+
+    @Test
+    void testBatchUpsert_updatesExistingLinksAndInsertsNewOnes() {
+        // Arrange
+        jdbcRepository.batchInsert(List.of(
+                new TedTalkModel("Title1", "Author1", YearMonth.of(2022, 1), 100, 10, "link1"),
+                new TedTalkModel("Untitled", null, null, 0, 0, null)
+        ), 10);
+
+        // Act
+        jdbcRepository.batchUpsert(List.of(
+                new TedTalkModel("Title1 (updated)", "Author1", YearMonth.of(2022, 1), 150, 20, "link1"),
+                new TedTalkModel("Title2", "Author2", YearMonth.of(2023, 2), 200, 30, "link2"),
+                new TedTalkModel("Untitled", null, null, 0, 0, null)
+        ), 10);
+
+        // Assert
+        assertEquals(4, repository.count(), "Rows without a link are always inserted");
+        TedTalkEntity updated = repository.findAll().stream()
+                .filter(entity -> "link1".equals(entity.getLink()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Title1 (updated)", updated.getTitle());
+        assertEquals(150, updated.getViews());
+        assertEquals(20, updated.getLikes());
+    }
 }
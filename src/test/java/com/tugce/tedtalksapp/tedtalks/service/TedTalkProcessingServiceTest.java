@@ -1,18 +1,25 @@
 package com.tugce.tedtalksapp.tedtalks.service;
 
 import com.tugce.tedtalksapp.tedtalks.entity.TedTalkEntity;
+import com.tugce.tedtalksapp.tedtalks.exception.CsvParseException;
+import com.tugce.tedtalksapp.tedtalks.model.ImportJob;
+import com.tugce.tedtalksapp.tedtalks.model.ImportOptions;
+import com.tugce.tedtalksapp.tedtalks.model.ImportSummary;
 import com.tugce.tedtalksapp.tedtalks.model.TedTalkModel;
 import com.tugce.tedtalksapp.tedtalks.repository.TedTalkRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.YearMonth;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 class TedTalkProcessingServiceTest {
@@ -21,16 +28,22 @@ class TedTalkProcessingServiceTest {
     private final CsvImporterService csvImporterService;
     private final TedTalkPersistenceService persistenceService;
     private final TedTalkProcessingService processingService;
+    private final ImportCheckpointService checkpointService;
+
+    @TempDir
+    Path tempDir;
 
     @Autowired
     public TedTalkProcessingServiceTest(TedTalkRepository repository,
                                         CsvImporterService csvImporterService,
                                         TedTalkPersistenceService persistenceService,
-                                        TedTalkProcessingService processingService) {
+                                        TedTalkProcessingService processingService,
+                                        ImportCheckpointService checkpointService) {
         this.repository = repository;
         this.csvImporterService = csvImporterService;
         this.persistenceService = persistenceService;
         this.processingService = processingService;
+        this.checkpointService = checkpointService;
     }
 
     @BeforeEach
@@ -47,15 +60,10 @@ class TedTalkProcessingServiceTest {
                 Talk 2,Author 2,February 2023,2000,1000,http://example.com/talk2
                 """;
 
-        MockMultipartFile file = new MockMultipartFile(
-                "file",
-                "tedtalks.csv",
-                "text/csv",
-                csvContent.getBytes()
-        );
+        ImportJob job = new ImportJob("tedtalks.csv");
 
         // Act
-        processingService.processCsv(file);
+        importCsv(csvContent, job);
 
         // Assert
         List<TedTalkEntity> entities = repository.findAll();
@@ -87,15 +95,10 @@ class TedTalkProcessingServiceTest {
                 Talk 2,Author 2,February 2023,2000,abcd,http://example.com/talk2
                 """;
 
-        MockMultipartFile file = new MockMultipartFile(
-                "file",
-                "invalid_tedtalks.csv",
-                "text/csv",
-                csvContent.getBytes()
-        );
+        ImportJob job = new ImportJob("invalid_tedtalks.csv");
 
         // Act
-        processingService.processCsv(file);
+        importCsv(csvContent, job);
 
         // Assert
         List<TedTalkEntity> entities = repository.findAll();
@@ -121,16 +124,11 @@ class TedTalkProcessingServiceTest {
     @Test
     void testProcessCsv_withEmptyFile() throws Exception {
         // Arrange
-        MockMultipartFile file = new MockMultipartFile(
-                "file",
-                "empty.csv",
-                "text/csv",
-                "".getBytes()
-        );
+        ImportJob job = new ImportJob("empty.csv");
 
         // Act & Assert
         Exception exception = org.junit.jupiter.api.Assertions.assertThrows(Exception.class, () -> {
-            processingService.processCsv(file);
+            importCsv("", job);
         });
 
         assertEquals("CSV file is empty", exception.getMessage());
@@ -139,5 +137,259 @@ class TedTalkProcessingServiceTest {
         List<TedTalkEntity> entities = repository.findAll();
         assertEquals(0, entities.size());
     }
-}
 
+    @Test
+    void testProcessCsv_lenientModeQuarantinesBadRows() throws Exception {
+        // Arrange
+        String csvContent = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,January 2022,1000,500,http://example.com/talk1
+                Talk 2,Author 2
+                Talk 3,Author 3,March 2023,3000,1500,http://example.com/talk3
+                """;
+        ImportJob job = new ImportJob("partly_broken.csv", new ImportOptions(true, 5L, null, false));
+
+        // Act
+        ImportSummary summary = importCsv(csvContent, job);
+
+        // Assert
+        assertEquals(3, summary.getRowsRead());
+        assertEquals(2, summary.getRowsImported());
+        assertEquals(1, summary.getRowsRejected());
+        assertEquals(1, job.getRowsFailed());
+        assertEquals(2, repository.findAll().size());
+
+        Path quarantineFile = Path.of(summary.getQuarantineFile());
+        List<String> quarantined = Files.readAllLines(quarantineFile);
+        Files.delete(quarantineFile);
+        assertEquals(2, quarantined.size());
+        assertEquals("\"row\",\"line\",\"reason\",\"title\",\"author\",\"date\",\"views\",\"likes\",\"link\"", quarantined.get(0));
+        assertEquals("\"2\",\"3\",\"Expected 6 columns but found 2\",\"Talk 2\",\"Author 2\"", quarantined.get(1));
+    }
+
+    @Test
+    void testProcessCsv_lenientModeQuarantinesMalformedRowAndReadsOn() throws Exception {
+        // Arrange: the quote opened in row 2 is never closed
+        String csvContent = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,January 2022,1000,500,http://example.com/talk1
+                "Talk 2,Author 2,February 2023,2000,1000,http://example.com/talk2
+                Talk 3,Author 3,March 2023,3000,1500,http://example.com/talk3
+                """;
+        ImportJob job = new ImportJob("stray_quote.csv", new ImportOptions(true, 5L, null, false));
+
+        // Act
+        ImportSummary summary = importCsv(csvContent, job);
+
+        // Assert
+        assertEquals(3, summary.getRowsRead());
+        assertEquals(2, summary.getRowsImported());
+        assertEquals(1, summary.getRowsRejected());
+        List<String> quarantined = Files.readAllLines(Path.of(summary.getQuarantineFile()));
+        Files.delete(Path.of(summary.getQuarantineFile()));
+        assertEquals(2, quarantined.size());
+        assertTrue(quarantined.get(1).startsWith("\"2\",\"3\",\"Unterminated quoted value in row at line 3\""),
+                "Unexpected quarantine row " + quarantined.get(1));
+    }
+
+    @Test
+    void testProcessCsv_lenientModeAbortsWhenErrorBudgetIsExceeded() {
+        // Arrange
+        String csvContent = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1
+                Talk 2,Author 2
+                """;
+        ImportJob job = new ImportJob("broken.csv", new ImportOptions(true, 1L, null, false));
+
+        // Act & Assert
+        CsvParseException exception = assertThrows(CsvParseException.class,
+                () -> importCsv(csvContent, job));
+        assertTrue(exception.getMessage().startsWith("Error budget exceeded"));
+        assertEquals(2, job.getRowsFailed());
+    }
+
+    @Test
+    void testProcessCsv_lenientModeEnforcesPercentageBudgetAtTheEnd() {
+        // Arrange: 1 of 3 rows rejected is above the 10% budget
+        String csvContent = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,January 2022,1000,500,http://example.com/talk1
+                Talk 2,Author 2
+                Talk 3,Author 3,March 2023,3000,1500,http://example.com/talk3
+                """;
+        ImportJob job = new ImportJob("broken.csv", new ImportOptions(true, null, 10.0, false));
+
+        // Act & Assert
+        CsvParseException exception = assertThrows(CsvParseException.class,
+                () -> importCsv(csvContent, job));
+        assertEquals("Error budget exceeded: 1 of 3 rows rejected, at most 10.0% allowed", exception.getMessage());
+    }
+
+    @Test
+    void testProcessCsv_reimportUpdatesTalksInPlace() throws Exception {
+        // Arrange
+        String firstDump = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,January 2022,1000,500,http://example.com/talk1
+                Talk 2,Author 2,February 2023,2000,1000,http://example.com/talk2
+                """;
+        String refreshedDump = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,January 2022,1500,700,http://example.com/talk1
+                Talk 2,Author 2,February 2023,2500,1200,http://example.com/talk2
+                Talk 3,Author 3,March 2024,10,1,http://example.com/talk3
+                """;
+
+        ImportOptions upsert = new ImportOptions(false, null, null, true);
+
+        // Act
+        importCsv(firstDump, new ImportJob("dump.csv", upsert));
+        importCsv(refreshedDump, new ImportJob("dump.csv", upsert));
+
+        // Assert
+        List<TedTalkEntity> entities = repository.findAll();
+        assertEquals(3, entities.size());
+        TedTalkEntity talk1 = entities.stream().filter(e -> e.getLink().equals("http://example.com/talk1")).findFirst().orElseThrow();
+        assertEquals(1500, talk1.getViews());
+        assertEquals(700, talk1.getLikes());
+    }
+
+    @Test
+    void testProcessCsv_appendReimportSkipsStoredLinks() throws Exception {
+        // Arrange
+        String firstDump = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,January 2022,1000,500,http://example.com/talk1
+                Talk 2,Author 2,February 2023,2000,1000,
+                """;
+        String refreshedDump = """
+                title,author,date,views,likes,link
+                Talk 1,Author 1,January 2022,1500,700,http://example.com/talk1
+                Talk 2,Author 2,February 2023,2000,1000,
+                Talk 3,Author 3,March 2024,10,1,http://example.com/talk3
+                """;
+        ImportOptions append = new ImportOptions(false, null, null, false);
+        importCsv(firstDump, new ImportJob("dump.csv", append));
+        ImportJob job = new ImportJob("dump.csv", append);
+
+        // Act
+        ImportSummary summary = importCsv(refreshedDump, job);
+
+        // Assert
+        assertEquals(3, summary.getRowsRead());
+        assertEquals(2, summary.getRowsImported());
+        assertEquals(1, summary.getRowsSkipped());
+        assertEquals(1, job.getRowsSkipped());
+        List<TedTalkEntity> entities = repository.findAll();
+        assertEquals(4, entities.size());
+        assertEquals(2, entities.stream().filter(e -> e.getLink() == null).count());
+        TedTalkEntity talk1 = entities.stream().filter(e -> "http://example.com/talk1".equals(e.getLink())).findFirst().orElseThrow();
+        assertEquals(1000, talk1.getViews());
+    }
+
+    @Test
+    void testProcessCsv_retryResumesAfterLastCommittedBatch() throws Exception {
+        // Arrange: the second batch fails in the database because of an oversized link
+        ImportJob job = new ImportJob("talks.csv", new ImportOptions(false, null, null, false));
+        String brokenDump = talksCsv(600, 550, "http://example.com/" + "x".repeat(300));
+        String fixedDump = talksCsv(600, 550, "http://example.com/talk550");
+        assertThrows(RuntimeException.class,
+                () -> importCsv(brokenDump, job));
+        assertEquals(500, repository.count());
+
+        // Act
+        ImportSummary summary = importCsv(fixedDump, job);
+
+        // Assert
+        assertEquals(600, summary.getRowsImported());
+        assertEquals(600, repository.count());
+        assertEquals(600, job.getRowsPersisted());
+        assertEquals(0, job.getRowsFailed());
+    }
+
+    @Test
+    void testProcessCsv_lenientRetryDoesNotQuarantineRowsTwice() throws Exception {
+        // Arrange: rows 10 and 520 are rejected; the second batch then fails, so the retry reads row 520 again
+        ImportJob job = new ImportJob("talks.csv", new ImportOptions(true, 10L, null, false));
+        String brokenDump = withShortRows(talksCsv(600, 550, "http://example.com/" + "x".repeat(300)), 10, 520);
+        String fixedDump = withShortRows(talksCsv(600, 550, "http://example.com/talk550"), 10, 520);
+        assertThrows(RuntimeException.class,
+                () -> importCsv(brokenDump, job));
+
+        // Act
+        ImportSummary summary = importCsv(fixedDump, job);
+
+        // Assert
+        assertEquals(598, summary.getRowsImported());
+        assertEquals(2, summary.getRowsRejected());
+        List<String> quarantined = Files.readAllLines(Path.of(summary.getQuarantineFile()));
+        Files.delete(Path.of(summary.getQuarantineFile()));
+        assertEquals(List.of("\"10\"", "\"520\""),
+                quarantined.subList(1, quarantined.size()).stream().map(row -> row.substring(0, row.indexOf(','))).toList());
+    }
+
+    @Test
+    void testProcessCsv_retrySeeksToCheckpointedOffset() throws Exception {
+        // Arrange
+        ImportJob job = new ImportJob("talks.csv", new ImportOptions(false, null, null, false));
+        assertThrows(RuntimeException.class,
+                () -> importCsv(talksCsv(600, 550, "http://example.com/" + "x".repeat(300)), job));
+        long offset = checkpointService.find(job.getId()).orElseThrow().getByteOffset();
+
+        // Every byte before the checkpoint is replaced, so reading those rows again would fail the import
+        String fixedDump = talksCsv(600, 550, "http://example.com/talk550");
+        String header = "title,author,date,views,likes,link\n";
+        String seekedDump = header + "#".repeat((int) offset - header.length() - 1) + "\n"
+                + fixedDump.substring((int) offset);
+
+        // Act
+        ImportSummary summary = importCsv(seekedDump, job);
+
+        // Assert
+        assertEquals(600, summary.getRowsImported());
+        assertEquals(600, repository.count());
+        assertTrue(repository.findAll().stream().anyMatch(e -> "http://example.com/talk600".equals(e.getLink())));
+    }
+
+    @Test
+    void testProcessFile_readsMappedFile() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("talks.csv");
+        Files.writeString(file, talksCsv(1200, 7, "\"http://example.com/talk7?a=1,b=2\""));
+        ImportJob job = new ImportJob("talks.csv", new ImportOptions(false, null, null, false));
+
+        // Act
+        ImportSummary summary = processingService.processFile(file, job);
+
+        // Assert
+        assertEquals(1200, summary.getRowsImported());
+        assertEquals(1200, repository.count());
+        assertTrue(repository.findAll().stream().anyMatch(e -> "http://example.com/talk7?a=1,b=2".equals(e.getLink())));
+        assertTrue(Files.exists(file), "Local files are left in place");
+    }
+
+    private static String talksCsv(int rows, int specialRow, String specialLink) {
+        StringBuilder csv = new StringBuilder("title,author,date,views,likes,link\n");
+        for (int i = 1; i <= rows; i++) {
+            String link = i == specialRow ? specialLink : "http://example.com/talk" + i;
+            csv.append("Talk ").append(i).append(",Author ").append(i).append(",May 2020,")
+                    .append(i).append(',').append(i).append(',').append(link).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String withShortRows(String csv, int... rows) {
+        for (int row : rows) {
+            csv = csv.replace("Talk " + row + ",Author " + row + ",May 2020," + row + "," + row + ",http://example.com/talk" + row + "\n",
+                    "Talk " + row + ",Author " + row + "\n");
+        }
+        return csv;
+    }
+
+    private ImportSummary importCsv(String csv, ImportJob job) throws IOException {
+        Path file = Files.createTempFile(tempDir, "talks-", ".csv");
+        Files.writeString(file, csv);
+        return processingService.processFile(file, job);
+    }
+}